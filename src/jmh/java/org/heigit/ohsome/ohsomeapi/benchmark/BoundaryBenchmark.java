@@ -0,0 +1,79 @@
+package org.heigit.ohsome.ohsomeapi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.GeometryBuilder;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessingUtils;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessor;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
+import org.locationtech.jts.geom.Geometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the processing of the bpolys parameter, given as list of coordinates or as GeoJSON,
+ * using thousands of small, disjoint square polygons.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoundaryBenchmark {
+
+  @Param({"1000", "5000"})
+  private int numberOfPolygons;
+  private String[] bpolys;
+  private String geoJson;
+
+  /** Creates the bpolys parameter in both of its formats. */
+  @Setup(Level.Trial)
+  public void setup() {
+    List<String> coordinates = new ArrayList<>();
+    StringBuilder features = new StringBuilder();
+    int columns = (int) Math.ceil(Math.sqrt(numberOfPolygons));
+    for (int i = 0; i < numberOfPolygons; i++) {
+      double minX = 8.6 + (i % columns) * 0.002;
+      double minY = 49.3 + (i / columns) * 0.002;
+      double[][] square = {{minX, minY}, {minX + 0.001, minY}, {minX + 0.001, minY + 0.001},
+          {minX, minY + 0.001}, {minX, minY}};
+      StringBuilder ring = new StringBuilder();
+      for (double[] coordinate : square) {
+        coordinates.add(String.valueOf(coordinate[0]));
+        coordinates.add(String.valueOf(coordinate[1]));
+        ring.append(ring.length() == 0 ? "[" : ",[").append(coordinate[0]).append(',')
+            .append(coordinate[1]).append(']');
+      }
+      features.append(i == 0 ? "" : ",").append("{\"type\":\"Feature\",\"properties\":{},")
+          .append("\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[").append(ring)
+          .append("]]}}");
+    }
+    bpolys = coordinates.toArray(new String[0]);
+    geoJson = "{\"type\":\"FeatureCollection\",\"features\":[" + features + "]}";
+  }
+
+  @Benchmark
+  public Geometry createBpolys() {
+    return new GeometryBuilder(new ProcessingData(null, null)).createBpolys(bpolys);
+  }
+
+  @Benchmark
+  public Geometry createGeometryFromGeoJson() {
+    ProcessingData processingData = new ProcessingData(null, null);
+    InputProcessor inputProcessor = new InputProcessor(processingData);
+    inputProcessor.setUtils(new InputProcessingUtils());
+    return new GeometryBuilder(processingData).createGeometryFromGeoJson(geoJson, inputProcessor);
+  }
+}
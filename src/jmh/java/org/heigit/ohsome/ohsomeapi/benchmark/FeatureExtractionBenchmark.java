@@ -0,0 +1,152 @@
+package org.heigit.ohsome.ohsomeapi.benchmark;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import org.heigit.bigspatialdata.oshdb.osm.OSMEntity;
+import org.heigit.bigspatialdata.oshdb.osm.OSMNode;
+import org.heigit.bigspatialdata.oshdb.util.OSHDBTimestamp;
+import org.heigit.bigspatialdata.oshdb.util.celliterator.ContributionType;
+import org.heigit.ohsome.ohsomeapi.controller.dataextraction.elements.ElementsGeometry;
+import org.heigit.ohsome.ohsomeapi.executor.DataExtractionPool;
+import org.heigit.ohsome.ohsomeapi.executor.ExecutionUtils;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
+import org.heigit.ohsome.ohsomeapi.output.Attribution;
+import org.heigit.ohsome.ohsomeapi.output.ExtractionFeature;
+import org.heigit.ohsome.ohsomeapi.output.ExtractionResponse;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Benchmarks the creation and the streamed output of the features of data-extraction requests,
+ * using synthetic OSM nodes with polygon geometries. The output is written to a stream which
+ * discards all bytes, so that only the serialization and the handling of the output is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeatureExtractionBenchmark {
+
+  @Param({"10000"})
+  private int numberOfFeatures;
+  @Param({"geojson", "geojsonseq", "flatgeobuf"})
+  private String format;
+  private OSMEntity[] entities;
+  private Geometry[] geometries;
+  private ExecutionUtils exeUtils;
+  private DataExtractionPool dataExtractionPool;
+  private ExtractionResponse osmData;
+
+  /** Creates the synthetic entities and the shared data-extraction pool. */
+  @Setup(Level.Trial)
+  public void setup() {
+    Random random = new Random(42);
+    GeometryFactory geometryFactory = new GeometryFactory();
+    entities = new OSMEntity[numberOfFeatures];
+    geometries = new Geometry[numberOfFeatures];
+    for (int i = 0; i < numberOfFeatures; i++) {
+      entities[i] = new OSMNode(i, 1, new OSHDBTimestamp(1577836800L + i), 1000L + i, 1,
+          new int[0], 0L, 0L);
+      double x = 8.6 + random.nextDouble() * 0.1;
+      double y = 49.3 + random.nextDouble() * 0.1;
+      // a circle-like polygon with 32 vertices
+      Coordinate[] ring = new Coordinate[33];
+      for (int j = 0; j < 32; j++) {
+        double angle = 2 * Math.PI * j / 32;
+        ring[j] = new Coordinate(x + Math.cos(angle) * 0.0005, y + Math.sin(angle) * 0.0005);
+      }
+      ring[32] = ring[0];
+      geometries[i] = geometryFactory.createPolygon(ring);
+    }
+    ProcessingData processingData = new ProcessingData(null, null);
+    processingData.setFormat(format);
+    exeUtils = new ExecutionUtils(processingData);
+    ProcessingData.setNumberOfDataExtractionThreads(Runtime.getRuntime().availableProcessors());
+    dataExtractionPool = new DataExtractionPool(0);
+    dataExtractionPool.init();
+    osmData = new ExtractionResponse(new Attribution("https://ohsome.org/copyrights",
+        "© OpenStreetMap contributors"), "benchmark", null, "FeatureCollection",
+        Collections.emptyList());
+  }
+
+  /** Shuts down the data-extraction pool. */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    dataExtractionPool.shutdown();
+  }
+
+  private ExtractionFeature createFeature(int index) {
+    return exeUtils.createOSMFeature(entities[index], geometries[index], new ExtractionFeature(),
+        Collections.emptySet(), false, true, false, ElementsGeometry.RAW,
+        EnumSet.noneOf(ContributionType.class));
+  }
+
+  @Benchmark
+  public void createOSMFeature(Blackhole blackhole) {
+    for (int i = 0; i < numberOfFeatures; i++) {
+      blackhole.consume(createFeature(i));
+    }
+  }
+
+  @Benchmark
+  public void streamResponse() throws Exception {
+    MockHttpServletResponse servletResponse = new MockHttpServletResponse() {
+      @Override
+      public ServletOutputStream getOutputStream() {
+        return NullServletOutputStream.INSTANCE;
+      }
+    };
+    exeUtils.streamResponse(servletResponse, osmData,
+        IntStream.range(0, numberOfFeatures).mapToObj(this::createFeature));
+  }
+
+  /** Output stream which discards all written bytes. */
+  private static class NullServletOutputStream extends ServletOutputStream {
+
+    static final NullServletOutputStream INSTANCE = new NullServletOutputStream();
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      // writes never block
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      // discard
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      // discard
+    }
+  }
+}
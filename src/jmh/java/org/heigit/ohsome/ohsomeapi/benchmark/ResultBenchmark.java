@@ -0,0 +1,105 @@
+package org.heigit.ohsome.ohsomeapi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.heigit.bigspatialdata.oshdb.util.OSHDBTimestamp;
+import org.heigit.bigspatialdata.oshdb.util.geometry.Geo;
+import org.heigit.ohsome.ohsomeapi.executor.ExecutionUtils;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessingUtils;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadata;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadataSnapshot;
+import org.heigit.ohsome.ohsomeapi.output.elements.ElementsResult;
+import org.heigit.ohsome.ohsomeapi.output.groupby.GroupByResult;
+import org.heigit.ohsome.ohsomeapi.utils.GeoJsonBoundaries;
+import org.heigit.ohsome.ohsomeapi.utils.GroupByBoundaryGeoJsonGenerator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the parsing of the time parameter and the creation of the result objects of
+ * aggregation requests, using synthetic monthly results of 1000 boundaries over 10 years.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultBenchmark {
+
+  private static final int NUMBER_OF_BOUNDARIES = 1000;
+  private static final int NUMBER_OF_TIMESTAMPS = 120;
+  private static final String[] TIMES = {"2014-01-01", "2014-01-01/2020-01-01",
+      "2010-01-01/2020-01-01/P1M", "/2020-01-01/P1Y", "2014-01-01T00:00:00Z//P1D"};
+  private InputProcessingUtils utils;
+  private ExecutionUtils exeUtils;
+  private SortedMap<OSHDBTimestamp, Integer> timeSeries;
+  private double boundaryArea;
+  private GroupByResult[] groupByResults;
+  private GeoJsonBoundaries geoJsonGeoms;
+
+  /** Creates the synthetic time series and groupBy results. */
+  @Setup(Level.Trial)
+  public void setup() {
+    // temporal extent of the data-extract, which the time parameter is checked against
+    ExtractMetadata.publish(new ExtractMetadataSnapshot("2007-10-08T00:00:00Z",
+        "2020-07-23T03:00:00Z", null, null, null, null, 0));
+    utils = new InputProcessingUtils();
+    exeUtils = new ExecutionUtils(new ProcessingData(null, null));
+    timeSeries = new TreeMap<>();
+    for (int i = 0; i < NUMBER_OF_TIMESTAMPS; i++) {
+      timeSeries.put(new OSHDBTimestamp(1262304000L + i * 2629800L), i * 17);
+    }
+    Geometry boundary = new GeometryFactory().createPolygon(new Coordinate[] {
+        new Coordinate(8.6, 49.3), new Coordinate(8.7, 49.3), new Coordinate(8.7, 49.4),
+        new Coordinate(8.6, 49.4), new Coordinate(8.6, 49.3)});
+    boundaryArea = Geo.areaOf(boundary);
+    ElementsResult[] results = exeUtils.fillElementsResult(timeSeries, false, boundaryArea);
+    groupByResults = new GroupByResult[NUMBER_OF_BOUNDARIES];
+    List<Geometry> boundaryList = new ArrayList<>(NUMBER_OF_BOUNDARIES);
+    for (int i = 0; i < NUMBER_OF_BOUNDARIES; i++) {
+      groupByResults[i] = new GroupByResult("boundary" + i, results);
+      boundaryList.add(boundary);
+    }
+    geoJsonGeoms = new GeoJsonBoundaries(boundaryList, null);
+  }
+
+  @Benchmark
+  public void extractIsoTime(Blackhole blackhole) {
+    for (String time : TIMES) {
+      blackhole.consume(utils.extractIsoTime(time));
+    }
+  }
+
+  @Benchmark
+  public ElementsResult[] fillElementsResult() {
+    return exeUtils.fillElementsResult(timeSeries, false, boundaryArea);
+  }
+
+  @Benchmark
+  public ElementsResult[] fillElementsResultDensity() {
+    return exeUtils.fillElementsResult(timeSeries, true, boundaryArea);
+  }
+
+  @Benchmark
+  public org.geojson.Feature[] createGeoJsonFeatures() {
+    return GroupByBoundaryGeoJsonGenerator.createGeoJsonFeatures(groupByResults, geoJsonGeoms);
+  }
+}
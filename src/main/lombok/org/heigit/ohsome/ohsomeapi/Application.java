@@ -133,7 +133,6 @@ public class Application implements ApplicationRunner {
           hikariConfig.setJdbcUrl(jdbcParam[1]);
           hikariConfig.setUsername(jdbcParam[2]);
           hikariConfig.setPassword(jdbcParam[3]);
-          hikariConfig.setMaximumPoolSize(numberOfDataExtractionThreads);
           DbConnData.keytablesDbPoolConfig = hikariConfig;
           break;
         case "database.multithreading":
@@ -171,6 +170,10 @@ public class Application implements ApplicationRunner {
     DbConnData.db.timeoutInMilliseconds(timeoutInMilliseconds);
     ProcessingData.setNumberOfClusterNodes(numberOfClusterNodes);
     ProcessingData.setNumberOfDataExtractionThreads(numberOfDataExtractionThreads);
+    if (DbConnData.keytablesDbPoolConfig != null) {
+      // one keytables connection per data-extraction thread, shared by all requests
+      DbConnData.keytablesDbPoolConfig.setMaximumPoolSize(numberOfDataExtractionThreads);
+    }
     if (DbConnData.db instanceof OSHDBJdbc) {
       DbConnData.db = ((OSHDBJdbc) DbConnData.db).multithreading(multithreading);
     }
@@ -0,0 +1,16 @@
+package org.heigit.ohsome.ohsomeapi.config;
+
+import org.heigit.ohsome.ohsomeapi.interceptor.RequestCancellationInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Async config, used for cancelling the processing of requests of disconnected clients. */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.registerDeferredResultInterceptors(new RequestCancellationInterceptor());
+  }
+}
@@ -2,20 +2,93 @@ package org.heigit.ohsome.ohsomeapi.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import java.lang.reflect.Type;
+import java.util.List;
 import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-
-/** Used for applying auto-indenting onto the JSON response. */
+/**
+ * Used for applying auto-indenting onto the JSON response. The indentation can be turned off for
+ * the whole server via the property ohsome.json.pretty-print, and for single requests via the
+ * parameter pretty.
+ */
 @Configuration
-public class JacksonConfig {
+public class JacksonConfig implements WebMvcConfigurer {
 
   @Autowired
   private ObjectMapper objectMapper;
+  @Value("${ohsome.json.pretty-print:true}")
+  private boolean prettyPrint;
 
   @PostConstruct
   public void setup() {
-    objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+    objectMapper.configure(SerializationFeature.INDENT_OUTPUT, prettyPrint);
+    ProcessingData.setDefaultPrettyPrint(prettyPrint);
+  }
+
+  /**
+   * Adds a converter for the requests, which override the server-wide indentation setting. It is
+   * added in front of the default converter, which writes the JSON responses of all other requests.
+   */
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    ObjectMapper overridingMapper =
+        objectMapper.copy().configure(SerializationFeature.INDENT_OUTPUT, !prettyPrint);
+    converters.add(0, new PrettyPrintOverridingConverter(overridingMapper, !prettyPrint));
+  }
+
+  /**
+   * Checks whether the JSON response of the given request should be indented. Invalid values of
+   * the pretty parameter don't need to be handled, as they are rejected by the input processing.
+   */
+  public static boolean isPrettyPrint(HttpServletRequest servletRequest) {
+    String pretty = servletRequest.getParameter("pretty");
+    if (pretty == null) {
+      return ProcessingData.isDefaultPrettyPrint();
+    }
+    pretty = pretty.replaceAll("\\s", "");
+    return "true".equalsIgnoreCase(pretty) || "yes".equalsIgnoreCase(pretty);
+  }
+
+  /** Writes the JSON responses of the requests having the given pretty setting. */
+  private static class PrettyPrintOverridingConverter extends MappingJackson2HttpMessageConverter {
+
+    private final boolean prettyPrint;
+
+    PrettyPrintOverridingConverter(ObjectMapper objectMapper, boolean prettyPrint) {
+      super(objectMapper);
+      this.prettyPrint = prettyPrint;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+      return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+      return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+      RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+      if (!(attributes instanceof ServletRequestAttributes)) {
+        return false;
+      }
+      HttpServletRequest servletRequest = ((ServletRequestAttributes) attributes).getRequest();
+      return isPrettyPrint(servletRequest) == prettyPrint && super.canWrite(clazz, mediaType);
+    }
   }
 }
@@ -87,7 +87,9 @@ public class SwaggerConfig implements SwaggerResourcesProvider {
             new Tag("Area", "Compute the area of polygonal OSM elements"),
             new Tag("Length", "Compute the length of linear OSM elements"),
             new Tag("Count", "Compute the count of point/linear/polygonal OSM elements"),
-            new Tag("Perimeter", "Compute the perimeter of polygonal OSM elements"))
+            new Tag("Perimeter", "Compute the perimeter of polygonal OSM elements"),
+            new Tag("Stats", "Compute the count, length, perimeter and/or area of OSM elements "
+                + "at once"))
         .forCodeGeneration(true).globalResponseMessage(RequestMethod.GET, responseMessages)
         .globalResponseMessage(RequestMethod.POST, responseMessages);
   }
@@ -211,6 +213,9 @@ public class SwaggerConfig implements SwaggerResourcesProvider {
     globalOperationParams.add(new ParameterBuilder().name("showMetadata")
         .description(ParameterDescriptions.SHOW_METADATA).modelRef(new ModelRef(string))
         .parameterType(query).defaultValue("").required(false).build());
+    globalOperationParams.add(new ParameterBuilder().name("pretty")
+        .description(ParameterDescriptions.PRETTY).modelRef(new ModelRef(string))
+        .parameterType(query).defaultValue("").required(false).build());
     return globalOperationParams;
   }
 }
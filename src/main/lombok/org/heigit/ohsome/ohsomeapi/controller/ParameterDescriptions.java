@@ -34,6 +34,8 @@ public class ParameterDescriptions {
       "List of possible property-groups added to each OSM-element: 'tags' and/or 'metadata'; "
           + "default: no property";
   public static final String SHOW_METADATA = "Boolean operator 'true' or 'false'; default: 'false'";
+  public static final String PRETTY = "Boolean operator 'true' or 'false' for indenting the JSON "
+      + "response; default: 'true', unless configured otherwise on the server";
   public static final String TIMEOUT = "Custom timeout in seconds; no default value";
   public static final String FILTER = "Combines several attributive filters, e.g. OSM type, "
       + "the geometry (simple feature) type, as well as the OSM tag; no default value";
@@ -44,6 +46,8 @@ public class ParameterDescriptions {
   public static final String CLIP_GEOMETRY = "Boolean operator to specify whether the returned "
       + "geometries of the features should be clipped to the query's spatial boundary (‘true’), "
       + "or not (‘false’); default: ‘true’";
+  public static final String METRICS = "Measure(s) 'count' and/or 'length' and/or 'perimeter' "
+      + "and/or 'area'; default: all four measures";
 
   private ParameterDescriptions() {
     throw new IllegalStateException("Utility class");
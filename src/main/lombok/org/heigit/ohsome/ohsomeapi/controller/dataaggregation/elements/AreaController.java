@@ -5,12 +5,14 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.heigit.ohsome.ohsomeapi.controller.DefaultSwaggerParameters;
 import org.heigit.ohsome.ohsomeapi.controller.ParameterDescriptions;
 import org.heigit.ohsome.ohsomeapi.executor.AggregateRequestExecutor;
 import org.heigit.ohsome.ohsomeapi.executor.ElementsRequestExecutor;
+import org.heigit.ohsome.ohsomeapi.executor.RequestExecutionPool;
 import org.heigit.ohsome.ohsomeapi.executor.RequestResource;
 import org.heigit.ohsome.ohsomeapi.output.DefaultAggregationResponse;
 import org.heigit.ohsome.ohsomeapi.output.Response;
@@ -43,11 +45,13 @@ public class AreaController {
       response = DefaultAggregationResponse.class)
   @RequestMapping(value = "", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response area(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
-      throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.AREA, servletRequest, servletResponse, false);
-    return executor.aggregate();
+  public CompletableFuture<Response> area(HttpServletRequest servletRequest,
+      HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.AREA,
+          servletRequest, servletResponse, false);
+      return executor.aggregate();
+    });
   }
 
   /**
@@ -67,10 +71,12 @@ public class AreaController {
       dataType = "string", required = false)
   @RequestMapping(value = "/groupBy/type", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response areaGroupByType(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> areaGroupByType(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByType(RequestResource.AREA, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByType(RequestResource.AREA, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -88,11 +94,13 @@ public class AreaController {
       nickname = "areaGroupByBoundary", response = GroupByResponse.class)
   @RequestMapping(value = "/groupBy/boundary", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response areaGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> areaGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.AREA, servletRequest, servletResponse, false);
-    return executor.aggregateGroupByBoundary();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.AREA,
+          servletRequest, servletResponse, false);
+      return executor.aggregateGroupByBoundary();
+    });
   }
 
   /**
@@ -115,10 +123,12 @@ public class AreaController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/groupBy/boundary/groupBy/tag",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response areaGroupByBoundaryGroupByTag(HttpServletRequest servletRequest,
-      HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.AREA,
-        servletRequest, servletResponse, true, false);
+  public CompletableFuture<Response> areaGroupByBoundaryGroupByTag(
+      HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.AREA,
+          servletRequest, servletResponse, true, false);
+    });
   }
 
   /**
@@ -138,10 +148,12 @@ public class AreaController {
       dataType = "string", required = true)})
   @RequestMapping(value = "/groupBy/key", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response areaGroupByKey(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> areaGroupByKey(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByKey(RequestResource.AREA, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByKey(RequestResource.AREA, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -164,10 +176,12 @@ public class AreaController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/groupBy/tag", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response areaGroupByTag(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> areaGroupByTag(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.AREA, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.AREA, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -187,11 +201,13 @@ public class AreaController {
       nickname = "areaDensity", response = DefaultAggregationResponse.class)
   @RequestMapping(value = "/density", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response areaDensity(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> areaDensity(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.AREA, servletRequest, servletResponse, true);
-    return executor.aggregate();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor =
+          new AggregateRequestExecutor(RequestResource.AREA, servletRequest, servletResponse, true);
+      return executor.aggregate();
+    });
   }
 
   /**
@@ -211,10 +227,12 @@ public class AreaController {
       dataType = "string", required = false)
   @RequestMapping(value = "/density/groupBy/type", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response areaDensityGroupByType(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> areaDensityGroupByType(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByType(RequestResource.AREA, servletRequest,
-        servletResponse, true, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByType(RequestResource.AREA, servletRequest,
+          servletResponse, true, true);
+    });
   }
 
   /**
@@ -233,11 +251,13 @@ public class AreaController {
       nickname = "areaDensityGroupByBoundary", response = GroupByResponse.class)
   @RequestMapping(value = "/density/groupBy/boundary",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response areaDensityGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> areaDensityGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.AREA, servletRequest, servletResponse, true);
-    return executor.aggregateGroupByBoundary();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor =
+          new AggregateRequestExecutor(RequestResource.AREA, servletRequest, servletResponse, true);
+      return executor.aggregateGroupByBoundary();
+    });
   }
 
   /**
@@ -260,10 +280,12 @@ public class AreaController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/density/groupBy/boundary/groupBy/tag",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response areaDensityGroupByBoundaryGroupByTag(HttpServletRequest servletRequest,
-      HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.AREA,
-        servletRequest, servletResponse, true, true);
+  public CompletableFuture<Response> areaDensityGroupByBoundaryGroupByTag(
+      HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.AREA,
+          servletRequest, servletResponse, true, true);
+    });
   }
 
   /**
@@ -286,10 +308,12 @@ public class AreaController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/density/groupBy/tag", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response areaDensityGroupByTag(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> areaDensityGroupByTag(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.AREA, servletRequest,
-        servletResponse, true, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.AREA, servletRequest,
+          servletResponse, true, true);
+    });
   }
 
   /**
@@ -321,10 +345,12 @@ public class AreaController {
           paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/ratio", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response areaRatio(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
-      throws Exception {
-    return ElementsRequestExecutor.aggregateRatio(RequestResource.AREA, servletRequest,
-        servletResponse);
+  public CompletableFuture<Response> areaRatio(HttpServletRequest servletRequest,
+      HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateRatio(RequestResource.AREA, servletRequest,
+          servletResponse);
+    });
   }
 
   /**
@@ -355,9 +381,11 @@ public class AreaController {
           dataType = "string", required = false)})
   @RequestMapping(value = "/ratio/groupBy/boundary",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response areaRatioGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> areaRatioGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateRatioGroupByBoundary(RequestResource.AREA,
-        servletRequest, servletResponse);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateRatioGroupByBoundary(RequestResource.AREA,
+          servletRequest, servletResponse);
+    });
   }
 }
@@ -4,12 +4,14 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.heigit.ohsome.ohsomeapi.controller.DefaultSwaggerParameters;
 import org.heigit.ohsome.ohsomeapi.controller.ParameterDescriptions;
 import org.heigit.ohsome.ohsomeapi.executor.AggregateRequestExecutor;
 import org.heigit.ohsome.ohsomeapi.executor.ElementsRequestExecutor;
+import org.heigit.ohsome.ohsomeapi.executor.RequestExecutionPool;
 import org.heigit.ohsome.ohsomeapi.executor.RequestResource;
 import org.heigit.ohsome.ohsomeapi.output.DefaultAggregationResponse;
 import org.heigit.ohsome.ohsomeapi.output.Response;
@@ -43,11 +45,13 @@ public class CountController {
       response = DefaultAggregationResponse.class)
   @RequestMapping(value = "", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response count(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
-      throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.COUNT, servletRequest, servletResponse, false);
-    return executor.aggregate();
+  public CompletableFuture<Response> count(HttpServletRequest servletRequest,
+      HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.COUNT,
+          servletRequest, servletResponse, false);
+      return executor.aggregate();
+    });
   }
 
   /**
@@ -67,10 +71,12 @@ public class CountController {
       dataType = "string", required = false)
   @RequestMapping(value = "/groupBy/type", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countGroupByType(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countGroupByType(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByType(RequestResource.COUNT, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByType(RequestResource.COUNT, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -89,11 +95,13 @@ public class CountController {
       paramType = "query", dataType = "string", required = false)
   @RequestMapping(value = "/groupBy/boundary", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.COUNT, servletRequest, servletResponse, false);
-    return executor.aggregateGroupByBoundary();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.COUNT,
+          servletRequest, servletResponse, false);
+      return executor.aggregateGroupByBoundary();
+    });
   }
 
   /**
@@ -116,10 +124,12 @@ public class CountController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/groupBy/boundary/groupBy/tag",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response countGroupByBoundaryGroupByTag(HttpServletRequest servletRequest,
-      HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.COUNT,
-        servletRequest, servletResponse, true, false);
+  public CompletableFuture<Response> countGroupByBoundaryGroupByTag(
+      HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.COUNT,
+          servletRequest, servletResponse, true, false);
+    });
   }
 
   /**
@@ -139,10 +149,12 @@ public class CountController {
       dataType = "string", required = true)})
   @RequestMapping(value = "/groupBy/key", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countGroupByKey(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countGroupByKey(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByKey(RequestResource.COUNT, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByKey(RequestResource.COUNT, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -165,10 +177,12 @@ public class CountController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/groupBy/tag", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countGroupByTag(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countGroupByTag(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.COUNT, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.COUNT, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -187,11 +201,13 @@ public class CountController {
       nickname = "countDensity", response = DefaultAggregationResponse.class)
   @RequestMapping(value = "/density", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countDensity(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countDensity(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.COUNT, servletRequest, servletResponse, true);
-    return executor.aggregate();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.COUNT,
+          servletRequest, servletResponse, true);
+      return executor.aggregate();
+    });
   }
 
   /**
@@ -211,10 +227,12 @@ public class CountController {
       dataType = "string", required = false)
   @RequestMapping(value = "density/groupBy/type", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countDensityGroupByType(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countDensityGroupByType(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByType(RequestResource.COUNT, servletRequest,
-        servletResponse, true, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByType(RequestResource.COUNT, servletRequest,
+          servletResponse, true, true);
+    });
   }
 
   /**
@@ -234,11 +252,13 @@ public class CountController {
       paramType = "query", dataType = "string", required = false)
   @RequestMapping(value = "/density/groupBy/boundary",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response countDensityGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countDensityGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.COUNT, servletRequest, servletResponse, true);
-    return executor.aggregateGroupByBoundary();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.COUNT,
+          servletRequest, servletResponse, true);
+      return executor.aggregateGroupByBoundary();
+    });
   }
 
   /**
@@ -261,10 +281,12 @@ public class CountController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/density/groupBy/boundary/groupBy/tag",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response countDensityGroupByBoundaryGroupByTag(HttpServletRequest servletRequest,
-      HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.COUNT,
-        servletRequest, servletResponse, true, true);
+  public CompletableFuture<Response> countDensityGroupByBoundaryGroupByTag(
+      HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.COUNT,
+          servletRequest, servletResponse, true, true);
+    });
   }
 
   /**
@@ -287,10 +309,12 @@ public class CountController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/density/groupBy/tag", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countDensityGroupByTag(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countDensityGroupByTag(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.COUNT, servletRequest,
-        servletResponse, true, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.COUNT, servletRequest,
+          servletResponse, true, true);
+    });
   }
 
   /**
@@ -320,10 +344,12 @@ public class CountController {
           dataType = "string", required = false)})
   @RequestMapping(value = "/ratio", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countRatio(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
-      throws Exception {
-    return ElementsRequestExecutor.aggregateRatio(RequestResource.COUNT, servletRequest,
-        servletResponse);
+  public CompletableFuture<Response> countRatio(HttpServletRequest servletRequest,
+      HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateRatio(RequestResource.COUNT, servletRequest,
+          servletResponse);
+    });
   }
 
   /**
@@ -354,9 +380,11 @@ public class CountController {
           dataType = "string", required = false)})
   @RequestMapping(value = "/ratio/groupBy/boundary",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response countRatioGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countRatioGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateRatioGroupByBoundary(RequestResource.COUNT,
-        servletRequest, servletResponse);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateRatioGroupByBoundary(RequestResource.COUNT,
+          servletRequest, servletResponse);
+    });
   }
 }
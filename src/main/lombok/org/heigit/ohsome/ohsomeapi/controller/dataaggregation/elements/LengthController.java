@@ -4,12 +4,14 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.heigit.ohsome.ohsomeapi.controller.DefaultSwaggerParameters;
 import org.heigit.ohsome.ohsomeapi.controller.ParameterDescriptions;
 import org.heigit.ohsome.ohsomeapi.executor.AggregateRequestExecutor;
 import org.heigit.ohsome.ohsomeapi.executor.ElementsRequestExecutor;
+import org.heigit.ohsome.ohsomeapi.executor.RequestExecutionPool;
 import org.heigit.ohsome.ohsomeapi.executor.RequestResource;
 import org.heigit.ohsome.ohsomeapi.output.DefaultAggregationResponse;
 import org.heigit.ohsome.ohsomeapi.output.Response;
@@ -42,11 +44,13 @@ public class LengthController {
       response = DefaultAggregationResponse.class)
   @RequestMapping(value = "", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response length(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
-      throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.LENGTH, servletRequest, servletResponse, false);
-    return executor.aggregate();
+  public CompletableFuture<Response> length(HttpServletRequest servletRequest,
+      HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.LENGTH,
+          servletRequest, servletResponse, false);
+      return executor.aggregate();
+    });
   }
 
   /**
@@ -63,10 +67,12 @@ public class LengthController {
       nickname = "lengthGroupByType", response = GroupByResponse.class)
   @RequestMapping(value = "/groupBy/type", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response lengthGroupByType(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> lengthGroupByType(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByType(RequestResource.LENGTH, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByType(RequestResource.LENGTH, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -86,11 +92,13 @@ public class LengthController {
       paramType = "query", dataType = "string", required = false)
   @RequestMapping(value = "/groupBy/boundary", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response lengthGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> lengthGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.LENGTH, servletRequest, servletResponse, false);
-    return executor.aggregateGroupByBoundary();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.LENGTH,
+          servletRequest, servletResponse, false);
+      return executor.aggregateGroupByBoundary();
+    });
   }
 
   /**
@@ -113,10 +121,12 @@ public class LengthController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/groupBy/boundary/groupBy/tag",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response lengthGroupByBoundaryGroupByTag(HttpServletRequest servletRequest,
-      HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.LENGTH,
-        servletRequest, servletResponse, true, false);
+  public CompletableFuture<Response> lengthGroupByBoundaryGroupByTag(
+      HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.LENGTH,
+          servletRequest, servletResponse, true, false);
+    });
   }
 
   /**
@@ -136,10 +146,12 @@ public class LengthController {
       required = true)})
   @RequestMapping(value = "/groupBy/key", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response lengthGroupByKey(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> lengthGroupByKey(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByKey(RequestResource.LENGTH, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByKey(RequestResource.LENGTH, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -162,10 +174,12 @@ public class LengthController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/groupBy/tag", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response lengthGroupByTag(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> lengthGroupByTag(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.LENGTH, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.LENGTH, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -184,11 +198,13 @@ public class LengthController {
       nickname = "lengthDensity", response = DefaultAggregationResponse.class)
   @RequestMapping(value = "/density", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response lengthDensity(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> lengthDensity(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.LENGTH, servletRequest, servletResponse, true);
-    return executor.aggregate();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.LENGTH,
+          servletRequest, servletResponse, true);
+      return executor.aggregate();
+    });
   }
 
   /**
@@ -205,10 +221,12 @@ public class LengthController {
       nickname = "lengthDensityGroupByType", response = GroupByResponse.class)
   @RequestMapping(value = "/density/groupBy/type", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response lengthDensityGroupByType(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> lengthDensityGroupByType(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByType(RequestResource.LENGTH, servletRequest,
-        servletResponse, true, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByType(RequestResource.LENGTH, servletRequest,
+          servletResponse, true, true);
+    });
   }
 
   /**
@@ -227,11 +245,13 @@ public class LengthController {
       paramType = "query", dataType = "string", required = false)
   @RequestMapping(value = "/density/groupBy/boundary",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response lengthDensityGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> lengthDensityGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor =
-        new AggregateRequestExecutor(RequestResource.LENGTH, servletRequest, servletResponse, true);
-    return executor.aggregateGroupByBoundary();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.LENGTH,
+          servletRequest, servletResponse, true);
+      return executor.aggregateGroupByBoundary();
+    });
   }
 
   /**
@@ -254,10 +274,12 @@ public class LengthController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/density/groupBy/boundary/groupBy/tag",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response lengthDensityGroupByBoundaryGroupByTag(HttpServletRequest servletRequest,
-      HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.LENGTH,
-        servletRequest, servletResponse, true, true);
+  public CompletableFuture<Response> lengthDensityGroupByBoundaryGroupByTag(
+      HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.LENGTH,
+          servletRequest, servletResponse, true, true);
+    });
   }
 
   /**
@@ -280,10 +302,12 @@ public class LengthController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/density/groupBy/tag", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response lengthDensityGroupByTag(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> lengthDensityGroupByTag(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.LENGTH, servletRequest,
-        servletResponse, true, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.LENGTH, servletRequest,
+          servletResponse, true, true);
+    });
   }
 
   /**
@@ -313,10 +337,12 @@ public class LengthController {
           dataType = "string", required = false)})
   @RequestMapping(value = "/ratio", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response lengthRatio(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> lengthRatio(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateRatio(RequestResource.LENGTH, servletRequest,
-        servletResponse);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateRatio(RequestResource.LENGTH, servletRequest,
+          servletResponse);
+    });
   }
 
   /**
@@ -347,9 +373,11 @@ public class LengthController {
           dataType = "string", required = false)})
   @RequestMapping(value = "/ratio/groupBy/boundary",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response lengthRatioGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> lengthRatioGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateRatioGroupByBoundary(RequestResource.LENGTH,
-        servletRequest, servletResponse);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateRatioGroupByBoundary(RequestResource.LENGTH,
+          servletRequest, servletResponse);
+    });
   }
 }
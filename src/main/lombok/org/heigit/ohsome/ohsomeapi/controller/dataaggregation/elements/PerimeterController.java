@@ -4,12 +4,14 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.heigit.ohsome.ohsomeapi.controller.DefaultSwaggerParameters;
 import org.heigit.ohsome.ohsomeapi.controller.ParameterDescriptions;
 import org.heigit.ohsome.ohsomeapi.executor.AggregateRequestExecutor;
 import org.heigit.ohsome.ohsomeapi.executor.ElementsRequestExecutor;
+import org.heigit.ohsome.ohsomeapi.executor.RequestExecutionPool;
 import org.heigit.ohsome.ohsomeapi.executor.RequestResource;
 import org.heigit.ohsome.ohsomeapi.output.DefaultAggregationResponse;
 import org.heigit.ohsome.ohsomeapi.output.Response;
@@ -43,11 +45,13 @@ public class PerimeterController {
       response = DefaultAggregationResponse.class)
   @RequestMapping(value = "", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response perimeter(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
-      throws Exception {
-    AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.PERIMETER,
-        servletRequest, servletResponse, false);
-    return executor.aggregate();
+  public CompletableFuture<Response> perimeter(HttpServletRequest servletRequest,
+      HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.PERIMETER,
+          servletRequest, servletResponse, false);
+      return executor.aggregate();
+    });
   }
 
   /**
@@ -67,10 +71,12 @@ public class PerimeterController {
       dataType = "string", required = false)
   @RequestMapping(value = "/groupBy/type", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response perimeterGroupByType(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> perimeterGroupByType(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByType(RequestResource.PERIMETER, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByType(RequestResource.PERIMETER, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -89,11 +95,13 @@ public class PerimeterController {
       nickname = "perimeterGroupByBoundary", response = GroupByResponse.class)
   @RequestMapping(value = "/groupBy/boundary", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response perimeterGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> perimeterGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.PERIMETER,
-        servletRequest, servletResponse, false);
-    return executor.aggregateGroupByBoundary();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.PERIMETER,
+          servletRequest, servletResponse, false);
+      return executor.aggregateGroupByBoundary();
+    });
   }
 
   /**
@@ -116,10 +124,12 @@ public class PerimeterController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/groupBy/boundary/groupBy/tag",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response perimeterGroupByBoundaryGroupByTag(HttpServletRequest servletRequest,
-      HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.PERIMETER,
-        servletRequest, servletResponse, true, false);
+  public CompletableFuture<Response> perimeterGroupByBoundaryGroupByTag(
+      HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.PERIMETER,
+          servletRequest, servletResponse, true, false);
+    });
   }
 
   /**
@@ -139,10 +149,12 @@ public class PerimeterController {
       dataType = "string", required = true)})
   @RequestMapping(value = "/groupBy/key", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response perimeterGroupByKey(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> perimeterGroupByKey(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByKey(RequestResource.PERIMETER, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByKey(RequestResource.PERIMETER, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -165,10 +177,12 @@ public class PerimeterController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/groupBy/tag", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response perimeterGroupByTag(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> perimeterGroupByTag(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.PERIMETER, servletRequest,
-        servletResponse, true, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.PERIMETER, servletRequest,
+          servletResponse, true, false);
+    });
   }
 
   /**
@@ -187,11 +201,13 @@ public class PerimeterController {
       nickname = "perimeterDensity", response = DefaultAggregationResponse.class)
   @RequestMapping(value = "/density", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response perimeterDensity(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> perimeterDensity(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.PERIMETER,
-        servletRequest, servletResponse, true);
-    return executor.aggregate();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.PERIMETER,
+          servletRequest, servletResponse, true);
+      return executor.aggregate();
+    });
   }
 
   /**
@@ -211,10 +227,12 @@ public class PerimeterController {
       dataType = "string", required = false)
   @RequestMapping(value = "density/groupBy/type", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response perimeterDensityGroupByType(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> perimeterDensityGroupByType(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByType(RequestResource.PERIMETER, servletRequest,
-        servletResponse, true, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByType(RequestResource.PERIMETER, servletRequest,
+          servletResponse, true, true);
+    });
   }
 
   /**
@@ -232,11 +250,13 @@ public class PerimeterController {
       nickname = "perimeterDensityGroupByBoundary", response = GroupByResponse.class)
   @RequestMapping(value = "/density/groupBy/boundary",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response perimeterDensityGroupByBoundary(HttpServletRequest servletRequest,
-      HttpServletResponse servletResponse) throws Exception {
-    AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.PERIMETER,
-        servletRequest, servletResponse, true);
-    return executor.aggregateGroupByBoundary();
+  public CompletableFuture<Response> perimeterDensityGroupByBoundary(
+      HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.PERIMETER,
+          servletRequest, servletResponse, true);
+      return executor.aggregateGroupByBoundary();
+    });
   }
 
   /**
@@ -259,10 +279,12 @@ public class PerimeterController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/density/groupBy/boundary/groupBy/tag",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response perimeterDensityGroupByBoundaryGroupByTag(HttpServletRequest servletRequest,
-      HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.PERIMETER,
-        servletRequest, servletResponse, true, true);
+  public CompletableFuture<Response> perimeterDensityGroupByBoundaryGroupByTag(
+      HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByBoundaryGroupByTag(RequestResource.PERIMETER,
+          servletRequest, servletResponse, true, true);
+    });
   }
 
   /**
@@ -285,10 +307,12 @@ public class PerimeterController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/density/groupBy/tag", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response perimeterDensityGroupByTag(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> perimeterDensityGroupByTag(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.PERIMETER, servletRequest,
-        servletResponse, true, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateGroupByTag(RequestResource.PERIMETER, servletRequest,
+          servletResponse, true, true);
+    });
   }
 
   /**
@@ -318,10 +342,12 @@ public class PerimeterController {
           dataType = "string", required = false)})
   @RequestMapping(value = "/ratio", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response perimeterRatio(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> perimeterRatio(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateRatio(RequestResource.PERIMETER, servletRequest,
-        servletResponse);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateRatio(RequestResource.PERIMETER, servletRequest,
+          servletResponse);
+    });
   }
 
   /**
@@ -352,9 +378,11 @@ public class PerimeterController {
           dataType = "string", required = false)})
   @RequestMapping(value = "/ratio/groupBy/boundary",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response perimeterRatioGroupByBoundary(HttpServletRequest servletRequest,
-      HttpServletResponse servletResponse) throws Exception {
-    return ElementsRequestExecutor.aggregateRatioGroupByBoundary(RequestResource.PERIMETER,
-        servletRequest, servletResponse);
+  public CompletableFuture<Response> perimeterRatioGroupByBoundary(
+      HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return ElementsRequestExecutor.aggregateRatioGroupByBoundary(RequestResource.PERIMETER,
+          servletRequest, servletResponse);
+    });
   }
 }
@@ -0,0 +1,53 @@
+package org.heigit.ohsome.ohsomeapi.controller.dataaggregation.elements;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiOperation;
+import java.util.concurrent.CompletableFuture;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.heigit.ohsome.ohsomeapi.controller.ParameterDescriptions;
+import org.heigit.ohsome.ohsomeapi.executor.AggregateRequestExecutor;
+import org.heigit.ohsome.ohsomeapi.executor.RequestExecutionPool;
+import org.heigit.ohsome.ohsomeapi.executor.RequestResource;
+import org.heigit.ohsome.ohsomeapi.output.Response;
+import org.heigit.ohsome.ohsomeapi.output.stats.StatsResponse;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller containing the GET and POST request handling methods, which are mapped to
+ * "/elements/stats".
+ */
+@Api(tags = "Stats")
+@RestController
+@RequestMapping("/elements/stats")
+public class StatsController {
+
+  /**
+   * Gives the count, length, perimeter and/or area of OSM elements, computed within one single
+   * pass over the data.
+   *
+   * @param servletRequest <code>HttpServletRequest</code> of the incoming request
+   * @param servletResponse <code>HttpServletResponse</code> of the outgoing response
+   * @return {@link org.heigit.ohsome.ohsomeapi.output.Response Response}
+   * @throws Exception thrown by
+   *         {@link org.heigit.ohsome.ohsomeapi.executor.AggregateRequestExecutor#aggregateStats()
+   *         aggregateStats}
+   */
+  @ApiOperation(value = "Count, length, perimeter and/or area of OSM elements", nickname = "stats",
+      response = StatsResponse.class)
+  @ApiImplicitParam(name = "metrics", value = ParameterDescriptions.METRICS, defaultValue = "",
+      paramType = "query", dataType = "string", required = false)
+  @RequestMapping(value = "", method = {RequestMethod.GET, RequestMethod.POST},
+      produces = {"application/json", "text/csv"})
+  public CompletableFuture<Response> stats(HttpServletRequest servletRequest,
+      HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      AggregateRequestExecutor executor = new AggregateRequestExecutor(RequestResource.STATS,
+          servletRequest, servletResponse, false);
+      return executor.aggregateStats();
+    });
+  }
+}
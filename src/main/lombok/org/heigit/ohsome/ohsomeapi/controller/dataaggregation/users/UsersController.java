@@ -4,10 +4,12 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.heigit.ohsome.ohsomeapi.controller.DefaultSwaggerParameters;
 import org.heigit.ohsome.ohsomeapi.controller.ParameterDescriptions;
+import org.heigit.ohsome.ohsomeapi.executor.RequestExecutionPool;
 import org.heigit.ohsome.ohsomeapi.executor.UsersRequestExecutor;
 import org.heigit.ohsome.ohsomeapi.output.DefaultAggregationResponse;
 import org.heigit.ohsome.ohsomeapi.output.Response;
@@ -36,9 +38,11 @@ public class UsersController {
       response = DefaultAggregationResponse.class)
   @RequestMapping(value = "/count", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response count(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
-      throws Exception {
-    return UsersRequestExecutor.count(servletRequest, servletResponse, false);
+  public CompletableFuture<Response> count(HttpServletRequest servletRequest,
+      HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return UsersRequestExecutor.count(servletRequest, servletResponse, false);
+    });
   }
 
   /**
@@ -55,9 +59,11 @@ public class UsersController {
       response = GroupByResponse.class)
   @RequestMapping(value = "/count/groupBy/type", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countGroupByType(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countGroupByType(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return UsersRequestExecutor.countGroupByType(servletRequest, servletResponse, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return UsersRequestExecutor.countGroupByType(servletRequest, servletResponse, false);
+    });
   }
 
   /**
@@ -80,9 +86,11 @@ public class UsersController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "count/groupBy/tag", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countGroupByTag(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countGroupByTag(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return UsersRequestExecutor.countGroupByTag(servletRequest, servletResponse, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return UsersRequestExecutor.countGroupByTag(servletRequest, servletResponse, false);
+    });
   }
 
   /**
@@ -102,9 +110,11 @@ public class UsersController {
       dataType = "string", required = true)})
   @RequestMapping(value = "count/groupBy/key", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countGroupByKey(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countGroupByKey(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return UsersRequestExecutor.countGroupByKey(servletRequest, servletResponse, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return UsersRequestExecutor.countGroupByKey(servletRequest, servletResponse, false);
+    });
   }
 
   /**
@@ -121,9 +131,11 @@ public class UsersController {
       nickname = "countGroupByBoundary", response = GroupByResponse.class)
   @RequestMapping(value = "/count/groupBy/boundary",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response countGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return UsersRequestExecutor.countGroupByBoundary(servletRequest, servletResponse, false);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return UsersRequestExecutor.countGroupByBoundary(servletRequest, servletResponse, false);
+    });
   }
 
   /**
@@ -143,9 +155,11 @@ public class UsersController {
       nickname = "countDensity", response = DefaultAggregationResponse.class)
   @RequestMapping(value = "/count/density", method = {RequestMethod.GET, RequestMethod.POST},
       produces = {"application/json", "text/csv"})
-  public Response countDensity(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countDensity(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return UsersRequestExecutor.count(servletRequest, servletResponse, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return UsersRequestExecutor.count(servletRequest, servletResponse, true);
+    });
   }
 
   /**
@@ -162,9 +176,11 @@ public class UsersController {
       nickname = "countDensityGroupByType", response = GroupByResponse.class)
   @RequestMapping(value = "/count/density/groupBy/type",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response countDensityGroupByType(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countDensityGroupByType(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return UsersRequestExecutor.countGroupByType(servletRequest, servletResponse, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return UsersRequestExecutor.countGroupByType(servletRequest, servletResponse, true);
+    });
   }
 
   /**
@@ -187,9 +203,11 @@ public class UsersController {
           defaultValue = "", paramType = "query", dataType = "string", required = false)})
   @RequestMapping(value = "/count/density/groupBy/tag",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response countDensityGroupByTag(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countDensityGroupByTag(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return UsersRequestExecutor.countGroupByTag(servletRequest, servletResponse, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return UsersRequestExecutor.countGroupByTag(servletRequest, servletResponse, true);
+    });
   }
 
   /**
@@ -207,8 +225,10 @@ public class UsersController {
       nickname = "countDensityGroupByBoundary", response = GroupByResponse.class)
   @RequestMapping(value = "/count/density/groupBy/boundary",
       method = {RequestMethod.GET, RequestMethod.POST}, produces = {"application/json", "text/csv"})
-  public Response countDensityGroupByBoundary(HttpServletRequest servletRequest,
+  public CompletableFuture<Response> countDensityGroupByBoundary(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    return UsersRequestExecutor.countGroupByBoundary(servletRequest, servletResponse, true);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      return UsersRequestExecutor.countGroupByBoundary(servletRequest, servletResponse, true);
+    });
   }
 }
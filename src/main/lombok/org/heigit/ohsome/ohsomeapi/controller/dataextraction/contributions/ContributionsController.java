@@ -3,10 +3,12 @@ package org.heigit.ohsome.ohsomeapi.controller.dataextraction.contributions;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiOperation;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.heigit.ohsome.ohsomeapi.controller.dataextraction.elements.ElementsGeometry;
 import org.heigit.ohsome.ohsomeapi.executor.DataRequestExecutor;
+import org.heigit.ohsome.ohsomeapi.executor.RequestExecutionPool;
 import org.heigit.ohsome.ohsomeapi.executor.RequestResource;
 import org.heigit.ohsome.ohsomeapi.output.ExtractionResponse;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -39,11 +41,14 @@ public class ContributionsController {
       required = true)
   @RequestMapping(value = "/geometry", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void contributions(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
-      throws Exception {
-    DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONS,
-        ElementsGeometry.RAW, servletRequest, servletResponse);
-    executor.extract();
+  public CompletableFuture<Void> contributions(HttpServletRequest servletRequest,
+      HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONS,
+          ElementsGeometry.RAW, servletRequest, servletResponse);
+      executor.extract();
+      return null;
+    });
   }
 
   /**
@@ -63,11 +68,14 @@ public class ContributionsController {
       required = true)
   @RequestMapping(value = "/bbox", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void contributionsBbox(HttpServletRequest servletRequest,
+  public CompletableFuture<Void> contributionsBbox(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONS,
-        ElementsGeometry.BBOX, servletRequest, servletResponse);
-    executor.extract();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONS,
+          ElementsGeometry.BBOX, servletRequest, servletResponse);
+      executor.extract();
+      return null;
+    });
   }
 
   /**
@@ -87,11 +95,14 @@ public class ContributionsController {
       required = true)
   @RequestMapping(value = "/centroid", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void contributionsCentroid(HttpServletRequest servletRequest,
+  public CompletableFuture<Void> contributionsCentroid(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONS,
-        ElementsGeometry.CENTROID, servletRequest, servletResponse);
-    executor.extract();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONS,
+          ElementsGeometry.CENTROID, servletRequest, servletResponse);
+      executor.extract();
+      return null;
+    });
   }
 
   /**
@@ -112,11 +123,14 @@ public class ContributionsController {
       required = true)
   @RequestMapping(value = "/latest/geometry", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void contributionsLatest(HttpServletRequest servletRequest,
+  public CompletableFuture<Void> contributionsLatest(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONSLATEST,
-        ElementsGeometry.RAW, servletRequest, servletResponse);
-    executor.extract();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONSLATEST,
+          ElementsGeometry.RAW, servletRequest, servletResponse);
+      executor.extract();
+      return null;
+    });
   }
 
   /**
@@ -137,11 +151,14 @@ public class ContributionsController {
       required = true)
   @RequestMapping(value = "/latest/bbox", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void contributionsBboxLatest(HttpServletRequest servletRequest,
+  public CompletableFuture<Void> contributionsBboxLatest(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONSLATEST,
-        ElementsGeometry.BBOX, servletRequest, servletResponse);
-    executor.extract();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONSLATEST,
+          ElementsGeometry.BBOX, servletRequest, servletResponse);
+      executor.extract();
+      return null;
+    });
   }
 
   /**
@@ -162,11 +179,14 @@ public class ContributionsController {
       required = true)
   @RequestMapping(value = "/latest/centroid", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void contributionsCentroidLatest(HttpServletRequest servletRequest,
+  public CompletableFuture<Void> contributionsCentroidLatest(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONSLATEST,
-        ElementsGeometry.CENTROID, servletRequest, servletResponse);
-    executor.extract();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      DataRequestExecutor executor = new DataRequestExecutor(RequestResource.CONTRIBUTIONSLATEST,
+          ElementsGeometry.CENTROID, servletRequest, servletResponse);
+      executor.extract();
+      return null;
+    });
   }
 
 }
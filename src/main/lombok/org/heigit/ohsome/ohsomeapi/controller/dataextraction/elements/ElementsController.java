@@ -2,9 +2,11 @@ package org.heigit.ohsome.ohsomeapi.controller.dataextraction.elements;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.heigit.ohsome.ohsomeapi.executor.ElementsRequestExecutor;
+import org.heigit.ohsome.ohsomeapi.executor.RequestExecutionPool;
 import org.heigit.ohsome.ohsomeapi.executor.RequestResource;
 import org.heigit.ohsome.ohsomeapi.output.ExtractionResponse;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -34,10 +36,13 @@ public class ElementsController {
       nickname = "elementsGeometry", response = ExtractionResponse.class)
   @RequestMapping(value = "/geometry", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void elementsGeometry(HttpServletRequest servletRequest,
+  public CompletableFuture<Void> elementsGeometry(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    ElementsRequestExecutor.extract(RequestResource.DATAEXTRACTION, ElementsGeometry.RAW,
-        servletRequest, servletResponse);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      ElementsRequestExecutor.extract(RequestResource.DATAEXTRACTION, ElementsGeometry.RAW,
+          servletRequest, servletResponse);
+      return null;
+    });
   }
 
   /**
@@ -54,10 +59,13 @@ public class ElementsController {
       nickname = "elementsBbox", response = ExtractionResponse.class)
   @RequestMapping(value = "/bbox", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void elementsBbox(HttpServletRequest servletRequest, HttpServletResponse servletResponse)
-      throws Exception {
-    ElementsRequestExecutor.extract(RequestResource.DATAEXTRACTION, ElementsGeometry.BBOX,
-        servletRequest, servletResponse);
+  public CompletableFuture<Void> elementsBbox(HttpServletRequest servletRequest,
+      HttpServletResponse servletResponse) throws Exception {
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      ElementsRequestExecutor.extract(RequestResource.DATAEXTRACTION, ElementsGeometry.BBOX,
+          servletRequest, servletResponse);
+      return null;
+    });
   }
 
   /**
@@ -74,9 +82,12 @@ public class ElementsController {
       nickname = "elementsCentroid", response = ExtractionResponse.class)
   @RequestMapping(value = "/centroid", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void elementsCentroid(HttpServletRequest servletRequest,
+  public CompletableFuture<Void> elementsCentroid(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    ElementsRequestExecutor.extract(RequestResource.DATAEXTRACTION, ElementsGeometry.CENTROID,
-        servletRequest, servletResponse);
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      ElementsRequestExecutor.extract(RequestResource.DATAEXTRACTION, ElementsGeometry.CENTROID,
+          servletRequest, servletResponse);
+      return null;
+    });
   }
 }
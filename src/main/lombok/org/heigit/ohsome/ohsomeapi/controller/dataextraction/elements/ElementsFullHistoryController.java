@@ -3,9 +3,11 @@ package org.heigit.ohsome.ohsomeapi.controller.dataextraction.elements;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiOperation;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.heigit.ohsome.ohsomeapi.executor.DataRequestExecutor;
+import org.heigit.ohsome.ohsomeapi.executor.RequestExecutionPool;
 import org.heigit.ohsome.ohsomeapi.executor.RequestResource;
 import org.heigit.ohsome.ohsomeapi.output.ExtractionResponse;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -40,11 +42,14 @@ public class ElementsFullHistoryController {
       required = true)
   @RequestMapping(value = "/geometry", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void elementsFullHistory(HttpServletRequest servletRequest,
+  public CompletableFuture<Void> elementsFullHistory(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    DataRequestExecutor executor = new DataRequestExecutor(RequestResource.DATAEXTRACTION,
-        ElementsGeometry.RAW, servletRequest, servletResponse);
-    executor.extract();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      DataRequestExecutor executor = new DataRequestExecutor(RequestResource.DATAEXTRACTION,
+          ElementsGeometry.RAW, servletRequest, servletResponse);
+      executor.extract();
+      return null;
+    });
   }
 
   /**
@@ -65,11 +70,14 @@ public class ElementsFullHistoryController {
       required = true)
   @RequestMapping(value = "/bbox", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void elementsBboxFullHistory(HttpServletRequest servletRequest,
+  public CompletableFuture<Void> elementsBboxFullHistory(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    DataRequestExecutor executor = new DataRequestExecutor(RequestResource.DATAEXTRACTION,
-        ElementsGeometry.BBOX, servletRequest, servletResponse);
-    executor.extract();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      DataRequestExecutor executor = new DataRequestExecutor(RequestResource.DATAEXTRACTION,
+          ElementsGeometry.BBOX, servletRequest, servletResponse);
+      executor.extract();
+      return null;
+    });
   }
 
   /**
@@ -89,10 +97,13 @@ public class ElementsFullHistoryController {
       required = true)
   @RequestMapping(value = "/centroid", method = {RequestMethod.GET, RequestMethod.POST},
       produces = "application/json")
-  public void elementsCentroidFullHistory(HttpServletRequest servletRequest,
+  public CompletableFuture<Void> elementsCentroidFullHistory(HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) throws Exception {
-    DataRequestExecutor executor = new DataRequestExecutor(RequestResource.DATAEXTRACTION,
-        ElementsGeometry.CENTROID, servletRequest, servletResponse);
-    executor.extract();
+    return RequestExecutionPool.execute(servletRequest, () -> {
+      DataRequestExecutor executor = new DataRequestExecutor(RequestResource.DATAEXTRACTION,
+          ElementsGeometry.CENTROID, servletRequest, servletResponse);
+      executor.extract();
+      return null;
+    });
   }
 }
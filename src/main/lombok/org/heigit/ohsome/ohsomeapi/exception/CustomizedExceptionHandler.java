@@ -5,6 +5,7 @@ import java.time.format.DateTimeFormatter;
 import javax.servlet.http.HttpServletRequest;
 import org.heigit.bigspatialdata.oshdb.util.exceptions.OSHDBTimeoutException;
 import org.heigit.ohsome.ohsomeapi.utils.RequestUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -61,6 +62,19 @@ public class CustomizedExceptionHandler extends ResponseEntityExceptionHandler {
         HttpStatus.PAYLOAD_TOO_LARGE, servletRequest);
   }
 
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public final ResponseEntity<ErrorDetails> handleServiceUnavailableException(
+      ServiceUnavailableException ex, HttpServletRequest servletRequest) {
+    ResponseEntity<ErrorDetails> response =
+        createExceptionResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, servletRequest);
+    if (ex.getRetryAfterSeconds() == null) {
+      return response;
+    }
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+    return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+  }
+
   @ExceptionHandler(DatabaseAccessException.class)
   public final ResponseEntity<ErrorDetails> handleDatabaseAccessException(
       DatabaseAccessException ex, HttpServletRequest servletRequest) {
@@ -3,13 +3,27 @@ package org.heigit.ohsome.ohsomeapi.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
-/** Exception class corresponding to the HTTP status code 503. */
+/**
+ * Exception class corresponding to the HTTP status code 503. It can hold the number of seconds
+ * after which the client may retry its request, which is sent as Retry-After header.
+ */
 @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
 public class ServiceUnavailableException extends RuntimeException {
 
   private static final long serialVersionUID = 1250019723628732922L;
+  private final Long retryAfterSeconds;
 
   public ServiceUnavailableException(String message) {
+    this(message, null);
+  }
+
+  public ServiceUnavailableException(String message, Long retryAfterSeconds) {
     super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /** Gives the number of seconds after which the request may be retried, or null if unknown. */
+  public Long getRetryAfterSeconds() {
+    return retryAfterSeconds;
   }
 }
@@ -4,20 +4,18 @@ import static org.heigit.ohsome.ohsomeapi.utils.GroupByBoundaryGeoJsonGenerator.
 
 import com.opencsv.CSVWriter;
 import java.io.IOException;
-import java.text.DecimalFormat;
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.heigit.bigspatialdata.oshdb.api.generic.OSHDBCombinedIndex;
 import org.heigit.bigspatialdata.oshdb.api.generic.function.SerializableFunction;
 import org.heigit.bigspatialdata.oshdb.api.mapreducer.MapAggregator;
@@ -40,11 +38,13 @@ import org.heigit.ohsome.ohsomeapi.output.Metadata;
 import org.heigit.ohsome.ohsomeapi.output.Response;
 import org.heigit.ohsome.ohsomeapi.output.contributions.UsersResult;
 import org.heigit.ohsome.ohsomeapi.output.elements.ElementsResult;
-import org.heigit.ohsome.ohsomeapi.output.groupby.GroupByObject;
 import org.heigit.ohsome.ohsomeapi.output.groupby.GroupByResponse;
 import org.heigit.ohsome.ohsomeapi.output.groupby.GroupByResult;
 import org.heigit.ohsome.ohsomeapi.output.ratio.RatioResult;
+import org.heigit.ohsome.ohsomeapi.output.stats.StatsResponse;
+import org.heigit.ohsome.ohsomeapi.output.stats.StatsResult;
 import org.heigit.ohsome.ohsomeapi.utils.RequestUtils;
+import org.heigit.ohsome.ohsomeapi.utils.RoundingUtils;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.Polygonal;
 
@@ -54,6 +54,9 @@ import org.locationtech.jts.geom.Polygonal;
  */
 public class AggregateRequestExecutor extends RequestExecutor {
 
+  /** Measures of /elements/stats requests in the order of their output. */
+  private static final List<RequestResource> STATS_MEASURES = List.of(RequestResource.COUNT,
+      RequestResource.LENGTH, RequestResource.PERIMETER, RequestResource.AREA);
   private final RequestResource requestResource;
   private final InputProcessor inputProcessor;
   private final ProcessingData processingData;
@@ -80,43 +83,13 @@ public class AggregateRequestExecutor extends RequestExecutor {
    *         {@link org.heigit.bigspatialdata.oshdb.api.mapreducer.MapAggregator#sum() sum}
    */
   public Response aggregate() throws Exception {
-    final SortedMap<OSHDBTimestamp, ? extends Number> result;
-    MapReducer<OSMEntitySnapshot> mapRed = null;
-    mapRed = inputProcessor.processParameters();
-    switch (requestResource) {
-      case COUNT:
-        result = mapRed.aggregateByTimestamp().count();
-        break;
-      case AREA:
-        result = mapRed.aggregateByTimestamp()
-            .sum((SerializableFunction<OSMEntitySnapshot, Number>) snapshot -> ExecutionUtils
-                .cacheInUserData(snapshot.getGeometry(), () -> Geo.areaOf(snapshot.getGeometry())));
-        break;
-      case LENGTH:
-        result = mapRed.aggregateByTimestamp()
-            .sum((SerializableFunction<OSMEntitySnapshot, Number>) snapshot -> ExecutionUtils
-                .cacheInUserData(snapshot.getGeometry(),
-                    () -> Geo.lengthOf(snapshot.getGeometry())));
-        break;
-      case PERIMETER:
-        result = mapRed.aggregateByTimestamp()
-            .sum((SerializableFunction<OSMEntitySnapshot, Number>) snapshot -> {
-              if (snapshot.getGeometry() instanceof Polygonal) {
-                return ExecutionUtils.cacheInUserData(snapshot.getGeometry(),
-                    () -> Geo.lengthOf(snapshot.getGeometry().getBoundary()));
-              } else {
-                return 0.0;
-              }
-            });
-        break;
-      default:
-        throw new RuntimeException("Unsupported RequestResource type for this processing. "
-            + "Only COUNT, LENGTH, PERIMETER, and AREA are permitted here");
-    }
-    Geometry geom = inputProcessor.getGeometry();
+    final MapReducer<OSMEntitySnapshot> mapRed = inputProcessor.processParameters();
+    final SortedMap<OSHDBTimestamp, ? extends Number> result = AggregationResultCache
+        .getOrCompute("aggregate/" + requestResource, inputProcessor,
+            () -> computeCountLengthPerimeterArea(mapRed));
     RequestParameters requestParameters = processingData.getRequestParameters();
-    ElementsResult[] resultSet =
-        fillElementsResult(result, requestParameters.isDensity(), df, geom);
+    ElementsResult[] resultSet = fillElementsResult(result, requestParameters.isDensity(),
+        processingData.getRequestGeomArea());
     String description = Description.aggregate(requestParameters.isDensity(),
         requestResource.getDescription(), requestResource.getUnit());
     Metadata metadata = generateMetadata(description);
@@ -126,6 +99,47 @@ public class AggregateRequestExecutor extends RequestExecutor {
     return DefaultAggregationResponse.of(ATTRIBUTION, Application.API_VERSION, metadata, resultSet);
   }
 
+  /**
+   * Performs a count, length, perimeter and/or area calculation within one single pass over the
+   * data. The measures are given by the metrics parameter and default to all four of them.
+   *
+   * @return {@link org.heigit.ohsome.ohsomeapi.output.stats.StatsResponse StatsResponse}
+   * @throws BadRequestException if the metrics parameter contains an unknown measure
+   * @throws Exception thrown by
+   *         {@link org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessor#processParameters()
+   *         processParameters}, or
+   *         {@link org.heigit.bigspatialdata.oshdb.api.mapreducer.MapAggregator#reduce reduce}
+   */
+  public Response aggregateStats() throws Exception {
+    final MapReducer<OSMEntitySnapshot> mapRed = inputProcessor.processParameters();
+    final List<RequestResource> measures = processMetrics();
+    final SortedMap<OSHDBTimestamp, ElementsStatistics> result = AggregationResultCache
+        .getOrCompute("aggregate/" + requestResource, inputProcessor,
+            () -> computeStatistics(mapRed, measures), measures.toString());
+    StatsResult[] resultSet = new StatsResult[result.size()];
+    int count = 0;
+    for (Entry<OSHDBTimestamp, ElementsStatistics> entry : result.entrySet()) {
+      ElementsStatistics stats = entry.getValue();
+      resultSet[count] =
+          new StatsResult(TimestampFormatter.getInstance().isoDateTime(entry.getKey()),
+              statsValue(stats, measures, RequestResource.COUNT),
+              statsValue(stats, measures, RequestResource.LENGTH),
+              statsValue(stats, measures, RequestResource.PERIMETER),
+              statsValue(stats, measures, RequestResource.AREA));
+      count++;
+    }
+    List<String> labels = new LinkedList<>();
+    for (RequestResource measure : measures) {
+      labels.add(measure.getDescription() + " (" + measure.getUnit() + ")");
+    }
+    Metadata metadata = generateMetadata(Description.aggregateStats(labels));
+    if ("csv".equalsIgnoreCase(processingData.getRequestParameters().getFormat())) {
+      return writeCsv(createCsvTopComments(metadata),
+          writer -> writeStatsCsvResponse(writer, result, measures));
+    }
+    return new StatsResponse(ATTRIBUTION, Application.API_VERSION, metadata, resultSet);
+  }
+
   /**
    * Performs a count|length|perimeter|area calculation grouped by the boundary.
    * 
@@ -149,11 +163,10 @@ public class AggregateRequestExecutor extends RequestExecutor {
     Object groupByName;
     Object[] boundaryIds = utils.getBoundaryIds();
     int count = 0;
-    ArrayList<Geometry> boundaries = new ArrayList<>(processingData.getBoundaryList());
     for (Entry<Integer, ? extends SortedMap<OSHDBTimestamp, ? extends Number>> entry : groupByResult
         .entrySet()) {
       ElementsResult[] results = fillElementsResult(entry.getValue(), requestParameters.isDensity(),
-          df, boundaries.get(count));
+          processingData.getBoundaryArea(count));
       groupByName = boundaryIds[count];
       resultSet[count] = new GroupByResult(groupByName, results);
       count++;
@@ -170,6 +183,93 @@ public class AggregateRequestExecutor extends RequestExecutor {
     return new GroupByResponse(ATTRIBUTION, Application.API_VERSION, metadata, resultSet);
   }
 
+  /**
+   * Computes the count|length|perimeter|area aggregated by timestamp.
+   *
+   * @throws RuntimeException if an unsupported RequestResource type is used
+   * @throws Exception thrown by
+   *         {@link org.heigit.bigspatialdata.oshdb.api.mapreducer.MapAggregator#count() count}, or
+   *         {@link org.heigit.bigspatialdata.oshdb.api.mapreducer.MapAggregator#sum() sum}
+   */
+  private SortedMap<OSHDBTimestamp, ? extends Number> computeCountLengthPerimeterArea(
+      MapReducer<OSMEntitySnapshot> mapRed) throws Exception {
+    switch (requestResource) {
+      case COUNT:
+        return mapRed.aggregateByTimestamp().count();
+      case AREA:
+        return mapRed.aggregateByTimestamp()
+            .sum((SerializableFunction<OSMEntitySnapshot, Number>) snapshot -> ExecutionUtils
+                .cacheInUserData(snapshot.getGeometry(), () -> Geo.areaOf(snapshot.getGeometry())));
+      case LENGTH:
+        return mapRed.aggregateByTimestamp()
+            .sum((SerializableFunction<OSMEntitySnapshot, Number>) snapshot -> ExecutionUtils
+                .cacheInUserData(snapshot.getGeometry(),
+                    () -> Geo.lengthOf(snapshot.getGeometry())));
+      case PERIMETER:
+        return mapRed.aggregateByTimestamp()
+            .sum((SerializableFunction<OSMEntitySnapshot, Number>) snapshot -> {
+              if (snapshot.getGeometry() instanceof Polygonal) {
+                return ExecutionUtils.cacheInUserData(snapshot.getGeometry(),
+                    () -> Geo.lengthOf(snapshot.getGeometry().getBoundary()));
+              } else {
+                return 0.0;
+              }
+            });
+      default:
+        throw new RuntimeException("Unsupported RequestResource type for this processing. "
+            + "Only COUNT, LENGTH, PERIMETER, and AREA are permitted here");
+    }
+  }
+
+  /**
+   * Computes the requested measures aggregated by timestamp, reducing the geometries of each
+   * timestamp into one {@link ElementsStatistics} object.
+   *
+   * @throws Exception thrown by
+   *         {@link org.heigit.bigspatialdata.oshdb.api.mapreducer.MapAggregator#reduce reduce}
+   */
+  private SortedMap<OSHDBTimestamp, ElementsStatistics> computeStatistics(
+      MapReducer<OSMEntitySnapshot> mapRed, List<RequestResource> measures) throws Exception {
+    final boolean withLength = measures.contains(RequestResource.LENGTH);
+    final boolean withPerimeter = measures.contains(RequestResource.PERIMETER);
+    final boolean withArea = measures.contains(RequestResource.AREA);
+    return mapRed.aggregateByTimestamp().map(OSMEntitySnapshot::getGeometry).reduce(
+        ElementsStatistics::new,
+        (stats, geom) -> stats.add(geom, withLength, withPerimeter, withArea),
+        ElementsStatistics::combine);
+  }
+
+  /**
+   * Processes the metrics parameter of /elements/stats requests.
+   *
+   * @return the requested measures in the order of {@link #STATS_MEASURES}
+   * @throws BadRequestException if the metrics parameter contains an unknown measure
+   */
+  private List<RequestResource> processMetrics() {
+    String[] metrics = inputProcessor.splitParamOnComma(
+        inputProcessor.createEmptyArrayIfNull(servletRequest.getParameterValues("metrics")));
+    if (metrics.length == 0) {
+      return STATS_MEASURES;
+    }
+    EnumSet<RequestResource> requested = EnumSet.noneOf(RequestResource.class);
+    for (String metric : metrics) {
+      RequestResource measure = STATS_MEASURES.stream()
+          .filter(m -> m.getDescription().equalsIgnoreCase(metric.trim())).findFirst()
+          .orElseThrow(() -> new BadRequestException(ExceptionMessages.METRICS_PARAM));
+      requested.add(measure);
+    }
+    return STATS_MEASURES.stream().filter(requested::contains).collect(Collectors.toList());
+  }
+
+  /** Returns the rounded value of the given measure, or null if it was not requested. */
+  private static Double statsValue(ElementsStatistics stats, List<RequestResource> measures,
+      RequestResource measure) {
+    if (!measures.contains(measure)) {
+      return null;
+    }
+    return RoundingUtils.round(stats.get(measure));
+  }
+
   /**
    * Creates the metadata for the JSON response containing info like execution time, request URL and
    * a short description of the returned data.
@@ -217,14 +317,26 @@ public class AggregateRequestExecutor extends RequestExecutor {
                 String.valueOf(ratioResult.getValue2()), String.valueOf(ratioResult.getRatio())});
       }
     } else if (resultSet instanceof GroupByResult[]) {
-      GroupByObject[] rs = (GroupByResult[]) resultSet;
-      if (resultSet.length == 0) {
-        writer.writeNext(new String[] {"timestamp"}, false);
-      } else {
-        var rows = createCsvResponseForElementsGroupBy(rs);
-        writer.writeNext(rows.getLeft().toArray(new String[rows.getLeft().size()]), false);
-        writer.writeAll(rows.getRight(), false);
+      ExecutionUtils.writeCsvRowsForElementsGroupBy(writer, (GroupByResult[]) resultSet);
+    }
+  }
+
+  /** Writing of the CSV response for /elements/stats requests using one column per measure. */
+  private void writeStatsCsvResponse(CSVWriter writer,
+      SortedMap<OSHDBTimestamp, ElementsStatistics> result, List<RequestResource> measures) {
+    String[] columnNames = new String[measures.size() + 1];
+    columnNames[0] = "timestamp";
+    for (int i = 0; i < measures.size(); i++) {
+      columnNames[i + 1] = measures.get(i).getDescription();
+    }
+    writer.writeNext(columnNames, false);
+    for (Entry<OSHDBTimestamp, ElementsStatistics> entry : result.entrySet()) {
+      String[] row = new String[measures.size() + 1];
+      row[0] = TimestampFormatter.getInstance().isoDateTime(entry.getKey());
+      for (int i = 0; i < measures.size(); i++) {
+        row[i + 1] = String.valueOf(statsValue(entry.getValue(), measures, measures.get(i)));
       }
+      writer.writeNext(row);
     }
   }
 
@@ -273,55 +385,23 @@ public class AggregateRequestExecutor extends RequestExecutor {
   }
 
   /**
-   * Creates the csv response for /elements/_/groupBy requests.
-   * 
-   * @param resultSet <code>GroupByObject</code> array containing <code>GroupByResult</code> objects
-   *        containing <code>ElementsResult</code> objects
-   * @return <code>Pair</code> containing the column names (left) and the data rows (right)
+   * Fills the ElementsResult array with respective ElementsResult objects.
+   *
+   * @param area area of the boundary in square meters, which is only used for density results
    */
-  private ImmutablePair<List<String>, List<String[]>> createCsvResponseForElementsGroupBy(
-      GroupByObject[] resultSet) {
-    List<String> columnNames = new LinkedList<>();
-    columnNames.add("timestamp");
-    List<String[]> rows = new LinkedList<>();
-    for (int i = 0; i < resultSet.length; i++) {
-      GroupByResult groupByResult = (GroupByResult) resultSet[i];
-      Object groupByObject = groupByResult.getGroupByObject();
-      if (groupByObject instanceof Object[]) {
-        Object[] groupByObjectArr = (Object[]) groupByObject;
-        columnNames.add(groupByObjectArr[0].toString() + "_" + groupByObjectArr[1].toString());
-      } else {
-        columnNames.add(groupByObject.toString());
-      }
-      for (int j = 0; j < groupByResult.getResult().length; j++) {
-        ElementsResult elemResult = (ElementsResult) groupByResult.getResult()[j];
-        if (i == 0) {
-          String[] row = new String[resultSet.length + 1];
-          row[0] = elemResult.getTimestamp();
-          row[1] = String.valueOf(elemResult.getValue());
-          rows.add(row);
-        } else {
-          rows.get(j)[i + 1] = String.valueOf(elemResult.getValue());
-        }
-      }
-    }
-    return new ImmutablePair<>(columnNames, rows);
-  }
-
-  /** Fills the ElementsResult array with respective ElementsResult objects. */
   private ElementsResult[] fillElementsResult(SortedMap<OSHDBTimestamp, ? extends Number> entryVal,
-      boolean isDensity, DecimalFormat df, Geometry geom) {
+      boolean isDensity, double area) {
     ElementsResult[] results = new ElementsResult[entryVal.entrySet().size()];
     int count = 0;
     for (Entry<OSHDBTimestamp, ? extends Number> entry : entryVal.entrySet()) {
       if (isDensity) {
-        results[count] = new ElementsResult(
-            TimestampFormatter.getInstance().isoDateTime(entry.getKey()), Double.parseDouble(
-                df.format(entry.getValue().doubleValue() / (Geo.areaOf(geom) * 0.000001))));
+        results[count] =
+            new ElementsResult(TimestampFormatter.getInstance().isoDateTime(entry.getKey()),
+                RoundingUtils.round(entry.getValue().doubleValue() / (area * 0.000001)));
       } else {
         results[count] =
             new ElementsResult(TimestampFormatter.getInstance().isoDateTime(entry.getKey()),
-                Double.parseDouble(df.format(entry.getValue().doubleValue())));
+                RoundingUtils.round(entry.getValue().doubleValue()));
       }
       count++;
     }
@@ -337,27 +417,27 @@ public class AggregateRequestExecutor extends RequestExecutor {
    *         {@link org.heigit.bigspatialdata.oshdb.api.mapreducer.MapAggregator#sum(SerializableFunction)
    *         sum}
    */
-  private <P extends Geometry & Polygonal> SortedMap<OSHDBCombinedIndex<OSHDBTimestamp, Integer>, ? extends Number> computeCountLengthPerimeterAreaGbB(
+  private SortedMap<OSHDBCombinedIndex<OSHDBTimestamp, Integer>, ? extends Number> computeCountLengthPerimeterAreaGbB(
       RequestResource requestResource, BoundaryType boundaryType,
       MapReducer<OSMEntitySnapshot> mapRed, InputProcessor inputProcessor) throws Exception {
     if (boundaryType == BoundaryType.NOBOUNDARY) {
       throw new BadRequestException(ExceptionMessages.NO_BOUNDARY);
     }
     MapAggregator<OSHDBCombinedIndex<OSHDBTimestamp, Integer>, Geometry> preResult;
-    ArrayList<Geometry> arrGeoms = new ArrayList<>(processingData.getBoundaryList());
-    @SuppressWarnings("unchecked") // intentionally as check for P on Polygonal is already performed
-    Map<Integer, P> geoms = IntStream.range(0, arrGeoms.size()).boxed()
-        .collect(Collectors.toMap(idx -> idx, idx -> (P) arrGeoms.get(idx)));
-    MapAggregator<OSHDBCombinedIndex<OSHDBTimestamp, Integer>, OSMEntitySnapshot> mapAgg =
-        mapRed.aggregateByTimestamp().aggregateByGeometry(geoms);
     if (processingData.isContainingSimpleFeatureTypes()) {
-      mapAgg = inputProcessor.filterOnSimpleFeatures(mapAgg);
+      mapRed = inputProcessor.filterOnSimpleFeatures(mapRed);
     }
     Optional<FilterExpression> filter = processingData.getFilterExpression();
     if (filter.isPresent()) {
-      mapAgg = mapAgg.filter(filter.get());
+      mapRed = mapRed.filter(filter.get());
     }
-    preResult = mapAgg.map(OSMEntitySnapshot::getGeometry);
+    BoundarySplitter splitter = new BoundarySplitter(processingData.getBoundaryList());
+    preResult = mapRed.flatMap(snapshot -> splitter.split(snapshot.getGeometry()).entrySet()
+        .stream().map(part -> new ImmutablePair<>(part.getKey(), part.getValue()))
+        .collect(Collectors.toList()))
+        .aggregateByTimestamp()
+        .aggregateBy(Pair::getKey, splitter.getBoundaryIndices())
+        .map(Pair::getValue);
     switch (requestResource) {
       case COUNT:
         return preResult.count();
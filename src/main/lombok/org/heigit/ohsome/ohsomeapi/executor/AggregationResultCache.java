@@ -0,0 +1,280 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.heigit.bigspatialdata.oshdb.util.OSHDBTimestamp;
+import org.heigit.bigspatialdata.oshdb.util.time.IsoDateTimeParser;
+import org.heigit.bigspatialdata.oshdb.util.time.OSHDBTimestamps;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessingUtils;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessor;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadata;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadataSnapshot;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Server-side cache for the results of aggregation requests. The results are stored under a
+ * canonical key of the processed request parameters, so that requests which only differ in the
+ * order of their types, keys or timestamps, or in the notation of their boundaries, share the same
+ * entry. The weight of an entry is the number of values of its result, and the whole cache is
+ * invalidated as soon as the replication sequence number of the data-extract changes.
+ *
+ * <p>
+ * The cached results are shared by all requests with the same key, so result maps are only handed
+ * out as unmodifiable views.
+ */
+@Component
+public class AggregationResultCache {
+
+  private final long maxWeight;
+  private Cache<String, Object> cache;
+  private volatile int replicationSequenceNumber;
+
+  public AggregationResultCache(@Value("${ohsome.cache.max-weight:1000000}") long maxWeight) {
+    this.maxWeight = maxWeight;
+  }
+
+  /** Creates the cache and makes it available via ProcessingData. */
+  @PostConstruct
+  public void init() {
+    cache = CacheBuilder.newBuilder().maximumWeight(maxWeight)
+        .weigher((String key, Object value) -> value instanceof Map ? ((Map<?, ?>) value).size() + 1
+            : 1)
+        .recordStats().build();
+    replicationSequenceNumber = getReplicationSequenceNumber(ExtractMetadata.getSnapshot());
+    ProcessingData.setAggregationResultCache(this);
+  }
+
+  /** Removes all entries and makes this cache unavailable. */
+  @PreDestroy
+  public void close() {
+    if (ProcessingData.getAggregationResultCache() == this) {
+      ProcessingData.setAggregationResultCache(null);
+    }
+    cache.invalidateAll();
+  }
+
+  /**
+   * Returns the cached result of the given operation, or computes and caches it, if there is none.
+   * The given input processor must already have processed its parameters. Concurrent requests for
+   * the same key wait for the first computation instead of starting their own. A result, whose
+   * computation outlasted a change of the data-extract, is returned but not kept.
+   *
+   * @param operation name of the operation, which produces the result, including everything that
+   *        is not covered by the request parameters (e.g. the request resource)
+   * @param inputProcessor the <code>InputProcessor</code> of the request
+   * @param computation the computation of the result
+   * @param additionalParameters further request parameters, which influence the result
+   * @throws Exception thrown by the given computation, or by
+   *         {@link #createKey(String, InputProcessor, String...) createKey}
+   */
+  @SuppressWarnings("unchecked") // entries are only read by the operation which created them
+  public <T> T get(String operation, InputProcessor inputProcessor, Callable<T> computation,
+      String... additionalParameters) throws Exception {
+    int sequenceNumber =
+        getReplicationSequenceNumber(inputProcessor.getProcessingData().getExtractMetadata());
+    if (sequenceNumber != replicationSequenceNumber) {
+      cache.invalidateAll();
+      replicationSequenceNumber = sequenceNumber;
+    }
+    // the sequence number is part of the key, so that results of an older data-extract, which are
+    // only stored after the invalidation, are never read
+    String key = sequenceNumber + "/" + createKey(operation, inputProcessor, additionalParameters);
+    try {
+      Object result = cache.get(key, () -> unmodifiable(computation.call()));
+      if (getReplicationSequenceNumber(ExtractMetadata.getSnapshot()) != sequenceNumber) {
+        cache.invalidate(key);
+      }
+      return (T) result;
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /** Convenience method, which uses the cache if it is available, or else computes the result. */
+  public static <T> T getOrCompute(String operation, InputProcessor inputProcessor,
+      Callable<T> computation, String... additionalParameters) throws Exception {
+    AggregationResultCache resultCache = ProcessingData.getAggregationResultCache();
+    if (resultCache == null || resultCache.maxWeight <= 0) {
+      return computation.call();
+    }
+    return resultCache.get(operation, inputProcessor, computation, additionalParameters);
+  }
+
+  /** Gives an unmodifiable view of the given result, if it is a map. */
+  private static Object unmodifiable(Object result) {
+    if (result instanceof SortedMap) {
+      return Collections.unmodifiableSortedMap((SortedMap<?, ?>) result);
+    } else if (result instanceof Map) {
+      return Collections.unmodifiableMap((Map<?, ?>) result);
+    }
+    return result;
+  }
+
+  public long getHitCount() {
+    return cache.stats().hitCount();
+  }
+
+  public long getMissCount() {
+    return cache.stats().missCount();
+  }
+
+  public long getSize() {
+    return cache.size();
+  }
+
+  /**
+   * Creates the canonical key of a request. It consists of a hash over the sorted types, the sorted
+   * key-value pairs, the normalized boundary geometry, the resolved timestamps and the
+   * {@link #normalizeFilter(String) normalized} filter parameter.
+   *
+   * @throws Exception thrown by
+   *         {@link org.heigit.bigspatialdata.oshdb.util.time.IsoDateTimeParser#parseIsoDateTime(String)
+   *         parseIsoDateTime}
+   */
+  static String createKey(String operation, InputProcessor inputProcessor,
+      String... additionalParameters) throws Exception {
+    ProcessingData processingData = inputProcessor.getProcessingData();
+    RequestParameters requestParameters = processingData.getRequestParameters();
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    update(digest, operation);
+    update(digest, String.valueOf(requestParameters.isSnapshot()));
+    String[] types = requestParameters.getTypes().clone();
+    for (int i = 0; i < types.length; i++) {
+      types[i] = types[i].trim().toLowerCase();
+    }
+    Arrays.sort(types);
+    update(digest, String.join(",", types));
+    String[] keys = requestParameters.getKeys();
+    String[] values = requestParameters.getValues();
+    String[] tags = new String[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      tags[i] = keys[i].trim() + "=" + (i < values.length ? values[i].trim() : "");
+    }
+    Arrays.sort(tags);
+    update(digest, String.join(",", tags));
+    update(digest, processingData.getBoundaryType().toString());
+    Geometry geometry = inputProcessor.getGeometry().copy();
+    geometry.normalize();
+    digest.update(new WKBWriter().write(geometry));
+    update(digest, resolveTimestamps(inputProcessor.getUtils(), processingData.getExtractMetadata(),
+        requestParameters));
+    String filter = requestParameters.getFilter();
+    update(digest, filter != null ? normalizeFilter(filter) : "");
+    for (String parameter : additionalParameters) {
+      update(digest, parameter);
+    }
+    return Base64.getEncoder().encodeToString(digest.digest());
+  }
+
+  /**
+   * Resolves the time parameter of the request into the list of the actually used timestamps.
+   *
+   * @throws Exception thrown by
+   *         {@link org.heigit.bigspatialdata.oshdb.util.time.IsoDateTimeParser#parseIsoDateTime(String)
+   *         parseIsoDateTime}
+   */
+  private static String resolveTimestamps(InputProcessingUtils utils,
+      ExtractMetadataSnapshot extractMetadata, RequestParameters requestParameters)
+      throws Exception {
+    String[] time = requestParameters.getTime();
+    List<Long> timestamps = new ArrayList<>();
+    if (time.length == 0 || time.length == 1 && time[0].trim().isEmpty()) {
+      if (!requestParameters.isSnapshot()) {
+        timestamps.add(parse(extractMetadata.getFromTstamp()));
+      }
+      timestamps.add(parse(extractMetadata.getToTstamp()));
+    } else if (time.length == 1) {
+      String[] timeData = utils.extractIsoTime(time[0]);
+      if (timeData[2] != null) {
+        for (OSHDBTimestamp timestamp : new OSHDBTimestamps(timeData[0], timeData[1], timeData[2])
+            .get()) {
+          timestamps.add(timestamp.getRawUnixTimestamp());
+        }
+      } else {
+        timestamps.add(parse(timeData[0]));
+        if (timeData[1] != null) {
+          timestamps.add(parse(timeData[1]));
+        }
+      }
+    } else {
+      for (String timestamp : time) {
+        timestamps.add(parse(timestamp));
+      }
+      timestamps.sort(null);
+    }
+    return timestamps.toString();
+  }
+
+  /**
+   * Normalizes the notation of the given filter. Whitespace outside of quoted strings is dropped,
+   * unless it separates two words (e.g. <code>type:way and highway=*</code>), where it is collapsed
+   * into a single blank. Quoted strings are kept as they are.
+   */
+  static String normalizeFilter(String filter) {
+    StringBuilder normalized = new StringBuilder(filter.length());
+    boolean quoted = false;
+    boolean whitespace = false;
+    for (int i = 0; i < filter.length(); i++) {
+      char c = filter.charAt(i);
+      if (quoted) {
+        normalized.append(c);
+        if (c == '\\' && i + 1 < filter.length()) {
+          normalized.append(filter.charAt(++i));
+        } else if (c == '"') {
+          quoted = false;
+        }
+      } else if (Character.isWhitespace(c)) {
+        whitespace = true;
+      } else {
+        if (whitespace && normalized.length() > 0
+            && isWordCharacter(normalized.charAt(normalized.length() - 1))
+            && isWordCharacter(c)) {
+          normalized.append(' ');
+        }
+        whitespace = false;
+        normalized.append(c);
+        quoted = c == '"';
+      }
+    }
+    return normalized.toString();
+  }
+
+  private static boolean isWordCharacter(char c) {
+    return "()=!,".indexOf(c) < 0;
+  }
+
+  private static int getReplicationSequenceNumber(ExtractMetadataSnapshot extractMetadata) {
+    return extractMetadata != null ? extractMetadata.getReplicationSequenceNumber() : 0;
+  }
+
+  private static long parse(String timestamp) throws Exception {
+    return IsoDateTimeParser.parseIsoDateTime(timestamp.trim()).toEpochSecond();
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    digest.update(value.getBytes(StandardCharsets.UTF_8));
+    // separator, so that the borders between the single values are part of the hash
+    digest.update((byte) 0);
+  }
+}
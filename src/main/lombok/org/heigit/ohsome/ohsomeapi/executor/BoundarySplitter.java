@@ -0,0 +1,142 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.TopologyException;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * Assigns the geometries of OSM features to the boundaries of a /groupBy/boundary request. The
+ * boundaries are held in an STRtree of prepared geometries, so that each geometry is only tested
+ * against the boundaries whose envelopes intersect its own, instead of against all of them.
+ * Geometries lying completely within a boundary are not clipped.
+ *
+ * <p>
+ * The index is built lazily, once per request and JVM, as it is not serializable itself.
+ */
+public class BoundarySplitter implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+  private final ArrayList<Geometry> boundaries;
+  private transient volatile STRtree index;
+
+  public BoundarySplitter(Collection<Geometry> boundaries) {
+    this.boundaries = new ArrayList<>(boundaries);
+  }
+
+  /** Returns the indices of all boundaries, e.g. to zero-fill the aggregation by boundary. */
+  public List<Integer> getBoundaryIndices() {
+    return IntStream.range(0, boundaries.size()).boxed().collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the indices of all boundaries intersecting the given geometry.
+   *
+   * @param geometry the geometry to test, or null
+   * @return indices of the intersecting boundaries; empty if the geometry is null or empty
+   */
+  public List<Integer> intersecting(Geometry geometry) {
+    List<Integer> result = new ArrayList<>();
+    if (geometry == null || geometry.isEmpty()) {
+      return result;
+    }
+    for (IndexedBoundary boundary : candidates(geometry)) {
+      if (boundary.prepared.intersects(geometry)) {
+        result.add(boundary.index);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Splits the given geometry into its parts within each of the intersecting boundaries.
+   *
+   * @param geometry the geometry to split, or null
+   * @return the (clipped) parts of the geometry by the index of their boundary; empty if the
+   *         geometry is null or empty
+   */
+  public Map<Integer, Geometry> split(Geometry geometry) {
+    Map<Integer, Geometry> result = new HashMap<>();
+    if (geometry == null || geometry.isEmpty()) {
+      return result;
+    }
+    for (IndexedBoundary boundary : candidates(geometry)) {
+      if (boundary.prepared.covers(geometry)) {
+        // fully contained: no clipping needed
+        result.put(boundary.index, geometry);
+      } else if (boundary.prepared.intersects(geometry)) {
+        Geometry clipped = clip(geometry, boundary.prepared.getGeometry());
+        if (clipped != null && !clipped.isEmpty()) {
+          result.put(boundary.index, clipped);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Computes the intersection of the given geometry and boundary. Invalid polygons are repaired
+   * first, if the intersection cannot be computed otherwise.
+   *
+   * @return the clipped geometry, or null if it cannot be computed
+   */
+  private static Geometry clip(Geometry geometry, Geometry boundary) {
+    try {
+      return geometry.intersection(boundary);
+    } catch (TopologyException e) {
+      if (geometry instanceof Polygonal) {
+        return geometry.buffer(0).intersection(boundary);
+      }
+      return null;
+    }
+  }
+
+  @SuppressWarnings("unchecked") // the index only contains IndexedBoundary objects
+  private List<IndexedBoundary> candidates(Geometry geometry) {
+    return getIndex().query(geometry.getEnvelopeInternal());
+  }
+
+  private STRtree getIndex() {
+    STRtree result = index;
+    if (result == null) {
+      synchronized (this) {
+        result = index;
+        if (result == null) {
+          result = new STRtree();
+          PreparedGeometryFactory factory = new PreparedGeometryFactory();
+          for (int i = 0; i < boundaries.size(); i++) {
+            Geometry boundary = boundaries.get(i);
+            result.insert(boundary.getEnvelopeInternal(),
+                new IndexedBoundary(i, factory.create(boundary)));
+          }
+          // build the tree now, as building it is not thread-safe
+          result.build();
+          index = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /** A boundary within the index, together with its position in the list of boundaries. */
+  private static class IndexedBoundary {
+
+    private final int index;
+    private final PreparedGeometry prepared;
+
+    IndexedBoundary(int index, PreparedGeometry prepared) {
+      this.index = index;
+      this.prepared = prepared;
+    }
+  }
+}
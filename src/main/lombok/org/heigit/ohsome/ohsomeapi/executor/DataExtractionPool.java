@@ -0,0 +1,114 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Application-wide, bounded thread pool used for processing the features of data-extraction
+ * requests. All extraction requests share the same
+ * {@link ProcessingData#getNumberOfDataExtractionThreads() numberOfDataExtractionThreads} worker
+ * threads. The number of extraction requests, which are processed at the same time, is limited by
+ * a fair semaphore, and waiting requests are served in order of arrival.
+ *
+ * <p>
+ * The semaphore does not split the pool between the running requests: their parallel streams
+ * share the worker threads by work-stealing, so a single running request can still use all of
+ * them.
+ */
+@Component
+public class DataExtractionPool {
+
+  private final int maxConcurrentRequests;
+  private ForkJoinPool threadPool;
+  private Semaphore requestPermits;
+
+  public DataExtractionPool(
+      @Value("${cluster.dataextraction.maxrequests:0}") int maxConcurrentRequests) {
+    this.maxConcurrentRequests = maxConcurrentRequests;
+  }
+
+  /** Creates the shared thread pool and makes it available via ProcessingData. */
+  @PostConstruct
+  public void init() {
+    int numberOfThreads = ProcessingData.getNumberOfDataExtractionThreads();
+    threadPool = new ForkJoinPool(numberOfThreads);
+    // by default, allow as many parallel requests as each of them gets at least 4 threads
+    int permits = maxConcurrentRequests > 0 ? maxConcurrentRequests
+        : Math.max(1, numberOfThreads / 4);
+    requestPermits = new Semaphore(permits, true);
+    ProcessingData.setDataExtractionPool(this);
+  }
+
+  /**
+   * Executes the given task inside the shared thread pool, so that parallel streams used in it run
+   * on the pool's worker threads. Blocks until a request slot is free and the task has finished.
+   *
+   * <p>
+   * If the current thread is interrupted while the task is running, the task is not stopped by
+   * this method, but it keeps its request slot until it has really finished. The task has to stop
+   * on its own, e.g. by checking the cancellation token of its request.
+   *
+   * @throws ExecutionException if the task has thrown an exception
+   * @throws InterruptedException if the current thread was interrupted while waiting
+   */
+  public void execute(Runnable task) throws ExecutionException, InterruptedException {
+    requestPermits.acquire();
+    AtomicBoolean started = new AtomicBoolean(false);
+    CountDownLatch finished = new CountDownLatch(1);
+    ForkJoinTask<?> forkJoinTask = threadPool.submit(() -> {
+      if (!started.compareAndSet(false, true)) {
+        // the calling thread has given up the task before it was started
+        return;
+      }
+      try {
+        task.run();
+      } finally {
+        finished.countDown();
+      }
+    });
+    try {
+      forkJoinTask.get();
+    } catch (InterruptedException e) {
+      if (started.compareAndSet(false, true)) {
+        // the task was not started yet, so it will never run
+        forkJoinTask.cancel(false);
+      } else {
+        // keep the request slot until the streams of the task have stopped
+        awaitUninterruptibly(finished);
+      }
+      throw e;
+    } finally {
+      requestPermits.release();
+    }
+  }
+
+  /** Waits for the given latch, ignoring further interrupts of the already interrupted thread. */
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    while (true) {
+      try {
+        latch.await();
+        return;
+      } catch (InterruptedException e) {
+        // the caller rethrows the first interrupt
+      }
+    }
+  }
+
+  /** Shuts down the shared thread pool. */
+  @PreDestroy
+  public void shutdown() {
+    if (ProcessingData.getDataExtractionPool() == this) {
+      ProcessingData.setDataExtractionPool(null);
+    }
+    threadPool.shutdownNow();
+  }
+}
@@ -4,9 +4,7 @@ import java.io.Serializable;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.function.Supplier;
 import org.heigit.bigspatialdata.oshdb.api.object.OSMContribution;
 import org.heigit.bigspatialdata.oshdb.api.object.OSMEntitySnapshot;
@@ -16,8 +14,8 @@ import org.heigit.bigspatialdata.oshdb.util.time.TimestampFormatter;
 import org.heigit.ohsome.ohsomeapi.controller.dataextraction.elements.ElementsGeometry;
 import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessingUtils;
 import org.heigit.ohsome.ohsomeapi.inputprocessing.SimpleFeatureType;
+import org.heigit.ohsome.ohsomeapi.output.ExtractionFeature;
 import org.locationtech.jts.geom.Geometry;
-import org.wololo.geojson.Feature;
 
 public class DataExtractionTransformer implements Serializable {
 
@@ -34,6 +32,7 @@ public class DataExtractionTransformer implements Serializable {
   private final ElementsGeometry elementsGeometry;
   private final String endTimestamp;
   private final boolean isContainingSimpleFeatureTypes;
+  private final TimestampFormatCache snapshotTimestamps = new TimestampFormatCache();
 
   public DataExtractionTransformer(boolean isContributionsLatestEndpoint,
       boolean isContributionsEndpoint, ExecutionUtils exeUtils,
@@ -56,9 +55,9 @@ public class DataExtractionTransformer implements Serializable {
     this.isContainingSimpleFeatureTypes = isContainingSimpleFeatureTypes;
   }
 
-  public List<Feature> buildChangedFeatures(List<OSMContribution> contributions) {
-    List<Feature> output = new LinkedList<>();
-    Map<String, Object> properties;
+  public List<ExtractionFeature> buildChangedFeatures(List<OSMContribution> contributions) {
+    List<ExtractionFeature> output = new LinkedList<>();
+    ExtractionFeature feature;
     Geometry currentGeom = null;
     OSMEntity currentEntity = null;
     String validFrom = null;
@@ -82,26 +81,29 @@ public class DataExtractionTransformer implements Serializable {
           break;
         }
         OSMContribution contribution = contributions.get(i);
+        // the timestamp ends the previous row and starts the next one
+        String contributionTimestamp =
+            TimestampFormatter.getInstance().isoDateTime(contribution.getTimestamp());
         if (isContributionsEndpoint) {
           currentEntity = contribution.getEntityAfter();
           currentGeom = exeUtils.getGeometry(contribution, clipGeometries, false);
-          validFrom = TimestampFormatter.getInstance().isoDateTime(contribution.getTimestamp());
+          validFrom = contributionTimestamp;
         }
         // set valid_to of previous row
-        validTo = TimestampFormatter.getInstance().isoDateTime(contribution.getTimestamp());
+        validTo = contributionTimestamp;
         if (!skipNext && currentGeom != null && !currentGeom.isEmpty()) {
           final Geometry geomToCheck = currentGeom;
           boolean addToOutput = addEntityToOutput(isContainingSimpleFeatureTypes, utils,
               simpleFeatureTypes, () -> geomToCheck);
           if (addToOutput) {
-            properties = new TreeMap<>();
+            feature = new ExtractionFeature();
             if (!isContributionsEndpoint) {
-              properties.put("@validFrom", validFrom);
-              properties.put("@validTo", validTo);
+              feature.setValidFrom(validFrom);
+              feature.setValidTo(validTo);
             } else {
-              properties.put("@timestamp", validTo);
+              feature.setTimestamp(validTo);
             }
-            output.add(exeUtils.createOSMFeature(currentEntity, currentGeom, properties, keysInt,
+            output.add(exeUtils.createOSMFeature(currentEntity, currentGeom, feature, keysInt,
                 includeTags, includeOSMMetadata, isContributionsEndpoint, elementsGeometry,
                 contribution.getContributionTypes()));
           }
@@ -114,7 +116,7 @@ public class DataExtractionTransformer implements Serializable {
           // else: take "after" as next row
           currentEntity = contribution.getEntityAfter();
           currentGeom = exeUtils.getGeometry(contribution, clipGeometries, false);
-          validFrom = TimestampFormatter.getInstance().isoDateTime(contribution.getTimestamp());
+          validFrom = contributionTimestamp;
         }
       }
     }
@@ -125,12 +127,12 @@ public class DataExtractionTransformer implements Serializable {
     if (!lastContribution.is(ContributionType.DELETION)) {
       // if last contribution was not "deletion": set valid_to = t_end
       validTo = endTimestamp;
-      properties = new TreeMap<>();
+      feature = new ExtractionFeature();
       if (!isContributionsEndpoint) {
-        properties.put("@validFrom", validFrom);
-        properties.put("@validTo", validTo);
+        feature.setValidFrom(validFrom);
+        feature.setValidTo(validTo);
       } else {
-        properties.put("@timestamp",
+        feature.setTimestamp(
             TimestampFormatter.getInstance().isoDateTime(lastContribution.getTimestamp()));
       }
       if (!currentGeom.isEmpty()) {
@@ -138,7 +140,7 @@ public class DataExtractionTransformer implements Serializable {
         boolean addToOutput = addEntityToOutput(isContainingSimpleFeatureTypes, utils,
             simpleFeatureTypes, () -> geomToCheck);
         if (addToOutput) {
-          output.add(exeUtils.createOSMFeature(currentEntity, currentGeom, properties, keysInt,
+          output.add(exeUtils.createOSMFeature(currentEntity, currentGeom, feature, keysInt,
               includeTags, includeOSMMetadata, isContributionsEndpoint, elementsGeometry,
               lastContribution.getContributionTypes()));
         }
@@ -146,21 +148,21 @@ public class DataExtractionTransformer implements Serializable {
     } else if (isContributionsEndpoint) {
       // adds the deletion feature for a /contributions request
       currentGeom = exeUtils.getGeometry(lastContribution, clipGeometries, true);
-      properties = new TreeMap<>();
-      properties.put("@timestamp",
+      feature = new ExtractionFeature();
+      feature.setTimestamp(
           TimestampFormatter.getInstance().isoDateTime(lastContribution.getTimestamp()));
-      output.add(exeUtils.createOSMFeature(currentEntity, currentGeom, properties, keysInt, false,
+      output.add(exeUtils.createOSMFeature(currentEntity, currentGeom, feature, keysInt, false,
           includeOSMMetadata, isContributionsEndpoint, elementsGeometry,
           lastContribution.getContributionTypes()));
     }
     return output;
   }
 
-  public List<Feature> buildUnchangedFeatures(OSMEntitySnapshot snapshot) {
-    Map<String, Object> properties = new TreeMap<>();
+  public List<ExtractionFeature> buildUnchangedFeatures(OSMEntitySnapshot snapshot) {
+    ExtractionFeature feature = new ExtractionFeature();
     OSMEntity entity = snapshot.getEntity();
     if (includeOSMMetadata) {
-      properties.put("@lastEdit", entity.getTimestamp().toString());
+      feature.setLastEdit(entity.getTimestamp().toString());
     }
     Supplier<Geometry> geom;
     if (clipGeometries) {
@@ -168,15 +170,14 @@ public class DataExtractionTransformer implements Serializable {
     } else {
       geom = snapshot::getGeometryUnclipped;
     }
-    properties.put("@snapshotTimestamp",
-        TimestampFormatter.getInstance().isoDateTime(snapshot.getTimestamp()));
-    properties.put("@validFrom", startTimestamp);
-    properties.put("@validTo", endTimestamp);
+    feature.setSnapshotTimestamp(snapshotTimestamps.isoDateTime(snapshot.getTimestamp()));
+    feature.setValidFrom(startTimestamp);
+    feature.setValidTo(endTimestamp);
     boolean addToOutput = addEntityToOutput(isContainingSimpleFeatureTypes, utils,
         simpleFeatureTypes, geom);
     if (addToOutput) {
       return Collections.singletonList(
-          exeUtils.createOSMFeature(entity, geom.get(), properties, keysInt, includeTags,
+          exeUtils.createOSMFeature(entity, geom.get(), feature, keysInt, includeTags,
               includeOSMMetadata, isContributionsEndpoint, elementsGeometry, null));
     } else {
       return Collections.emptyList();
@@ -1,5 +1,6 @@
 package org.heigit.ohsome.ohsomeapi.executor;
 
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
@@ -26,9 +27,9 @@ import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessor;
 import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
 import org.heigit.ohsome.ohsomeapi.inputprocessing.SimpleFeatureType;
 import org.heigit.ohsome.ohsomeapi.oshdb.DbConnData;
+import org.heigit.ohsome.ohsomeapi.output.ExtractionFeature;
 import org.heigit.ohsome.ohsomeapi.output.ExtractionResponse;
 import org.heigit.ohsome.ohsomeapi.output.Metadata;
-import org.wololo.geojson.Feature;
 
 /** Holds executor methods for the following endpoints: /elementsFullHistory, /contributions. */
 public class DataRequestExecutor extends RequestExecutor {
@@ -61,18 +62,30 @@ public class DataRequestExecutor extends RequestExecutor {
    */
   public void extract() throws Exception {
     inputProcessor.getProcessingData().setFullHistory(true);
-    InputProcessor snapshotInputProcessor = new InputProcessor(servletRequest, true, false);
-    snapshotInputProcessor.getProcessingData().setFullHistory(true);
+    final boolean isContributionsLatestEndpoint =
+        requestResource.equals(RequestResource.CONTRIBUTIONSLATEST);
+    final boolean isContributionsEndpoint =
+        isContributionsLatestEndpoint || requestResource.equals(RequestResource.CONTRIBUTIONS);
     MapReducer<OSMEntitySnapshot> mapRedSnapshot = null;
     MapReducer<OSMContribution> mapRedContribution = null;
+    // the snapshots are only needed for the unchanged entities of /elementsFullHistory requests
+    InputProcessor snapshotInputProcessor = null;
+    if (!isContributionsEndpoint) {
+      snapshotInputProcessor = new InputProcessor(servletRequest, true, false);
+      snapshotInputProcessor.getProcessingData().setFullHistory(true);
+    }
     if (DbConnData.db instanceof OSHDBIgnite) {
       // on ignite: Use AffinityCall backend, which is the only one properly supporting streaming
       // of result data, without buffering the whole result in memory before returning the result.
       // This allows to write data out to the client via a chunked HTTP response.
-      mapRedSnapshot = snapshotInputProcessor.processParameters(ComputeMode.AffinityCall);
+      if (snapshotInputProcessor != null) {
+        mapRedSnapshot = snapshotInputProcessor.processParameters(ComputeMode.AffinityCall);
+      }
       mapRedContribution = inputProcessor.processParameters(ComputeMode.AffinityCall);
     } else {
-      mapRedSnapshot = snapshotInputProcessor.processParameters();
+      if (snapshotInputProcessor != null) {
+        mapRedSnapshot = snapshotInputProcessor.processParameters();
+      }
       mapRedContribution = inputProcessor.processParameters();
     }
     RequestParameters requestParameters = processingData.getRequestParameters();
@@ -91,20 +104,27 @@ public class DataRequestExecutor extends RequestExecutor {
     final boolean includeTags = inputProcessor.includeTags();
     final boolean includeOSMMetadata = inputProcessor.includeOSMMetadata();
     final boolean clipGeometries = inputProcessor.isClipGeometry();
-    final boolean isContributionsLatestEndpoint =
-        requestResource.equals(RequestResource.CONTRIBUTIONSLATEST);
-    final boolean isContributionsEndpoint =
-        isContributionsLatestEndpoint || requestResource.equals(RequestResource.CONTRIBUTIONS);
     final Set<SimpleFeatureType> simpleFeatureTypes = processingData.getSimpleFeatureTypes();
-    String startTimestamp = IsoDateTimeParser.parseIsoDateTime(requestParameters.getTime()[0])
-        .format(DateTimeFormatter.ISO_DATE_TIME);
+    ZonedDateTime startDateTime =
+        IsoDateTimeParser.parseIsoDateTime(requestParameters.getTime()[0]);
+    String startTimestamp = startDateTime.format(DateTimeFormatter.ISO_DATE_TIME);
     String endTimestamp = IsoDateTimeParser.parseIsoDateTime(requestParameters.getTime()[1])
         .format(DateTimeFormatter.ISO_DATE_TIME);
     MapReducer<List<OSMContribution>> mapRedContributions = mapRedContribution.groupByEntity();
-    MapReducer<List<OSMEntitySnapshot>> mapRedSnapshots = mapRedSnapshot.groupByEntity();
+    MapReducer<List<OSMEntitySnapshot>> mapRedSnapshots = null;
+    if (mapRedSnapshot != null) {
+      // entities having a version after t_start were changed and are written by the contribution
+      // stream, so their snapshots are dropped before their geometries are built
+      final long startEpochSecond = startDateTime.toEpochSecond();
+      mapRedSnapshots = mapRedSnapshot.osmEntityFilter(
+          entity -> entity.getTimestamp().getRawUnixTimestamp() <= startEpochSecond)
+          .groupByEntity();
+    }
     Optional<FilterExpression> filter = processingData.getFilterExpression();
     if (filter.isPresent()) {
-      mapRedSnapshots = mapRedSnapshots.filter(filter.get());
+      if (mapRedSnapshots != null) {
+        mapRedSnapshots = mapRedSnapshots.filter(filter.get());
+      }
       mapRedContributions = mapRedContributions.filter(filter.get());
     }
     final boolean isContainingSimpleFeatureTypes = processingData.isContainingSimpleFeatureTypes();
@@ -112,7 +132,7 @@ public class DataRequestExecutor extends RequestExecutor {
         isContributionsLatestEndpoint, isContributionsEndpoint, exeUtils, clipGeometries,
         startTimestamp, utils, simpleFeatureTypes, keysInt, includeTags, includeOSMMetadata,
         elementsGeometry, endTimestamp, isContainingSimpleFeatureTypes);
-    MapReducer<Feature> contributionPreResult = mapRedContributions
+    MapReducer<ExtractionFeature> contributionPreResult = mapRedContributions
         .flatMap(dataExtractionTransformer::buildChangedFeatures)
         .filter(Objects::nonNull);
     Metadata metadata = null;
@@ -122,8 +142,8 @@ public class DataRequestExecutor extends RequestExecutor {
     }
     ExtractionResponse osmData = new ExtractionResponse(ATTRIBUTION, Application.API_VERSION,
         metadata, "FeatureCollection", Collections.emptyList());
-    MapReducer<Feature> snapshotPreResult = null;
-    if (!isContributionsEndpoint) {
+    MapReducer<ExtractionFeature> snapshotPreResult = null;
+    if (mapRedSnapshots != null) {
       // handles cases where valid_from = t_start, valid_to = t_end; i.e. non-modified data
       snapshotPreResult = mapRedSnapshots
           .filter(snapshots -> snapshots.size() == 2)
@@ -135,9 +155,9 @@ public class DataRequestExecutor extends RequestExecutor {
           .filter(Objects::nonNull);
     }
     try (
-        Stream<Feature> snapshotStream =
+        Stream<ExtractionFeature> snapshotStream =
             (snapshotPreResult != null) ? snapshotPreResult.stream() : Stream.empty();
-        Stream<Feature> contributionStream = contributionPreResult.stream()) {
+        Stream<ExtractionFeature> contributionStream = contributionPreResult.stream()) {
       exeUtils.streamResponse(servletResponse, osmData,
           Stream.concat(contributionStream, snapshotStream));
     }
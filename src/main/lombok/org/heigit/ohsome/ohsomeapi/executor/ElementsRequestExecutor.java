@@ -1,6 +1,5 @@
 package org.heigit.ohsome.ohsomeapi.executor;
 
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -12,9 +11,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -50,6 +47,7 @@ import org.heigit.ohsome.ohsomeapi.inputprocessing.SimpleFeatureType;
 import org.heigit.ohsome.ohsomeapi.oshdb.DbConnData;
 import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadata;
 import org.heigit.ohsome.ohsomeapi.output.Attribution;
+import org.heigit.ohsome.ohsomeapi.output.ExtractionFeature;
 import org.heigit.ohsome.ohsomeapi.output.ExtractionResponse;
 import org.heigit.ohsome.ohsomeapi.output.Description;
 import org.heigit.ohsome.ohsomeapi.output.Metadata;
@@ -58,16 +56,15 @@ import org.heigit.ohsome.ohsomeapi.output.elements.ElementsResult;
 import org.heigit.ohsome.ohsomeapi.output.groupby.GroupByResponse;
 import org.heigit.ohsome.ohsomeapi.output.groupby.GroupByResult;
 import org.heigit.ohsome.ohsomeapi.utils.GroupByBoundaryGeoJsonGenerator;
+import org.heigit.ohsome.ohsomeapi.utils.RoundingUtils;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.Polygonal;
-import org.wololo.geojson.Feature;
 
 /** Includes all execute methods for requests mapped to /elements. */
 public class ElementsRequestExecutor {
 
-  public static final String URL = ExtractMetadata.attributionUrl;
-  public static final String TEXT = ExtractMetadata.attributionShort;
-  public static final DecimalFormat df = ExecutionUtils.defineDecimalFormat("#.##");
+  public static final String URL = ExtractMetadata.getAttributionUrl();
+  public static final String TEXT = ExtractMetadata.getAttributionShort();
 
   private ElementsRequestExecutor() {
     throw new IllegalStateException("Utility class");
@@ -111,21 +108,22 @@ public class ElementsRequestExecutor {
     TagTranslator tt = DbConnData.tagTranslator;
     String[] keys = requestParameters.getKeys();
     final Set<Integer> keysInt = ExecutionUtils.keysToKeysInt(keys, tt);
-    final MapReducer<Feature> preResult;
+    final MapReducer<ExtractionFeature> preResult;
     ExecutionUtils exeUtils = new ExecutionUtils(processingData);
+    // a snapshot request only has a few distinct snapshot timestamps
+    TimestampFormatCache snapshotTimestamps = new TimestampFormatCache();
     preResult = mapRed.map(snapshot -> {
-      Map<String, Object> properties = new TreeMap<>();
+      ExtractionFeature feature = new ExtractionFeature();
       if (includeOSMMetadata) {
-        properties.put("@lastEdit",
+        feature.setLastEdit(
             TimestampFormatter.getInstance().isoDateTime(snapshot.getEntity().getTimestamp()));
       }
-      properties.put("@snapshotTimestamp",
-          TimestampFormatter.getInstance().isoDateTime(snapshot.getTimestamp()));
+      feature.setSnapshotTimestamp(snapshotTimestamps.isoDateTime(snapshot.getTimestamp()));
       Geometry geom = snapshot.getGeometry();
       if (!clipGeometries) {
         geom = snapshot.getGeometryUnclipped();
       }
-      return exeUtils.createOSMFeature(snapshot.getEntity(), geom, properties, keysInt, includeTags,
+      return exeUtils.createOSMFeature(snapshot.getEntity(), geom, feature, keysInt, includeTags,
           includeOSMMetadata, false, elemGeom, EnumSet.noneOf(ContributionType.class));
     }).filter(Objects::nonNull);
     Metadata metadata = null;
@@ -135,7 +133,7 @@ public class ElementsRequestExecutor {
     }
     ExtractionResponse osmData = new ExtractionResponse(new Attribution(URL, TEXT), Application.API_VERSION,
         metadata, "FeatureCollection", Collections.emptyList());
-    try (Stream<Feature> streamResult = preResult.stream()) {
+    try (Stream<ExtractionFeature> streamResult = preResult.stream()) {
       exeUtils.streamResponse(servletResponse, osmData, streamResult);
     }
   }
@@ -158,7 +156,7 @@ public class ElementsRequestExecutor {
    *         {@link org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessor#processParameters()
    *         processParameters}
    */
-  public static <P extends Geometry & Polygonal> Response aggregateGroupByBoundaryGroupByTag(
+  public static Response aggregateGroupByBoundaryGroupByTag(
       RequestResource requestResource, HttpServletRequest servletRequest,
       HttpServletResponse servletResponse, boolean isSnapshot, boolean isDensity) throws Exception {
     final long startTime = System.currentTimeMillis();
@@ -185,33 +183,35 @@ public class ElementsRequestExecutor {
         zeroFill.add(new ImmutablePair<>(keysInt, valuesInt[j]));
       }
     }
-    var arrGeoms = new ArrayList<>(processingData.getBoundaryList());
-    @SuppressWarnings("unchecked") // intentionally as check for P on Polygonal is already performed
-    Map<Integer, P> geoms = IntStream.range(0, arrGeoms.size()).boxed()
-        .collect(Collectors.toMap(idx -> idx, idx -> (P) arrGeoms.get(idx)));
-    MapAggregator<Integer, OSMEntitySnapshot> mapAgg = mapRed.aggregateByGeometry(geoms);
     if (processingData.isContainingSimpleFeatureTypes()) {
-      mapAgg = inputProcessor.filterOnSimpleFeatures(mapAgg);
+      mapRed = inputProcessor.filterOnSimpleFeatures(mapRed);
     }
     Optional<FilterExpression> filter = processingData.getFilterExpression();
     if (filter.isPresent()) {
-      mapAgg = mapAgg.filter(filter.get());
+      mapRed = mapRed.filter(filter.get());
     }
     ExecutionUtils exeUtils = new ExecutionUtils(processingData);
-    var preResult = mapAgg.map(f -> exeUtils.mapSnapshotToTags(keysInt, valuesInt, f))
+    BoundarySplitter splitter = new BoundarySplitter(processingData.getBoundaryList());
+    var preResult = mapRed
+        .flatMap(snapshot -> splitter.split(snapshot.getGeometry()).entrySet().stream()
+            .map(part -> new ImmutablePair<>(part.getKey(),
+                new ImmutablePair<>(snapshot, part.getValue())))
+            .collect(Collectors.toList()))
+        .aggregateBy(Pair::getKey, splitter.getBoundaryIndices()).map(Pair::getValue)
+        .map(part -> new ImmutablePair<>(
+            exeUtils.mapSnapshotToTags(keysInt, valuesInt, part.getKey()).getKey(), part))
         .aggregateBy(Pair::getKey, zeroFill).map(Pair::getValue)
-        .aggregateByTimestamp(OSMEntitySnapshot::getTimestamp).map(OSMEntitySnapshot::getGeometry);
+        .aggregateByTimestamp(part -> part.getKey().getTimestamp()).map(Pair::getValue);
     var result = exeUtils.computeNestedResult(requestResource, preResult);
     var groupByResult = OSHDBCombinedIndex.nest(result);
     GroupByResult[] resultSet = new GroupByResult[groupByResult.entrySet().size()];
     InputProcessingUtils utils = inputProcessor.getUtils();
     Object[] boundaryIds = utils.getBoundaryIds();
     int count = 0;
-    ArrayList<Geometry> boundaries = new ArrayList<>(processingData.getBoundaryList());
     for (var entry : groupByResult.entrySet()) {
       int boundaryIdentifier = entry.getKey().getFirstIndex();
       ElementsResult[] results = exeUtils.fillElementsResult(entry.getValue(),
-          requestParameters.isDensity(), df, boundaries.get(boundaryIdentifier));
+          requestParameters.isDensity(), processingData.getBoundaryArea(boundaryIdentifier));
       int tagValue = entry.getKey().getSecondIndex().getValue();
       String tagIdentifier;
       // check for non-remainder objects (which do have the defined key and value)
@@ -296,15 +296,20 @@ public class ElementsRequestExecutor {
     }
     var preResult = mapRed.map(f -> exeUtils.mapSnapshotToTags(keysInt, valuesInt, f))
         .aggregateByTimestamp().aggregateBy(Pair::getKey, zeroFill).map(Pair::getValue);
-    var result = exeUtils.computeResult(requestResource, preResult);
+    String[] sortedGroupByValues = groupByValues.clone();
+    Arrays.sort(sortedGroupByValues);
+    SortedMap<OSHDBCombinedIndex<OSHDBTimestamp, Pair<Integer, Integer>>, Number> result =
+        AggregationResultCache.getOrCompute("groupByTag/" + requestResource, inputProcessor,
+            () -> exeUtils.computeResult(requestResource, preResult), groupByKey[0],
+            String.join(",", sortedGroupByValues));
     var groupByResult = ExecutionUtils.nest(result);
     GroupByResult[] resultSet = new GroupByResult[groupByResult.size()];
     String groupByName = "";
-    Geometry geom = inputProcessor.getGeometry();
+    double area = processingData.getRequestGeomArea();
     int count = 0;
     for (var entry : groupByResult.entrySet()) {
       ElementsResult[] results =
-          exeUtils.fillElementsResult(entry.getValue(), requestParameters.isDensity(), df, geom);
+          exeUtils.fillElementsResult(entry.getValue(), requestParameters.isDensity(), area);
       // check for non-remainder objects (which do have the defined key and value)
       if (entry.getKey().getKey() != -1 && entry.getKey().getValue() != -1) {
         groupByName = tt.getOSMTagOf(keysInt, entry.getKey().getValue()).toString();
@@ -369,11 +374,11 @@ public class ElementsRequestExecutor {
     var result = exeUtils.computeResult(requestResource, preResult);
     var groupByResult = ExecutionUtils.nest(result);
     GroupByResult[] resultSet = new GroupByResult[groupByResult.size()];
-    Geometry geom = inputProcessor.getGeometry();
+    double area = processingData.getRequestGeomArea();
     int count = 0;
     for (var entry : groupByResult.entrySet()) {
       ElementsResult[] results =
-          exeUtils.fillElementsResult(entry.getValue(), requestParameters.isDensity(), df, geom);
+          exeUtils.fillElementsResult(entry.getValue(), requestParameters.isDensity(), area);
       resultSet[count] = new GroupByResult(entry.getKey().toString(), results);
       count++;
     }
@@ -459,7 +464,8 @@ public class ElementsRequestExecutor {
     int count = 0;
     for (var entry : groupByResult.entrySet()) {
       ElementsResult[] results =
-          exeUtils.fillElementsResult(entry.getValue(), requestParameters.isDensity(), df, null);
+          exeUtils.fillElementsResult(entry.getValue(), requestParameters.isDensity(),
+              processingData.getRequestGeomArea());
       // check for non-remainder objects (which do have the defined key)
       if (entry.getKey() != -1) {
         groupByName = tt.getOSMTagKeyOf(entry.getKey().intValue()).toString();
@@ -574,6 +580,8 @@ public class ElementsRequestExecutor {
               ProcessingData.getTimeout(), servletRequest.getParameter("filter"));
       ProcessingData secondProcessingData =
           new ProcessingData(requestParams, servletRequest.getRequestURL().toString());
+      // all parts of the request use the same metadata of the data-extract
+      secondProcessingData.setExtractMetadata(processingData.getExtractMetadata());
       InputProcessor secondInputProcessor =
           new InputProcessor(servletRequest, isSnapshot, isDensity);
       secondInputProcessor.setProcessingData(secondProcessingData);
@@ -615,18 +623,18 @@ public class ElementsRequestExecutor {
       if (entry.getKey().getSecondIndex() == MatchType.MATCHES2) {
         timeArray[value2Count] =
             TimestampFormatter.getInstance().isoDateTime(entry.getKey().getFirstIndex());
-        value2[value2Count] = Double.parseDouble(df.format(entry.getValue().doubleValue()));
+        value2[value2Count] = RoundingUtils.round(entry.getValue().doubleValue());
         value2Count++;
       }
       if (entry.getKey().getSecondIndex() == MatchType.MATCHES1) {
-        value1[value1Count] = Double.parseDouble(df.format(entry.getValue().doubleValue()));
+        value1[value1Count] = RoundingUtils.round(entry.getValue().doubleValue());
         value1Count++;
       }
       if (entry.getKey().getSecondIndex() == MatchType.MATCHESBOTH) {
         value1[matchesBothCount] = value1[matchesBothCount]
-            + Double.parseDouble(df.format(entry.getValue().doubleValue()));
+            + RoundingUtils.round(entry.getValue().doubleValue());
         value2[matchesBothCount] = value2[matchesBothCount]
-            + Double.parseDouble(df.format(entry.getValue().doubleValue()));
+            + RoundingUtils.round(entry.getValue().doubleValue());
         matchesBothCount++;
       }
     }
@@ -682,6 +690,8 @@ public class ElementsRequestExecutor {
         servletRequest.getParameter("showMetadata"), ProcessingData.getTimeout(), combinedFilter);
     ProcessingData processingDataCombined =
         new ProcessingData(requestParamsCombined, servletRequest.getRequestURL().toString());
+    // all parts of the request use the same metadata of the data-extract
+    processingDataCombined.setExtractMetadata(processingData.getExtractMetadata());
     InputProcessor inputProcessorCombined =
         new InputProcessor(servletRequest, isSnapshot, isDensity);
     inputProcessorCombined.setProcessingData(processingDataCombined);
@@ -717,18 +727,18 @@ public class ElementsRequestExecutor {
       if (entry.getKey().getSecondIndex() == MatchType.MATCHES2) {
         timeArray[value2Count] =
             TimestampFormatter.getInstance().isoDateTime(entry.getKey().getFirstIndex());
-        value2[value2Count] = Double.parseDouble(df.format(entry.getValue().doubleValue()));
+        value2[value2Count] = RoundingUtils.round(entry.getValue().doubleValue());
         value2Count++;
       }
       if (entry.getKey().getSecondIndex() == MatchType.MATCHES1) {
-        value1[value1Count] = Double.parseDouble(df.format(entry.getValue().doubleValue()));
+        value1[value1Count] = RoundingUtils.round(entry.getValue().doubleValue());
         value1Count++;
       }
       if (entry.getKey().getSecondIndex() == MatchType.MATCHESBOTH) {
         value1[matchesBothCount] = value1[matchesBothCount]
-            + Double.parseDouble(df.format(entry.getValue().doubleValue()));
+            + RoundingUtils.round(entry.getValue().doubleValue());
         value2[matchesBothCount] = value2[matchesBothCount]
-            + Double.parseDouble(df.format(entry.getValue().doubleValue()));
+            + RoundingUtils.round(entry.getValue().doubleValue());
         matchesBothCount++;
       }
     }
@@ -826,6 +836,8 @@ public class ElementsRequestExecutor {
               ProcessingData.getTimeout(), servletRequest.getParameter("filter"));
       ProcessingData secondProcessingData =
           new ProcessingData(requestParams, servletRequest.getRequestURL().toString());
+      // all parts of the request use the same metadata of the data-extract
+      secondProcessingData.setExtractMetadata(processingData.getExtractMetadata());
       InputProcessor secondInputProcessor =
           new InputProcessor(servletRequest, isSnapshot, isDensity);
       secondInputProcessor.setProcessingData(secondProcessingData);
@@ -898,17 +910,17 @@ public class ElementsRequestExecutor {
         timeArray = new String[resultSet.size()];
       }
       if (entry.getKey() == MatchType.MATCHES2) {
-        resultValues2 = exeUtils.fillElementsRatioGroupByBoundaryResultValues(resultSet, df);
+        resultValues2 = exeUtils.fillElementsRatioGroupByBoundaryResultValues(resultSet);
       } else if (entry.getKey() == MatchType.MATCHES1) {
-        resultValues1 = exeUtils.fillElementsRatioGroupByBoundaryResultValues(resultSet, df);
+        resultValues1 = exeUtils.fillElementsRatioGroupByBoundaryResultValues(resultSet);
       } else if (entry.getKey() == MatchType.MATCHESBOTH) {
         int matchesBothCount = 0;
         int timeArrayCount = 0;
         for (var innerEntry : resultSet) {
           resultValues1[matchesBothCount] = resultValues1[matchesBothCount]
-              + Double.parseDouble(df.format(innerEntry.getValue().doubleValue()));
+              + RoundingUtils.round(innerEntry.getValue().doubleValue());
           resultValues2[matchesBothCount] = resultValues2[matchesBothCount]
-              + Double.parseDouble(df.format(innerEntry.getValue().doubleValue()));
+              + RoundingUtils.round(innerEntry.getValue().doubleValue());
           if (!timeArrayFilled) {
             String time = innerEntry.getKey().getFirstIndex().toString();
             if (matchesBothCount == 0 || !timeArray[timeArrayCount - 1].equals(time)) {
@@ -984,6 +996,8 @@ public class ElementsRequestExecutor {
         servletRequest.getParameter("showMetadata"), ProcessingData.getTimeout(), combinedFilter);
     ProcessingData processingDataCombined =
         new ProcessingData(requestParamsCombined, servletRequest.getRequestURL().toString());
+    // all parts of the request use the same metadata of the data-extract
+    processingDataCombined.setExtractMetadata(processingData.getExtractMetadata());
     InputProcessor inputProcessorCombined =
         new InputProcessor(servletRequest, isSnapshot, isDensity);
     inputProcessorCombined.setProcessingData(processingDataCombined);
@@ -1051,17 +1065,17 @@ public class ElementsRequestExecutor {
         timeArray = new String[resultSet.size()];
       }
       if (entry.getKey() == MatchType.MATCHES2) {
-        resultValues2 = exeUtils.fillElementsRatioGroupByBoundaryResultValues(resultSet, df);
+        resultValues2 = exeUtils.fillElementsRatioGroupByBoundaryResultValues(resultSet);
       } else if (entry.getKey() == MatchType.MATCHES1) {
-        resultValues1 = exeUtils.fillElementsRatioGroupByBoundaryResultValues(resultSet, df);
+        resultValues1 = exeUtils.fillElementsRatioGroupByBoundaryResultValues(resultSet);
       } else if (entry.getKey() == MatchType.MATCHESBOTH) {
         int matchesBothCount = 0;
         int timeArrayCount = 0;
         for (var innerEntry : resultSet) {
           resultValues1[matchesBothCount] = resultValues1[matchesBothCount]
-              + Double.parseDouble(df.format(innerEntry.getValue().doubleValue()));
+              + RoundingUtils.round(innerEntry.getValue().doubleValue());
           resultValues2[matchesBothCount] = resultValues2[matchesBothCount]
-              + Double.parseDouble(df.format(innerEntry.getValue().doubleValue()));
+              + RoundingUtils.round(innerEntry.getValue().doubleValue());
           if (!timeArrayFilled) {
             String time = innerEntry.getKey().getFirstIndex().toString();
             if (matchesBothCount == 0 || !timeArray[timeArrayCount - 1].equals(time)) {
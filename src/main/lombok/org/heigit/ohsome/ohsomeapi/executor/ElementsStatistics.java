@@ -0,0 +1,79 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import java.io.Serializable;
+import lombok.Getter;
+import org.heigit.bigspatialdata.oshdb.util.geometry.Geo;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygonal;
+
+/**
+ * Accumulates the count, length, perimeter and area of OSM features in primitive fields, so that
+ * all of them can be computed within a single reduce over the data.
+ *
+ * <p>
+ * {@link #add(Geometry, boolean, boolean, boolean) add} updates this object in place, which is
+ * safe as every accumulation starts from a new object given by the identity supplier of the
+ * reduce. {@link #combine(ElementsStatistics, ElementsStatistics) combine} always returns a new
+ * object.
+ */
+@Getter
+public class ElementsStatistics implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+  private long count;
+  private double length;
+  private double perimeter;
+  private double area;
+
+  /**
+   * Adds the given geometry to these statistics. Only the requested measures are computed.
+   *
+   * @return this object
+   */
+  public ElementsStatistics add(Geometry geom, boolean withLength, boolean withPerimeter,
+      boolean withArea) {
+    count++;
+    if (withLength) {
+      length += Geo.lengthOf(geom);
+    }
+    if (withPerimeter && geom instanceof Polygonal) {
+      perimeter += Geo.lengthOf(geom.getBoundary());
+    }
+    if (withArea) {
+      area += Geo.areaOf(geom);
+    }
+    return this;
+  }
+
+  /** Returns the sum of the given statistics as a new object. */
+  public static ElementsStatistics combine(ElementsStatistics a, ElementsStatistics b) {
+    ElementsStatistics result = new ElementsStatistics();
+    result.count = a.count + b.count;
+    result.length = a.length + b.length;
+    result.perimeter = a.perimeter + b.perimeter;
+    result.area = a.area + b.area;
+    return result;
+  }
+
+  /**
+   * Returns the value of the given measure.
+   *
+   * @throws RuntimeException if the given RequestResource is none of COUNT, LENGTH, PERIMETER, or
+   *         AREA
+   */
+  public double get(RequestResource measure) {
+    switch (measure) {
+      case COUNT:
+        return count;
+      case LENGTH:
+        return length;
+      case PERIMETER:
+        return perimeter;
+      case AREA:
+        return area;
+      default:
+        throw new RuntimeException("Unsupported RequestResource type for statistics. "
+            + "Only COUNT, LENGTH, PERIMETER, and AREA are permitted here");
+    }
+  }
+}
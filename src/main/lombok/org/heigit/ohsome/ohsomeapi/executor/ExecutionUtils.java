@@ -3,44 +3,35 @@ package org.heigit.ohsome.ohsomeapi.executor;
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.util.DefaultIndenter;
-import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Streams;
 import com.opencsv.CSVWriter;
-import com.zaxxer.hikari.HikariDataSource;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
-import java.sql.SQLException;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
 import java.util.stream.Stream;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
-import org.geojson.GeoJsonObject;
 import org.heigit.bigspatialdata.oshdb.api.generic.OSHDBCombinedIndex;
 import org.heigit.bigspatialdata.oshdb.api.generic.function.SerializableFunction;
 import org.heigit.bigspatialdata.oshdb.api.generic.function.SerializableSupplier;
@@ -51,10 +42,8 @@ import org.heigit.bigspatialdata.oshdb.api.object.OSMEntitySnapshot;
 import org.heigit.bigspatialdata.oshdb.osm.OSMEntity;
 import org.heigit.bigspatialdata.oshdb.osm.OSMType;
 import org.heigit.bigspatialdata.oshdb.util.OSHDBBoundingBox;
-import org.heigit.bigspatialdata.oshdb.util.OSHDBTag;
 import org.heigit.bigspatialdata.oshdb.util.OSHDBTimestamp;
 import org.heigit.bigspatialdata.oshdb.util.celliterator.ContributionType;
-import org.heigit.bigspatialdata.oshdb.util.exceptions.OSHDBKeytablesNotFoundException;
 import org.heigit.bigspatialdata.oshdb.util.geometry.Geo;
 import org.heigit.bigspatialdata.oshdb.util.geometry.OSHDBGeometryBuilder;
 import org.heigit.bigspatialdata.oshdb.util.tagtranslator.OSMTag;
@@ -63,14 +52,17 @@ import org.heigit.bigspatialdata.oshdb.util.time.TimestampFormatter;
 import org.heigit.ohsome.ohsomeapi.Application;
 import org.heigit.ohsome.ohsomeapi.controller.dataextraction.elements.ElementsGeometry;
 import org.heigit.ohsome.ohsomeapi.exception.DatabaseAccessException;
-import org.heigit.ohsome.ohsomeapi.exception.ExceptionMessages;
+import org.heigit.ohsome.ohsomeapi.executor.RequestMetrics.Stage;
 import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessor;
 import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
 import org.heigit.ohsome.ohsomeapi.inputprocessing.SimpleFeatureType;
+import org.heigit.ohsome.ohsomeapi.oshdb.CancellationToken;
 import org.heigit.ohsome.ohsomeapi.oshdb.DbConnData;
-import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadata;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExecutionContext;
+import org.heigit.ohsome.ohsomeapi.oshdb.TagTranslatorPool;
 import org.heigit.ohsome.ohsomeapi.output.Attribution;
 import org.heigit.ohsome.ohsomeapi.output.Description;
+import org.heigit.ohsome.ohsomeapi.output.ExtractionFeature;
 import org.heigit.ohsome.ohsomeapi.output.ExtractionResponse;
 import org.heigit.ohsome.ohsomeapi.output.Metadata;
 import org.heigit.ohsome.ohsomeapi.output.Response;
@@ -83,8 +75,12 @@ import org.heigit.ohsome.ohsomeapi.output.ratio.RatioGroupByBoundaryResponse;
 import org.heigit.ohsome.ohsomeapi.output.ratio.RatioGroupByResult;
 import org.heigit.ohsome.ohsomeapi.output.ratio.RatioResponse;
 import org.heigit.ohsome.ohsomeapi.output.ratio.RatioResult;
+import org.heigit.ohsome.ohsomeapi.utils.FlatGeobufWriter;
+import org.heigit.ohsome.ohsomeapi.utils.GeoJsonBoundaries;
+import org.heigit.ohsome.ohsomeapi.utils.GeoJsonFeatureWriter;
 import org.heigit.ohsome.ohsomeapi.utils.GroupByBoundaryGeoJsonGenerator;
 import org.heigit.ohsome.ohsomeapi.utils.RequestUtils;
+import org.heigit.ohsome.ohsomeapi.utils.RoundingUtils;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.Lineal;
@@ -92,14 +88,15 @@ import org.locationtech.jts.geom.Polygonal;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.locationtech.jts.geom.Puntal;
 import org.locationtech.jts.precision.GeometryPrecisionReducer;
-import org.wololo.jts2geojson.GeoJSONWriter;
 
 /** Holds helper methods that are used by the executor classes. */
 @RequiredArgsConstructor
 public class ExecutionUtils {
-  private AtomicReference<Boolean> isFirst;
+  /** Record separator, which precedes each GeoJSON text of a GeoJSON text sequence (RFC 8142). */
+  private static final int RECORD_SEPARATOR = 0x1E;
+  /** Size in bytes, from which on a worker thread writes its batch of records to the client. */
+  private static final int SEQUENCE_BATCH_SIZE = 64 * 1024;
   private final ProcessingData processingData;
-  private final DecimalFormat ratioDf = defineDecimalFormat("#.######");
   private final GeometryPrecisionReducer gpr = createGeometryPrecisionReducer();
 
   /** Applies a filter on the given MapReducer object using the given parameters. */
@@ -158,19 +155,6 @@ public class ExecutionUtils {
     return matchesTags;
   }
 
-  /**
-   * Defines a certain decimal format.
-   * 
-   * @param format <code>String</code> defining the format (e.g.: "#.####" for getting 4 digits
-   *        after the comma)
-   * @return <code>DecimalFormat</code> object with the defined format.
-   */
-  public static DecimalFormat defineDecimalFormat(String format) {
-    DecimalFormatSymbols otherSymbols = new DecimalFormatSymbols(Locale.getDefault());
-    otherSymbols.setDecimalSeparator('.');
-    return new DecimalFormat(format, otherSymbols);
-  }
-
   /**
    * Caches the given mapper value in the user data of the <code>Geometry</code> object.
    * 
@@ -200,6 +184,7 @@ public class ExecutionUtils {
    */
   public static <A, U extends Comparable<U> & Serializable, V extends Comparable<V> & Serializable>
       SortedMap<V, SortedMap<U, A>> nest(Map<OSHDBCombinedIndex<U, V>, A> result) {
+    RequestMetrics.enterStage(Stage.RESULT_ASSEMBLY);
     TreeMap<V, SortedMap<U, A>> ret = new TreeMap<>();
     result.forEach((index, data) -> {
       if (!ret.containsKey(index.getSecondIndex())) {
@@ -222,23 +207,32 @@ public class ExecutionUtils {
    *         {@link javax.servlet.ServletResponse#getOutputStream() getOutputStream},
    *         {@link java.io.OutputStream#write(byte[]) write},
    *         {@link org.heigit.ohsome.ohsomeapi.executor.ExecutionUtils
-   *         #writeStreamResponse(ThreadLocal, Stream, ThreadLocal, ServletOutputStream)
+   *         #writeStreamResponse(Stream, BiFunction, String, ServletOutputStream)
    *         writeStreamResponse}, {@link javax.servlet.ServletOutputStream#print(String) print},
    *         and {@link javax.servlet.ServletResponse#flushBuffer() flushBuffer}
    * @throws ExecutionException thrown by
    *         {@link org.heigit.ohsome.ohsomeapi.executor.ExecutionUtils#writeStreamResponse(
-   *         ThreadLocal, Stream, ThreadLocal, ServletOutputStream) writeStreamResponse}
+   *         Stream, BiFunction, String, ServletOutputStream) writeStreamResponse}
    * @throws InterruptedException thrown by
    *         {@link org.heigit.ohsome.ohsomeapi.executor.ExecutionUtils#writeStreamResponse(
-   *         ThreadLocal, Stream, ThreadLocal, ServletOutputStream) writeStreamResponse}
+   *         Stream, BiFunction, String, ServletOutputStream) writeStreamResponse}
    */
   public void streamResponse(HttpServletResponse servletResponse, ExtractionResponse osmData,
-      Stream<org.wololo.geojson.Feature> resultStream) throws Exception {
+      Stream<ExtractionFeature> resultStream) throws Exception {
+    if (RequestUtils.usesFlatGeobufFormat(processingData.getFormat())) {
+      streamFlatGeobufResponse(servletResponse, osmData, resultStream);
+      return;
+    }
+    if (RequestUtils.usesGeoJsonSeqFormat(processingData.getFormat())) {
+      streamSequenceResponse(servletResponse, resultStream);
+      return;
+    }
     JsonFactory jsonFactory = new JsonFactory();
     ByteArrayOutputStream tempStream = new ByteArrayOutputStream();
 
+    boolean prettyPrint = processingData.isPrettyPrint();
     ObjectMapper objMapper = new ObjectMapper();
-    objMapper.enable(SerializationFeature.INDENT_OUTPUT);
+    objMapper.configure(SerializationFeature.INDENT_OUTPUT, prettyPrint);
     jsonFactory.createGenerator(tempStream, JsonEncoding.UTF8).setCodec(objMapper)
         .writeObject(osmData);
 
@@ -248,28 +242,74 @@ public class ExecutionUtils {
     servletResponse.setContentType("application/geo+json; charset=utf-8");
     ServletOutputStream outputStream = servletResponse.getOutputStream();
     outputStream.write(scaffold.getBytes(StandardCharsets.UTF_8));
+    if (prettyPrint) {
+      outputStream.print("\n  ");
+    }
 
-    ThreadLocal<ByteArrayOutputStream> outputBuffers =
-        ThreadLocal.withInitial(ByteArrayOutputStream::new);
-    ThreadLocal<JsonGenerator> outputJsonGen = ThreadLocal.withInitial(() -> {
-      try {
-        DefaultPrettyPrinter.Indenter indenter = new DefaultIndenter() {
-          @Override
-          public void writeIndentation(JsonGenerator g, int level) throws IOException {
-            super.writeIndentation(g, level + 1);
-          }
-        };
-        DefaultPrettyPrinter printer =
-            new DefaultPrettyPrinter("").withArrayIndenter(indenter).withObjectIndenter(indenter);
-        return jsonFactory.createGenerator(outputBuffers.get(), JsonEncoding.UTF8)
-            .setCodec(objMapper).setPrettyPrinter(printer);
-      } catch (IOException e) {
-        throw new RuntimeException(e);
-      }
-    });
-    isFirst = new AtomicReference<>(true);
-    writeStreamResponse(outputJsonGen, resultStream, outputBuffers, outputStream);
-    outputStream.print("]\n}\n");
+    // the buffers are kept per request, so that they do not stay reachable from the pool threads
+    Map<Thread, GeoJsonFeatureWriter> featureWriters = new ConcurrentHashMap<>();
+    try {
+      writeStreamResponse(resultStream, (data, tags) -> {
+        GeoJsonFeatureWriter featureWriter = featureWriters
+            .computeIfAbsent(Thread.currentThread(), thread -> new GeoJsonFeatureWriter(4096));
+        featureWriter.reset();
+        featureWriter.writeFeature(data, tags);
+        return featureWriter.toByteArray();
+      }, prettyPrint ? ",\n  " : ",", outputStream);
+    } finally {
+      featureWriters.clear();
+    }
+    outputStream.print(prettyPrint ? "\n]\n}\n" : "]}\n");
+    servletResponse.flushBuffer();
+  }
+
+  /**
+   * Streams the result of /elements(FullHistory) and /contributions endpoints in the FlatGeobuf
+   * format. The geometries of the features are written directly from their JTS representation.
+   *
+   * @throws Exception thrown by
+   *         {@link org.heigit.ohsome.ohsomeapi.executor.ExecutionUtils#writeStreamResponse(Stream, BiFunction, String, ServletOutputStream)
+   *         writeStreamResponse}
+   */
+  private void streamFlatGeobufResponse(HttpServletResponse servletResponse,
+      ExtractionResponse osmData, Stream<ExtractionFeature> resultStream) throws Exception {
+    servletResponse.setContentType("application/flatgeobuf");
+    ServletOutputStream outputStream = servletResponse.getOutputStream();
+    outputStream.write(FlatGeobufWriter.MAGIC_BYTES);
+    Attribution attribution = osmData.getAttribution();
+    outputStream.write(FlatGeobufWriter.createHeader("ohsome",
+        attribution.getText() + " " + attribution.getUrl()));
+    Map<Thread, GeoJsonFeatureWriter> propertyWriters = new ConcurrentHashMap<>();
+    try {
+      writeStreamResponse(resultStream, (data, tags) -> {
+        GeoJsonFeatureWriter propertyWriter = propertyWriters
+            .computeIfAbsent(Thread.currentThread(), thread -> new GeoJsonFeatureWriter(1024));
+        propertyWriter.reset();
+        propertyWriter.writeProperties(data, tags, false);
+        Geometry geometry = data.getGeometry();
+        return FlatGeobufWriter.createFeature(geometry != null ? gpr.reduce(geometry) : null,
+            data.getOsmIdString(), propertyWriter.toByteArray());
+      }, null, outputStream);
+    } finally {
+      propertyWriters.clear();
+    }
+    servletResponse.flushBuffer();
+  }
+
+  /**
+   * Streams the result of /elements(FullHistory) and /contributions endpoints as a GeoJSON text
+   * sequence (RFC 8142). Each feature is written as a self-contained record, so the features are
+   * written in the order in which they are computed and without any separators between them.
+   *
+   * @throws Exception thrown by
+   *         {@link org.heigit.ohsome.ohsomeapi.executor.ExecutionUtils#writeSequenceResponse(Stream, ServletOutputStream)
+   *         writeSequenceResponse}
+   */
+  private void streamSequenceResponse(HttpServletResponse servletResponse,
+      Stream<ExtractionFeature> resultStream) throws Exception {
+    servletResponse.setContentType("application/geo+json-seq; charset=utf-8");
+    ServletOutputStream outputStream = servletResponse.getOutputStream();
+    writeSequenceResponse(resultStream, outputStream);
     servletResponse.flushBuffer();
   }
 
@@ -279,25 +319,17 @@ public class ExecutionUtils {
     try {
       servletResponse = setCsvSettingsInServletResponse(servletResponse);
       CSVWriter writer = writeComments(servletResponse, comments);
-      Pair<List<String>, List<String[]>> rows;
       if (resultSet instanceof GroupByResult[]) {
         if (resultSet.length == 0) {
           writer.writeNext(new String[] {"timestamp"}, false);
-          writer.close();
-          return;
+        } else if (((GroupByResult) resultSet[0]).getResult() instanceof UsersResult[]) {
+          writeCsvRowsForUsersGroupBy(writer, resultSet);
         } else {
-          GroupByResult result = (GroupByResult) resultSet[0];
-          if (result.getResult() instanceof UsersResult[]) {
-            rows = createCsvResponseForUsersGroupBy(resultSet);
-          } else {
-            rows = createCsvResponseForElementsGroupBy(resultSet);
-          }
+          writeCsvRowsForElementsGroupBy(writer, resultSet);
         }
       } else {
-        rows = createCsvResponseForElementsRatioGroupBy(resultSet);
+        writeCsvRowsForElementsRatioGroupBy(writer, resultSet);
       }
-      writer.writeNext(rows.getLeft().toArray(new String[rows.getLeft().size()]), false);
-      writer.writeAll(rows.getRight(), false);
       writer.close();
     } catch (IOException e) {
       e.printStackTrace();
@@ -379,9 +411,14 @@ public class ExecutionUtils {
     return comments;
   }
 
-  /** Creates the <code>Feature</code> objects in the OSM data response. */
-  public org.wololo.geojson.Feature createOSMFeature(OSMEntity entity, Geometry geometry,
-      Map<String, Object> properties, Set<Integer> keysInt, boolean includeTags,
+  /**
+   * Completes the given feature of the OSM data response with the OSM id, the tags, the metadata
+   * and the output geometry of the given entity.
+   *
+   * @return the given feature, or null if the geometry is empty and the entity was not deleted
+   */
+  public ExtractionFeature createOSMFeature(OSMEntity entity, Geometry geometry,
+      ExtractionFeature feature, Set<Integer> keysInt, boolean includeTags,
       boolean includeOSMMetadata, boolean isContributionsEndpoint, ElementsGeometry elemGeom,
       EnumSet<ContributionType> contributionTypes) {
     if (geometry.isEmpty() && !contributionTypes.contains(ContributionType.DELETION)) {
@@ -389,19 +426,17 @@ public class ExecutionUtils {
       return null;
     }
     if (includeTags) {
-      properties.put("@tags", Iterables.toArray(entity.getTags(), OSHDBTag.class));
+      feature.setTags(entity.getRawTags());
     } else if (!keysInt.isEmpty()) {
-      properties.put("@tags", Streams.stream(entity.getTags())
-          .filter(t -> keysInt.contains(t.getKey())).toArray(OSHDBTag[]::new));
+      feature.setTags(filterTags(entity.getRawTags(), keysInt));
     }
     if (includeOSMMetadata) {
-      properties =
-          addAdditionalProperties(entity, properties, isContributionsEndpoint, contributionTypes);
+      addAdditionalProperties(entity, feature, isContributionsEndpoint, contributionTypes);
     }
-    properties.put("@osmId", entity.getType().toString().toLowerCase() + "/" + entity.getId());
-    GeoJSONWriter gjw = new GeoJSONWriter();
+    feature.setOsmType(entity.getType());
+    feature.setOsmId(entity.getId());
     if (isContributionsEndpoint && contributionTypes.contains(ContributionType.DELETION)) {
-      return new org.wololo.geojson.Feature(null, properties);
+      return feature;
     }
     Geometry outputGeometry;
     switch (elemGeom) {
@@ -417,8 +452,22 @@ public class ExecutionUtils {
       default:
         outputGeometry = geometry;
     }
-    return new org.wololo.geojson.Feature(gjw.write(gpr.reduce(outputGeometry)),
-        properties);
+    // the JTS geometry is passed on and written directly by the serializer of the output format
+    feature.setGeometry(outputGeometry);
+    return feature;
+  }
+
+  /** Gives the key and value ids of the given raw tags, whose keys are in the given set. */
+  private static int[] filterTags(int[] rawTags, Set<Integer> keysInt) {
+    int[] tags = new int[rawTags.length];
+    int length = 0;
+    for (int i = 0; i < rawTags.length; i += 2) {
+      if (keysInt.contains(rawTags[i])) {
+        tags[length++] = rawTags[i];
+        tags[length++] = rawTags[i + 1];
+      }
+    }
+    return length == tags.length ? tags : Arrays.copyOf(tags, length);
   }
 
   /**
@@ -514,29 +563,39 @@ public class ExecutionUtils {
     return tags;
   }
 
-  /** Fills the ElementsResult array with respective ElementsResult objects. */
+  /**
+   * Fills the ElementsResult array with respective ElementsResult objects.
+   *
+   * @param area area of the boundary in square meters, which is only used for density results
+   */
   public ElementsResult[] fillElementsResult(SortedMap<OSHDBTimestamp, ? extends Number> entryVal,
-      boolean isDensity, DecimalFormat df, Geometry geom) {
+      boolean isDensity, double area) {
+    RequestMetrics.enterStage(Stage.RESULT_ASSEMBLY);
     ElementsResult[] results = new ElementsResult[entryVal.entrySet().size()];
     int count = 0;
     for (Entry<OSHDBTimestamp, ? extends Number> entry : entryVal.entrySet()) {
       if (isDensity) {
-        results[count] = new ElementsResult(
-            TimestampFormatter.getInstance().isoDateTime(entry.getKey()), Double.parseDouble(
-                df.format(entry.getValue().doubleValue() / (Geo.areaOf(geom) * 0.000001))));
+        results[count] =
+            new ElementsResult(TimestampFormatter.getInstance().isoDateTime(entry.getKey()),
+                RoundingUtils.round(entry.getValue().doubleValue() / (area * 0.000001)));
       } else {
         results[count] =
             new ElementsResult(TimestampFormatter.getInstance().isoDateTime(entry.getKey()),
-                Double.parseDouble(df.format(entry.getValue().doubleValue())));
+                RoundingUtils.round(entry.getValue().doubleValue()));
       }
       count++;
     }
     return results;
   }
 
-  /** Fills the UsersResult array with respective UsersResult objects. */
+  /**
+   * Fills the UsersResult array with respective UsersResult objects.
+   *
+   * @param area area of the boundary in square meters, which is only used for density results
+   */
   public UsersResult[] fillUsersResult(SortedMap<OSHDBTimestamp, ? extends Number> entryVal,
-      boolean isDensity, InputProcessor inputProcessor, DecimalFormat df, Geometry geom) {
+      boolean isDensity, InputProcessor inputProcessor, double area) {
+    RequestMetrics.enterStage(Stage.RESULT_ASSEMBLY);
     UsersResult[] results = new UsersResult[entryVal.entrySet().size()];
     int count = 0;
     String[] toTimestamps = inputProcessor.getUtils().getToTimestamps();
@@ -544,12 +603,12 @@ public class ExecutionUtils {
       if (isDensity) {
         results[count] =
             new UsersResult(TimestampFormatter.getInstance().isoDateTime(entry.getKey()),
-                toTimestamps[count + 1], Double.parseDouble(
-                    df.format(entry.getValue().doubleValue() / (Geo.areaOf(geom) / 1000000))));
+                toTimestamps[count + 1],
+                RoundingUtils.round(entry.getValue().doubleValue() / (area / 1000000)));
       } else {
         results[count] = new UsersResult(
             TimestampFormatter.getInstance().isoDateTime(entry.getKey()), toTimestamps[count + 1],
-            Double.parseDouble(df.format(entry.getValue().doubleValue())));
+            RoundingUtils.round(entry.getValue().doubleValue()));
       }
       count++;
     }
@@ -560,17 +619,17 @@ public class ExecutionUtils {
    * Fills the result value arrays for the ratio/groupBy/boundary response.
    * 
    * @param resultSet <code>Set</code> containing the result values
-   * @param df <code>DecimalFormat</code> defining the number of digits of the result values
-   * @return <code>Double[]</code> containing the formatted result values
+   * @return <code>Double[]</code> containing the rounded result values
    */
   public Double[] fillElementsRatioGroupByBoundaryResultValues(
-      Set<? extends Entry<OSHDBCombinedIndex<OSHDBTimestamp, Integer>, ? extends Number>> resultSet,
-      DecimalFormat df) {
+      Set<? extends Entry<OSHDBCombinedIndex<OSHDBTimestamp, Integer>, ? extends Number>>
+          resultSet) {
+    RequestMetrics.enterStage(Stage.RESULT_ASSEMBLY);
     Double[] resultValues = new Double[resultSet.size()];
     int valueCount = 0;
     for (Entry<OSHDBCombinedIndex<OSHDBTimestamp, Integer>, ? extends Number> innerEntry :
         resultSet) {
-      resultValues[valueCount] = Double.parseDouble(df.format(innerEntry.getValue().doubleValue()));
+      resultValues[valueCount] = RoundingUtils.round(innerEntry.getValue().doubleValue());
       valueCount++;
     }
     return resultValues;
@@ -613,12 +672,8 @@ public class ExecutionUtils {
     RatioResult[] resultSet = new RatioResult[timeArray.length];
     for (int i = 0; i < timeArray.length; i++) {
       double ratio = value2[i] / value1[i];
-      // in case ratio has the values "NaN", "Infinity", etc.
-      try {
-        ratio = Double.parseDouble(ratioDf.format(ratio));
-      } catch (Exception e) {
-        // do nothing --> just return ratio without rounding (trimming)
-      }
+      // values like "NaN" or "Infinity" are returned without rounding
+      ratio = RoundingUtils.round(ratio, RoundingUtils.RATIO_DECIMALS);
       resultSet[i] = new RatioResult(timeArray[i], value1[i], value2[i], ratio);
     }
     Metadata metadata = null;
@@ -634,7 +689,7 @@ public class ExecutionUtils {
       return null;
     }
     return new RatioResponse(
-        new Attribution(ExtractMetadata.attributionUrl, ExtractMetadata.attributionShort),
+        new Attribution(ElementsRequestExecutor.URL, ElementsRequestExecutor.TEXT),
         Application.API_VERSION, metadata, resultSet);
   }
 
@@ -652,12 +707,8 @@ public class ExecutionUtils {
       int innerCount = 0;
       for (int j = i; j < timeArrayLenth * boundaryIdsLength; j += boundaryIdsLength) {
         double ratio = resultValues2[j] / resultValues1[j];
-        // in case ratio has the values "NaN", "Infinity", etc.
-        try {
-          ratio = Double.parseDouble(ratioDf.format(ratio));
-        } catch (Exception e) {
-          // do nothing --> just return ratio without rounding (trimming)
-        }
+        // values like "NaN" or "Infinity" are returned without rounding
+        ratio = RoundingUtils.round(ratio, RoundingUtils.RATIO_DECIMALS);
         ratioResultSet[innerCount] =
             new RatioResult(timeArray[innerCount], resultValues1[j], resultValues2[j], ratio);
         innerCount++;
@@ -672,9 +723,9 @@ public class ExecutionUtils {
     }
     RequestParameters requestParameters = processingData.getRequestParameters();
     Attribution attribution =
-        new Attribution(ExtractMetadata.attributionUrl, ExtractMetadata.attributionShort);
+        new Attribution(ElementsRequestExecutor.URL, ElementsRequestExecutor.TEXT);
     if ("geojson".equalsIgnoreCase(requestParameters.getFormat())) {
-      GeoJsonObject[] geoJsonGeoms = processingData.getGeoJsonGeoms();
+      GeoJsonBoundaries geoJsonGeoms = processingData.getGeoJsonGeoms();
       return RatioGroupByBoundaryResponse.of(attribution, Application.API_VERSION, metadata,
           "FeatureCollection",
           GroupByBoundaryGeoJsonGenerator.createGeoJsonFeatures(groupByResultSet, geoJsonGeoms));
@@ -721,163 +772,133 @@ public class ExecutionUtils {
   }
 
   /**
-   * Creates the csv response for /elements/_/groupBy requests.
+   * Writes the csv header and rows for /elements/_/groupBy requests. The rows are written one by
+   * one, taking the value of each row from the results of all groups.
    * 
    * @param resultSet <code>GroupByObject</code> array containing <code>GroupByResult</code> objects
    *        containing <code>ElementsResult</code> objects
-   * @return <code>Pair</code> containing the column names (left) and the data rows (right)
    */
-  private ImmutablePair<List<String>, List<String[]>> createCsvResponseForElementsGroupBy(
-      GroupByObject[] resultSet) {
-    List<String> columnNames = new LinkedList<>();
-    columnNames.add("timestamp");
-    List<String[]> rows = new LinkedList<>();
+  static void writeCsvRowsForElementsGroupBy(CSVWriter writer, GroupByObject[] resultSet) {
+    String[] row = new String[resultSet.length + 1];
+    row[0] = "timestamp";
     for (int i = 0; i < resultSet.length; i++) {
-      GroupByResult groupByResult = (GroupByResult) resultSet[i];
-      Object groupByObject = groupByResult.getGroupByObject();
+      Object groupByObject = resultSet[i].getGroupByObject();
       if (groupByObject instanceof Object[]) {
         Object[] groupByObjectArr = (Object[]) groupByObject;
-        columnNames.add(groupByObjectArr[0].toString() + "_" + groupByObjectArr[1].toString());
+        row[i + 1] = groupByObjectArr[0].toString() + "_" + groupByObjectArr[1].toString();
       } else {
-        columnNames.add(groupByObject.toString());
+        row[i + 1] = groupByObject.toString();
       }
-      for (int j = 0; j < groupByResult.getResult().length; j++) {
-        ElementsResult elemResult = (ElementsResult) groupByResult.getResult()[j];
+    }
+    writer.writeNext(row, false);
+    int numberOfRows = resultSet.length > 0 ? ((GroupByResult) resultSet[0]).getResult().length : 0;
+    for (int j = 0; j < numberOfRows; j++) {
+      for (int i = 0; i < resultSet.length; i++) {
+        ElementsResult elemResult = (ElementsResult) ((GroupByResult) resultSet[i]).getResult()[j];
         if (i == 0) {
-          String[] row = new String[resultSet.length + 1];
           row[0] = elemResult.getTimestamp();
-          row[1] = String.valueOf(elemResult.getValue());
-          rows.add(row);
-        } else {
-          rows.get(j)[i + 1] = String.valueOf(elemResult.getValue());
         }
+        row[i + 1] = String.valueOf(elemResult.getValue());
       }
+      writer.writeNext(row, false);
     }
-    return new ImmutablePair<>(columnNames, rows);
   }
 
   /**
-   * Creates the csv response for /elements/_/ratio/groupBy requests.
+   * Writes the csv header and rows for /elements/_/ratio/groupBy requests. The rows are written one
+   * by one, taking the values of each row from the results of all groups.
    * 
    * @param resultSet <code>GroupByObject</code> array containing <code>RatioGroupByResult</code>
    *        objects containing <code>RatioResult</code> objects
-   * @return <code>Pair</code> containing the column names (left) and the data rows (right)
    */
-  private ImmutablePair<List<String>, List<String[]>> createCsvResponseForElementsRatioGroupBy(
+  private static void writeCsvRowsForElementsRatioGroupBy(CSVWriter writer,
       GroupByObject[] resultSet) {
-    List<String> columnNames = new LinkedList<>();
-    columnNames.add("timestamp");
-    List<String[]> rows = new LinkedList<>();
+    String[] row = new String[resultSet.length * 3 + 1];
+    row[0] = "timestamp";
     for (int i = 0; i < resultSet.length; i++) {
-      RatioGroupByResult ratioGroupByResult = (RatioGroupByResult) resultSet[i];
-      columnNames.add(ratioGroupByResult.getGroupByObject() + "_value");
-      columnNames.add(ratioGroupByResult.getGroupByObject() + "_value2");
-      columnNames.add(ratioGroupByResult.getGroupByObject() + "_ratio");
-      for (int j = 0; j < ratioGroupByResult.getRatioResult().length; j++) {
-        RatioResult ratioResult = ratioGroupByResult.getRatioResult()[j];
+      Object groupByObject = resultSet[i].getGroupByObject();
+      row[i * 3 + 1] = groupByObject + "_value";
+      row[i * 3 + 2] = groupByObject + "_value2";
+      row[i * 3 + 3] = groupByObject + "_ratio";
+    }
+    writer.writeNext(row, false);
+    int numberOfRows =
+        resultSet.length > 0 ? ((RatioGroupByResult) resultSet[0]).getRatioResult().length : 0;
+    for (int j = 0; j < numberOfRows; j++) {
+      for (int i = 0; i < resultSet.length; i++) {
+        RatioResult ratioResult = ((RatioGroupByResult) resultSet[i]).getRatioResult()[j];
         if (i == 0) {
-          String[] row = new String[resultSet.length * 3 + 1];
           row[0] = ratioResult.getTimestamp();
-          row[1] = String.valueOf(ratioResult.getValue());
-          row[2] = String.valueOf(ratioResult.getValue2());
-          row[3] = String.valueOf(ratioResult.getRatio());
-          rows.add(row);
-        } else {
-          int count = i * 3 + 1;
-          rows.get(j)[count] = String.valueOf(ratioResult.getValue());
-          rows.get(j)[count + 1] = String.valueOf(ratioResult.getValue2());
-          rows.get(j)[count + 2] = String.valueOf(ratioResult.getRatio());
         }
+        int count = i * 3 + 1;
+        row[count] = String.valueOf(ratioResult.getValue());
+        row[count + 1] = String.valueOf(ratioResult.getValue2());
+        row[count + 2] = String.valueOf(ratioResult.getRatio());
       }
+      writer.writeNext(row, false);
     }
-    return new ImmutablePair<>(columnNames, rows);
   }
 
   /**
-   * Creates the csv response for /users/_/groupBy requests.
+   * Writes the csv header and rows for /users/_/groupBy requests. The rows are written one by one,
+   * taking the value of each row from the results of all groups.
    * 
    * @param resultSet <code>GroupByObject</code> array containing <code>GroupByResult</code> objects
    *        containing <code>UsersResult</code> objects
-   * @return <code>Pair</code> containing the column names (left) and the data rows (right)
    */
-  private ImmutablePair<List<String>, List<String[]>> createCsvResponseForUsersGroupBy(
-      GroupByObject[] resultSet) {
-    List<String> columnNames = new LinkedList<>();
-    columnNames.add("fromTimestamp");
-    columnNames.add("toTimestamp");
-    List<String[]> rows = new LinkedList<>();
+  private static void writeCsvRowsForUsersGroupBy(CSVWriter writer, GroupByObject[] resultSet) {
+    String[] row = new String[resultSet.length + 2];
+    row[0] = "fromTimestamp";
+    row[1] = "toTimestamp";
     for (int i = 0; i < resultSet.length; i++) {
-      GroupByResult groupByResult = (GroupByResult) resultSet[i];
-      columnNames.add(groupByResult.getGroupByObject().toString());
-      for (int j = 0; j < groupByResult.getResult().length; j++) {
-        UsersResult usersResult = (UsersResult) groupByResult.getResult()[j];
+      row[i + 2] = resultSet[i].getGroupByObject().toString();
+    }
+    writer.writeNext(row, false);
+    int numberOfRows = ((GroupByResult) resultSet[0]).getResult().length;
+    for (int j = 0; j < numberOfRows; j++) {
+      for (int i = 0; i < resultSet.length; i++) {
+        UsersResult usersResult = (UsersResult) ((GroupByResult) resultSet[i]).getResult()[j];
         if (i == 0) {
-          String[] row = new String[resultSet.length + 2];
           row[0] = usersResult.getFromTimestamp();
           row[1] = usersResult.getToTimestamp();
-          row[2] = String.valueOf(usersResult.getValue());
-          rows.add(row);
-        } else {
-          int count = i + 2;
-          rows.get(j)[count] = String.valueOf(usersResult.getValue());
         }
+        row[i + 2] = String.valueOf(usersResult.getValue());
       }
+      writer.writeNext(row, false);
     }
-    return new ImmutablePair<>(columnNames, rows);
   }
 
   /**
-   * Fills the given stream with output data using multiple parallel threads.
+   * Fills the given stream with output data using the threads of the shared
+   * {@link DataExtractionPool}. The tags of each feature are resolved, before it is serialized by
+   * the given serializer.
    * 
+   * @param separator written between two serialized features, or null if none is needed
    * @throws RuntimeException if any one thread experiences an exception, or it only wraps
    *         {@link IOException}
    * @throws DatabaseAccessException if the access to keytables or database is not possible
-   * @throws ExecutionException thrown by {@link java.util.concurrent.ForkJoinTask#get() get}
-   * @throws InterruptedException thrown by {@link java.util.concurrent.ForkJoinTask#get() get}
+   * @throws ExecutionException thrown by
+   *         {@link org.heigit.ohsome.ohsomeapi.executor.DataExtractionPool#execute(Runnable)
+   *         execute}
+   * @throws InterruptedException thrown by
+   *         {@link org.heigit.ohsome.ohsomeapi.executor.DataExtractionPool#execute(Runnable)
+   *         execute}
    * @throws IOException thrown by {@link java.io.OutputStream#flush() flush}
    */
-  private void writeStreamResponse(ThreadLocal<JsonGenerator> outputJsonGen,
-      Stream<org.wololo.geojson.Feature> stream, ThreadLocal<ByteArrayOutputStream> outputBuffers,
+  private void writeStreamResponse(Stream<ExtractionFeature> stream,
+      BiFunction<ExtractionFeature, String[], byte[]> serializer, String separator,
       final ServletOutputStream outputStream)
       throws ExecutionException, InterruptedException, IOException {
-    ThreadLocal<TagTranslator> tts;
-    HikariDataSource keytablesConnectionPool;
-    if (DbConnData.keytablesDbPoolConfig != null) {
-      keytablesConnectionPool = new HikariDataSource(DbConnData.keytablesDbPoolConfig);
-      tts = ThreadLocal.withInitial(() -> {
-        try {
-          return new TagTranslator(keytablesConnectionPool.getConnection());
-        } catch (OSHDBKeytablesNotFoundException | SQLException e) {
-          throw new DatabaseAccessException(ExceptionMessages.DATABASE_ACCESS);
-        }
-      });
-    } else {
-      keytablesConnectionPool = null;
-      tts = ThreadLocal.withInitial(() -> DbConnData.tagTranslator);
-    }
     ReentrantLock lock = new ReentrantLock();
     AtomicBoolean errored = new AtomicBoolean(false);
-    ForkJoinPool threadPool = new ForkJoinPool(ProcessingData.getNumberOfDataExtractionThreads());
+    AtomicBoolean isFirstFeature = new AtomicBoolean(true);
+    CancellationToken cancellationToken = getCancellationToken();
     try {
-      threadPool.submit(() -> stream.parallel().map(data -> {
-        // 0. resolve tags
-        Map<String, Object> props = data.getProperties();
-        OSHDBTag[] tags = (OSHDBTag[]) props.remove("@tags");
-        if (tags != null) {
-          for (OSHDBTag tag : tags) {
-            OSMTag osmTag = tts.get().getOSMTagOf(tag);
-            String key = osmTag.getKey();
-            props.put(key.startsWith("@") ? "@" + key : key, osmTag.getValue());
-          }
-        }
-        // 1. convert features to geojson
-        try {
-          outputBuffers.get().reset();
-          outputJsonGen.get().writeObject(data);
-          return outputBuffers.get().toByteArray();
-        } catch (IOException e) {
-          throw new RuntimeException(e);
-        }
+      ProcessingData.getDataExtractionPool().execute(() -> stream.parallel().map(data -> {
+        // stop computing features as soon as the client is gone
+        cancellationToken.throwIfCancelled();
+        // 0. resolve tags and 1. serialize features
+        return serializer.apply(data, resolveTags(data));
       }).forEach(data -> {
         // 2. write data out to client
         // only 1 thread is allowed to write at once!
@@ -889,30 +910,140 @@ public class ExecutionUtils {
           throw new RuntimeException();
         }
         try {
-          // separate features in the result by a comma, except for the very first one
-          if (isFirst.get()) {
-            isFirst.set(false);
-          } else {
-            outputStream.print(", ");
+          // separate features in the result, except for the very first one
+          if (isFirstFeature.get()) {
+            isFirstFeature.set(false);
+          } else if (separator != null) {
+            outputStream.print(separator);
           }
           // write the feature
           outputStream.write(data);
         } catch (IOException e) {
           errored.set(true);
+          cancellationToken.cancel();
           throw new RuntimeException(e);
         } finally {
           lock.unlock();
         }
-      })).get();
+      }));
     } finally {
-      threadPool.shutdown();
-      if (keytablesConnectionPool != null) {
-        keytablesConnectionPool.close();
+      outputStream.flush();
+    }
+  }
+
+  /**
+   * Fills the given stream with GeoJSON text sequence records using the threads of the shared
+   * {@link DataExtractionPool}. Each thread serializes its features into its own buffer and only
+   * writes it to the client, when it holds a batch of at least {@link #SEQUENCE_BATCH_SIZE} bytes.
+   * The remaining, smaller batches are written after all features are processed.
+   *
+   * @throws RuntimeException if any one thread experiences an exception, or it only wraps
+   *         {@link IOException}
+   * @throws DatabaseAccessException if the access to keytables or database is not possible
+   * @throws ExecutionException thrown by
+   *         {@link org.heigit.ohsome.ohsomeapi.executor.DataExtractionPool#execute(Runnable)
+   *         execute}
+   * @throws InterruptedException thrown by
+   *         {@link org.heigit.ohsome.ohsomeapi.executor.DataExtractionPool#execute(Runnable)
+   *         execute}
+   * @throws IOException thrown by {@link java.io.OutputStream#flush() flush}
+   */
+  private void writeSequenceResponse(Stream<ExtractionFeature> stream,
+      final ServletOutputStream outputStream)
+      throws ExecutionException, InterruptedException, IOException {
+    // the batches are kept per request, so that they do not stay reachable from the pool threads
+    Map<Thread, GeoJsonFeatureWriter> batches = new ConcurrentHashMap<>();
+    ReentrantLock lock = new ReentrantLock();
+    AtomicBoolean errored = new AtomicBoolean(false);
+    CancellationToken cancellationToken = getCancellationToken();
+    try {
+      ProcessingData.getDataExtractionPool().execute(() -> stream.parallel().forEach(data -> {
+        // stop computing features as soon as the client is gone
+        cancellationToken.throwIfCancelled();
+        String[] tags = resolveTags(data);
+        GeoJsonFeatureWriter batch = batches.computeIfAbsent(Thread.currentThread(),
+            thread -> new GeoJsonFeatureWriter(2 * SEQUENCE_BATCH_SIZE));
+        batch.write(RECORD_SEPARATOR);
+        batch.writeFeature(data, tags);
+        batch.write('\n');
+        if (batch.size() < SEQUENCE_BATCH_SIZE) {
+          return;
+        }
+        // only 1 thread is allowed to write at once, but it writes a whole batch of records
+        lock.lock();
+        try {
+          if (errored.get()) {
+            // when any one thread experienced an exception (e.g. a client disconnects):
+            // the "errored" flag is set and all threads abort themselves by throwing an exception
+            throw new RuntimeException();
+          }
+          batch.writeTo(outputStream);
+        } catch (IOException e) {
+          errored.set(true);
+          cancellationToken.cancel();
+          throw new RuntimeException(e);
+        } finally {
+          lock.unlock();
+        }
+        batch.reset();
+      }));
+      for (GeoJsonFeatureWriter batch : batches.values()) {
+        batch.writeTo(outputStream);
       }
+    } finally {
+      batches.clear();
       outputStream.flush();
     }
   }
 
+  /**
+   * Gives the cancellation token of the current request, or a token which is never cancelled, if
+   * the request has no execution context.
+   */
+  private CancellationToken getCancellationToken() {
+    ExecutionContext executionContext = processingData.getExecutionContext();
+    return executionContext != null ? executionContext.getCancellationToken()
+        : new CancellationToken();
+  }
+
+  /**
+   * Resolves the tags of the given feature into alternating keys and values, which are sorted by
+   * their keys. Keys starting with "@" get another "@" prepended, so that they cannot be mistaken
+   * for the "@" properties of the feature.
+   *
+   * @return the resolved tags, or null if the feature has no tags
+   * @throws DatabaseAccessException if the access to keytables or database is not possible
+   */
+  private String[] resolveTags(ExtractionFeature data) {
+    int[] tagIds = data.getTags();
+    if (tagIds == null) {
+      return null;
+    }
+    String[] tags = new String[tagIds.length];
+    TagTranslatorPool tagTranslatorPool = DbConnData.tagTranslatorPool;
+    TagTranslator tagTranslator = tagTranslatorPool.borrow();
+    try {
+      for (int i = 0; i < tagIds.length; i += 2) {
+        OSMTag osmTag = tagTranslator.getOSMTagOf(tagIds[i], tagIds[i + 1]);
+        String key = osmTag.getKey();
+        if (key.startsWith("@")) {
+          key = "@" + key;
+        }
+        // insertion sort of the key and value pairs, as features only have a few tags
+        int j = i;
+        for (; j > 0 && tags[j - 2].compareTo(key) > 0; j -= 2) {
+          tags[j] = tags[j - 2];
+          tags[j + 1] = tags[j - 1];
+        }
+        tags[j] = key;
+        tags[j + 1] = osmTag.getValue();
+      }
+    } finally {
+      tagTranslatorPool.release(tagTranslator);
+    }
+    return tags;
+  }
+
   /** Defines character encoding, content type and cache header in given servlet response object. */
   private HttpServletResponse setCsvSettingsInServletResponse(HttpServletResponse servletResponse) {
     servletResponse.setCharacterEncoding("UTF-8");
@@ -939,27 +1070,13 @@ public class ExecutionUtils {
   }
 
   /** Adds additional properties like the version or the changeset ID to the feature. */
-  private Map<String, Object> addAdditionalProperties(OSMEntity entity,
-      Map<String, Object> properties, boolean isContributionsEndpoint,
-      EnumSet<ContributionType> contributionTypes) {
-    properties.put("@version", entity.getVersion());
-    properties.put("@osmType", entity.getType());
-    properties.put("@changesetId", entity.getChangesetId());
+  private void addAdditionalProperties(OSMEntity entity, ExtractionFeature feature,
+      boolean isContributionsEndpoint, EnumSet<ContributionType> contributionTypes) {
+    feature.setVersion(entity.getVersion());
+    feature.setChangesetId(entity.getChangesetId());
     if (isContributionsEndpoint) {
-      if (contributionTypes.contains(ContributionType.CREATION)) {
-        properties.put("@creation", true);
-      }
-      if (contributionTypes.contains(ContributionType.DELETION)) {
-        properties.put("@deletion", true);
-      }
-      if (contributionTypes.contains(ContributionType.TAG_CHANGE)) {
-        properties.put("@tagChange", true);
-      }
-      if (contributionTypes.contains(ContributionType.GEOMETRY_CHANGE)) {
-        properties.put("@geometryChange", true);
-      }
+      feature.setContributionTypes(contributionTypes);
     }
-    return properties;
   }
 
   /**
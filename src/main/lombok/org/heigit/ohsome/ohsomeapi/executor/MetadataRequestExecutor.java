@@ -4,6 +4,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.heigit.ohsome.ohsomeapi.Application;
 import org.heigit.ohsome.ohsomeapi.exception.BadRequestException;
 import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadata;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadataSnapshot;
 import org.heigit.ohsome.ohsomeapi.output.Attribution;
 import org.heigit.ohsome.ohsomeapi.output.metadata.ExtractRegion;
 import org.heigit.ohsome.ohsomeapi.output.metadata.MetadataResponse;
@@ -23,12 +24,13 @@ public class MetadataRequestExecutor {
     if (!servletRequest.getParameterMap().isEmpty()) {
       throw new BadRequestException("The endpoint 'metadata' does not require parameters");
     }
+    ExtractMetadataSnapshot metadata = ExtractMetadata.getSnapshot();
     return new MetadataResponse(
-        new Attribution(ExtractMetadata.attributionUrl, ExtractMetadata.attributionShort),
+        new Attribution(metadata.getAttributionUrl(), metadata.getAttributionShort()),
         Application.API_VERSION, ExtractMetadata.timeout,
-        new ExtractRegion(ExtractMetadata.dataPolyJson,
-            new TemporalExtent(ExtractMetadata.fromTstamp, ExtractMetadata.toTstamp),
-            ExtractMetadata.replicationSequenceNumber));
+        new ExtractRegion(metadata.getDataPolyJson(),
+            new TemporalExtent(metadata.getFromTstamp(), metadata.getToTstamp()),
+            metadata.getReplicationSequenceNumber()));
   }
 
   private MetadataRequestExecutor() {
@@ -0,0 +1,35 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.heigit.ohsome.ohsomeapi.utils.RequestUtils;
+
+/**
+ * Enumeration defining the class of an endpoint (AGGREGATION, EXTRACTION, FULL_HISTORY), which is
+ * used for the admission control of the {@link RequestExecutionPool}. The weight expresses how
+ * expensive a request of this class is compared to an aggregation over the same area and time.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public enum RequestClass {
+  AGGREGATION(1), EXTRACTION(4), FULL_HISTORY(8);
+
+  private final int weight;
+
+  /**
+   * Defines the class of the endpoint of the given request URL. Full-history data and
+   * contributions are extracted as FULL_HISTORY, snapshot data as EXTRACTION and all other
+   * endpoints are treated as AGGREGATION.
+   */
+  public static RequestClass of(String requestUrl) {
+    if (requestUrl.contains("elementsFullHistory")
+        || RequestUtils.isContributionsExtraction(requestUrl)) {
+      return FULL_HISTORY;
+    }
+    if (RequestUtils.isDataExtraction(requestUrl)) {
+      return EXTRACTION;
+    }
+    return AGGREGATION;
+  }
+}
@@ -0,0 +1,147 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.heigit.bigspatialdata.oshdb.util.time.OSHDBTimestamps;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessingUtils;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessor;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadata;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Rough estimate of the cost of a request, which is computed from its raw parameters before the
+ * request is admitted to the {@link RequestExecutionPool}. The cost is the product of the weight of
+ * the {@link RequestClass}, the number of requested timestamps and the envelope area of the
+ * boundary in square degrees (plus one, so that tiny boundaries still have a cost).
+ *
+ * <p>
+ * The estimate never throws: if a parameter cannot be parsed, the request is admitted with the
+ * lowest possible cost and is rejected later on by the regular input processing.
+ */
+@Getter
+@AllArgsConstructor
+public class RequestCost {
+
+  /** Priority of a request, used when requests have to wait for a free worker. */
+  public enum Priority {
+    HIGH, NORMAL, LOW
+  }
+
+  private static final double METERS_PER_DEGREE = 111_320;
+  private static final Pattern GEOJSON_COORDINATES =
+      Pattern.compile("\"coordinates\"\\s*:\\s*([\\[\\]\\s\\d.,eE+-]+)");
+  private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?");
+
+  private final RequestClass requestClass;
+  private final Priority priority;
+  private final long cost;
+
+  /** Estimates the cost of the given request. */
+  public static RequestCost estimate(HttpServletRequest servletRequest) {
+    RequestClass requestClass = RequestClass.of(servletRequest.getRequestURL().toString());
+    InputProcessingUtils utils = new InputProcessingUtils(ExtractMetadata.getSnapshot());
+    double envelopeArea = estimateEnvelopeArea(servletRequest, utils);
+    long numberOfTimestamps =
+        estimateNumberOfTimestamps(servletRequest.getParameterValues("time"), utils);
+    // requests on small boundaries are preferred, as they finish quickly
+    Priority priority = envelopeArea <= InputProcessor.COMPUTE_MODE_THRESHOLD ? Priority.HIGH
+        : Priority.NORMAL;
+    long cost = (long) Math
+        .ceil(requestClass.getWeight() * numberOfTimestamps * (1 + envelopeArea));
+    return new RequestCost(requestClass, priority, cost);
+  }
+
+  /**
+   * Estimates the area of the envelope of the boundary parameter. Requests without a boundary are
+   * estimated by the envelope of the whole data extract.
+   */
+  private static double estimateEnvelopeArea(HttpServletRequest servletRequest,
+      InputProcessingUtils utils) {
+    String bboxes = servletRequest.getParameter("bboxes");
+    String bcircles = servletRequest.getParameter("bcircles");
+    String bpolys = servletRequest.getParameter("bpolys");
+    Envelope envelope = new Envelope();
+    try {
+      if (bboxes != null && !bboxes.isEmpty()) {
+        List<String> values = utils.splitBboxes(bboxes);
+        for (int i = 0; i + 3 < values.size(); i += 4) {
+          envelope.expandToInclude(Double.parseDouble(values.get(i)),
+              Double.parseDouble(values.get(i + 1)));
+          envelope.expandToInclude(Double.parseDouble(values.get(i + 2)),
+              Double.parseDouble(values.get(i + 3)));
+        }
+      } else if (bcircles != null && !bcircles.isEmpty()) {
+        List<String> values = utils.splitBcircles(bcircles);
+        for (int i = 0; i + 2 < values.size(); i += 3) {
+          double lon = Double.parseDouble(values.get(i));
+          double lat = Double.parseDouble(values.get(i + 1));
+          double radius = Double.parseDouble(values.get(i + 2)) / METERS_PER_DEGREE;
+          double lonRadius = radius / Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+          envelope.expandToInclude(new Envelope(lon - lonRadius, lon + lonRadius, lat - radius,
+              lat + radius));
+        }
+      } else if (bpolys != null && !bpolys.isEmpty()) {
+        if (bpolys.matches("^\\s*\\{[\\s\\S]*")) {
+          expandByGeoJsonCoordinates(envelope, bpolys);
+        } else {
+          List<String> values = utils.splitBpolys(bpolys);
+          for (int i = 0; i + 1 < values.size(); i += 2) {
+            envelope.expandToInclude(Double.parseDouble(values.get(i)),
+                Double.parseDouble(values.get(i + 1)));
+          }
+        }
+      } else if (utils.getDataPoly() != null) {
+        envelope = utils.getDataPoly().getEnvelopeInternal();
+      }
+    } catch (RuntimeException e) {
+      // invalid boundaries are reported by the input processing
+      return 0;
+    }
+    return envelope.isNull() ? 0 : envelope.getArea();
+  }
+
+  /** Expands the given envelope by all coordinates found in the given GeoJSON. */
+  private static void expandByGeoJsonCoordinates(Envelope envelope, String geoJson) {
+    Matcher coordinates = GEOJSON_COORDINATES.matcher(geoJson);
+    List<Double> values = new ArrayList<>();
+    while (coordinates.find()) {
+      Matcher number = NUMBER.matcher(coordinates.group(1));
+      values.clear();
+      while (number.find()) {
+        values.add(Double.parseDouble(number.group()));
+      }
+      for (int i = 0; i + 1 < values.size(); i += 2) {
+        envelope.expandToInclude(values.get(i), values.get(i + 1));
+      }
+    }
+  }
+
+  /**
+   * Estimates the number of timestamps given by the time parameter, which defaults to one.
+   */
+  private static long estimateNumberOfTimestamps(String[] time, InputProcessingUtils utils) {
+    if (time == null || time.length == 0) {
+      return 1;
+    }
+    String[] timeValues = String.join(",", time).split(",");
+    if (timeValues.length > 1) {
+      return timeValues.length;
+    }
+    try {
+      String[] timeData = utils.extractIsoTime(timeValues[0]);
+      if (timeData[2] != null) {
+        return Math.max(1,
+            new OSHDBTimestamps(timeData[0], timeData[1], timeData[2]).get().size());
+      }
+      return timeData[1] != null ? 2 : 1;
+    } catch (RuntimeException e) {
+      // invalid time parameters are reported by the input processing
+      return 1;
+    }
+  }
+}
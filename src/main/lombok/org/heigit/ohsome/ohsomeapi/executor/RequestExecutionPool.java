@@ -0,0 +1,269 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import org.heigit.bigspatialdata.oshdb.api.db.OSHDBIgnite;
+import org.heigit.ohsome.ohsomeapi.exception.ServiceUnavailableException;
+import org.heigit.ohsome.ohsomeapi.executor.RequestCost.Priority;
+import org.heigit.ohsome.ohsomeapi.executor.RequestMetrics.StageTimer;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
+import org.heigit.ohsome.ohsomeapi.oshdb.CancellationToken;
+import org.heigit.ohsome.ohsomeapi.oshdb.DbConnData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Application-wide, bounded worker pool, on which the controllers run their executors
+ * asynchronously. This frees the servlet container threads while the OSHDB queries are running, so
+ * that cheap requests (e.g. /metadata) are not blocked by long-running ones.
+ *
+ * <p>
+ * Requests are admitted to one lane per {@link RequestClass}, each having its own number of worker
+ * threads, so that e.g. full-history extractions can never occupy all workers. Waiting requests are
+ * served by their {@link Priority priority} first and by their order of arrival second. Every lane
+ * limits the number and the summed up {@link RequestCost cost} of its waiting requests. If a new
+ * request would exceed one of these limits, it is rejected right away with a
+ * {@link ServiceUnavailableException}, which tells the client when to retry.
+ */
+@Component
+public class RequestExecutionPool {
+
+  private static final long MAX_RETRY_AFTER_SECONDS = 600;
+  private final int numberOfThreads;
+  private final int extractionThreads;
+  private final int fullHistoryThreads;
+  private final int queueCapacity;
+  private final long maxQueuedCost;
+  private final AtomicLong sequenceNumber = new AtomicLong();
+  private final Map<RequestClass, Lane> lanes = new EnumMap<>(RequestClass.class);
+
+  public RequestExecutionPool(@Value("${ohsome.async.threads:0}") int numberOfThreads,
+      @Value("${ohsome.async.extraction-threads:0}") int extractionThreads,
+      @Value("${ohsome.async.full-history-threads:0}") int fullHistoryThreads,
+      @Value("${ohsome.async.queue-capacity:1000}") int queueCapacity,
+      @Value("${ohsome.async.max-queued-cost:1000000}") long maxQueuedCost) {
+    this.numberOfThreads = numberOfThreads;
+    this.extractionThreads = extractionThreads;
+    this.fullHistoryThreads = fullHistoryThreads;
+    this.queueCapacity = queueCapacity;
+    this.maxQueuedCost = maxQueuedCost;
+  }
+
+  /**
+   * Creates the lanes of the worker pool and makes it available via ProcessingData. If the number
+   * of threads is negative, the pool stays disabled and all requests are executed on the calling
+   * thread. Lanes without a configured number of threads get a fraction of the aggregation lane.
+   */
+  @PostConstruct
+  public void init() {
+    if (numberOfThreads < 0) {
+      return;
+    }
+    // the workers mostly wait for the backend, so there can be more of them than cpu cores
+    int threads = numberOfThreads > 0 ? numberOfThreads
+        : Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+    lanes.put(RequestClass.AGGREGATION, new Lane(RequestClass.AGGREGATION, threads));
+    lanes.put(RequestClass.EXTRACTION, new Lane(RequestClass.EXTRACTION,
+        extractionThreads > 0 ? extractionThreads : Math.max(1, threads / 2)));
+    lanes.put(RequestClass.FULL_HISTORY, new Lane(RequestClass.FULL_HISTORY,
+        fullHistoryThreads > 0 ? fullHistoryThreads : Math.max(1, threads / 4)));
+    ProcessingData.setRequestExecutionPool(this);
+  }
+
+  /** Shuts down the worker pool. Requests, which are still waiting, are not processed anymore. */
+  @PreDestroy
+  public void shutdown() {
+    if (ProcessingData.getRequestExecutionPool() == this) {
+      ProcessingData.setRequestExecutionPool(null);
+    }
+    lanes.values().forEach(lane -> lane.threadPool.shutdownNow());
+  }
+
+  /**
+   * Runs the given task of a request asynchronously on the shared worker pool, or directly on the
+   * calling thread, if the pool is disabled.
+   *
+   * @param servletRequest the request, which is used to estimate the cost of the task
+   * @param task the processing of the request
+   * @return <code>CompletableFuture</code> holding the result of the task, or the exception thrown
+   *         by it
+   * @throws ServiceUnavailableException if the lane of the request is saturated
+   */
+  public static <T> CompletableFuture<T> execute(HttpServletRequest servletRequest,
+      Callable<T> task) {
+    CancellationToken cancellationToken = CancellationToken.of(servletRequest);
+    StageTimer stageTimer = RequestMetrics.startTimer(servletRequest);
+    Callable<T> timedTask = () -> stageTimer.run(task);
+    RequestExecutionPool pool = ProcessingData.getRequestExecutionPool();
+    if (pool == null) {
+      try {
+        return CompletableFuture.completedFuture(timedTask.call());
+      } catch (Exception e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+    return pool.submit(RequestCost.estimate(servletRequest), cancellationToken, timedTask);
+  }
+
+  /**
+   * Submits the given task to the lane of its request class. A task is always admitted to a lane
+   * without waiting tasks, regardless of its cost. Tasks, which are cancelled while waiting, are
+   * not started at all. If a running task on an ignite cluster is cancelled, the worker thread of
+   * this pool, which runs it, gets interrupted. This ends its wait for the cluster, or its wait for
+   * the streams of a data extraction in {@link DataExtractionPool#execute(Runnable) execute}, which
+   * stop on their own at the next check of the {@link CancellationToken}. On the local backends, a
+   * running task relies on these checks only.
+   *
+   * @throws ServiceUnavailableException if the number or the cost of the waiting tasks of the lane
+   *         would exceed its limits
+   */
+  public <T> CompletableFuture<T> submit(RequestCost requestCost,
+      CancellationToken cancellationToken, Callable<T> task) {
+    Lane lane = lanes.get(requestCost.getRequestClass());
+    long cost = requestCost.getCost();
+    CompletableFuture<T> future = new CompletableFuture<>();
+    PrioritizedTask prioritizedTask = new PrioritizedTask(requestCost.getPriority(),
+        sequenceNumber.getAndIncrement(), () -> {
+          lane.queuedCost.addAndGet(-cost);
+          if (cancellationToken.isCancelled()) {
+            future.completeExceptionally(new CancellationException("The request was cancelled."));
+            return;
+          }
+          // only the worker thread of the request is interrupted, and only on an ignite cluster:
+          // on the local backends, an interrupt could close the file channel of the database
+          // shared by all requests
+          Runnable interruptWorker = null;
+          if (DbConnData.db instanceof OSHDBIgnite) {
+            interruptWorker = Thread.currentThread()::interrupt;
+            cancellationToken.onCancel(interruptWorker);
+          }
+          long startTime = System.currentTimeMillis();
+          try {
+            future.complete(task.call());
+          } catch (Throwable e) {
+            // complete the future in any case, otherwise the request would never be answered
+            future.completeExceptionally(e);
+          } finally {
+            if (interruptWorker != null) {
+              cancellationToken.removeCallback(interruptWorker);
+            }
+            // clear a pending interrupt, so that it does not affect the next task of this worker
+            Thread.interrupted();
+            lane.recordDuration(System.currentTimeMillis() - startTime);
+          }
+        });
+    // the limits are checked and the cost is reserved under the lock of the lane, so that
+    // concurrent requests cannot exceed them together; finishing tasks only lower the values
+    synchronized (lane) {
+      int queueSize = lane.threadPool.getQueue().size();
+      if (queueSize >= queueCapacity
+          || (queueSize > 0 && lane.queuedCost.get() + cost > maxQueuedCost)) {
+        throw new ServiceUnavailableException("The server is currently processing too many "
+            + "requests. Please try again later.", lane.estimateRetryAfterSeconds());
+      }
+      lane.queuedCost.addAndGet(cost);
+      lane.threadPool.execute(prioritizedTask);
+    }
+    return future;
+  }
+
+  /** Gives the number of tasks of all lanes, which are currently waiting for a worker thread. */
+  public int getQueueSize() {
+    return lanes.values().stream().mapToInt(lane -> lane.threadPool.getQueue().size()).sum();
+  }
+
+  /** Gives the number of tasks of the given lane, which are currently waiting. */
+  public int getQueueSize(RequestClass requestClass) {
+    return lanes.get(requestClass).threadPool.getQueue().size();
+  }
+
+  /** Worker threads, waiting tasks and statistics of one request class. */
+  private static class Lane {
+
+    private final ThreadPoolExecutor threadPool;
+    private final int threads;
+    private final AtomicLong queuedCost = new AtomicLong();
+    /** Moving average of the execution time of the tasks in milliseconds. */
+    private final AtomicLong averageDuration = new AtomicLong();
+
+    Lane(RequestClass requestClass, int threads) {
+      this.threads = threads;
+      this.threadPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+          new PriorityBlockingQueue<>(), new WorkerThreadFactory(requestClass));
+    }
+
+    void recordDuration(long duration) {
+      averageDuration
+          .updateAndGet(average -> average == 0 ? duration : (7 * average + duration) / 8);
+    }
+
+    /**
+     * Estimates the time until the currently waiting tasks of this lane are processed, based on the
+     * average execution time of its previous tasks.
+     */
+    long estimateRetryAfterSeconds() {
+      long waiting = threadPool.getQueue().size() + 1L;
+      long millis = averageDuration.get() * ((waiting + threads - 1) / threads);
+      return Math.min(MAX_RETRY_AFTER_SECONDS, Math.max(1, (millis + 999) / 1000));
+    }
+  }
+
+  /** Task ordered by its priority and then by its sequence number. */
+  private static class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+
+    private final Priority priority;
+    private final long sequenceNumber;
+    private final Runnable task;
+
+    PrioritizedTask(Priority priority, long sequenceNumber, Runnable task) {
+      this.priority = priority;
+      this.sequenceNumber = sequenceNumber;
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      task.run();
+    }
+
+    @Override
+    public int compareTo(PrioritizedTask other) {
+      int result = priority.compareTo(other.priority);
+      if (result == 0) {
+        result = Long.compare(sequenceNumber, other.sequenceNumber);
+      }
+      return result;
+    }
+  }
+
+  /** Creates named daemon threads for one lane of the worker pool. */
+  private static class WorkerThreadFactory implements ThreadFactory {
+
+    private final String namePrefix;
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    WorkerThreadFactory(RequestClass requestClass) {
+      this.namePrefix =
+          "ohsome-request-" + requestClass.name().toLowerCase().replace('_', '-') + "-";
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the latency of the processing stages of the requests as Micrometer timers, which are
+ * exposed together with the state of the {@link AggregationResultCache} and the
+ * {@link RequestExecutionPool} at the Prometheus endpoint of the actuator (/actuator/prometheus).
+ *
+ * <p>
+ * Each request gets a {@link StageTimer}, which is started when the request is submitted to the
+ * worker pool. While the request is processed, the timer is bound to the worker thread, so that
+ * {@link #enterStage(Stage) enterStage} can be called from anywhere in the processing, without
+ * passing the timer around. The time until the next stage is entered is added to the current
+ * stage. Streamed responses are computed and written at the same time, which is recorded as QUERY.
+ */
+@Component
+public class RequestMetrics {
+
+  /** Processing stage of a request. */
+  public enum Stage {
+    QUEUE, PARAMETERS, BOUNDARY, QUERY, RESULT_ASSEMBLY, SERIALIZATION
+  }
+
+  private static final String TIMER_ATTRIBUTE = StageTimer.class.getName();
+  private static final ThreadLocal<StageTimer> currentTimer = new ThreadLocal<>();
+  private final MeterRegistry registry;
+
+  public RequestMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * Registers the meters of the result cache and the worker pool and makes this object available
+   * via ProcessingData. The meters read their values via ProcessingData, when they are scraped.
+   */
+  @PostConstruct
+  public void init() {
+    FunctionCounter.builder("ohsome.cache.requests", this,
+        metrics -> cacheStatistic(AggregationResultCache::getHitCount))
+        .description("Lookups in the aggregation result cache").tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder("ohsome.cache.requests", this,
+        metrics -> cacheStatistic(AggregationResultCache::getMissCount))
+        .description("Lookups in the aggregation result cache").tag("result", "miss")
+        .register(registry);
+    Gauge.builder("ohsome.cache.size", this,
+        metrics -> cacheStatistic(AggregationResultCache::getSize))
+        .description("Number of entries in the aggregation result cache").register(registry);
+    for (RequestClass requestClass : RequestClass.values()) {
+      Gauge.builder("ohsome.requests.queued", this, metrics -> queueSize(requestClass))
+          .description("Number of requests waiting for a worker thread")
+          .tag("class", requestClass.name().toLowerCase()).register(registry);
+    }
+    ProcessingData.setRequestMetrics(this);
+  }
+
+  /** Makes this object unavailable. */
+  @PreDestroy
+  public void close() {
+    if (ProcessingData.getRequestMetrics() == this) {
+      ProcessingData.setRequestMetrics(null);
+    }
+  }
+
+  /**
+   * Starts the timer of the given request in the stage QUEUE and attaches it to the request.
+   *
+   * @return the new <code>StageTimer</code>
+   */
+  public static StageTimer startTimer(HttpServletRequest servletRequest) {
+    StageTimer timer = new StageTimer();
+    servletRequest.setAttribute(TIMER_ATTRIBUTE, timer);
+    return timer;
+  }
+
+  /**
+   * Enters the given stage in the timer of the request, which is processed by the current thread.
+   * Has no effect, if the current thread does not process a request.
+   */
+  public static void enterStage(Stage stage) {
+    StageTimer timer = currentTimer.get();
+    if (timer != null) {
+      timer.enter(stage);
+    }
+  }
+
+  /**
+   * Stops the timer of the given request and records the durations of its stages, tagged by the
+   * endpoint of the request. Has no effect, if the request has no timer.
+   */
+  public static void finish(HttpServletRequest servletRequest) {
+    Object timer = servletRequest.getAttribute(TIMER_ATTRIBUTE);
+    RequestMetrics metrics = ProcessingData.getRequestMetrics();
+    if (!(timer instanceof StageTimer) || metrics == null) {
+      return;
+    }
+    servletRequest.removeAttribute(TIMER_ATTRIBUTE);
+    Object endpoint = servletRequest.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    long[] durations = ((StageTimer) timer).finish();
+    for (Stage stage : Stage.values()) {
+      if (durations[stage.ordinal()] < 0) {
+        continue;
+      }
+      Timer.builder("ohsome.request.stage")
+          .description("Latency of the processing stages of the requests")
+          .tags("endpoint", endpoint != null ? endpoint.toString() : "unknown", "stage",
+              stage.name().toLowerCase())
+          .publishPercentileHistogram().register(metrics.registry)
+          .record(durations[stage.ordinal()], TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static double cacheStatistic(ToLongFunction<AggregationResultCache> statistic) {
+    AggregationResultCache cache = ProcessingData.getAggregationResultCache();
+    return cache != null ? statistic.applyAsLong(cache) : Double.NaN;
+  }
+
+  private static double queueSize(RequestClass requestClass) {
+    RequestExecutionPool pool = ProcessingData.getRequestExecutionPool();
+    return pool != null ? pool.getQueueSize(requestClass) : Double.NaN;
+  }
+
+  /** Measures the time a single request spends in each {@link Stage}. */
+  public static class StageTimer {
+
+    private final long[] durations = new long[Stage.values().length];
+    private Stage stage = Stage.QUEUE;
+    private long stageStart = System.nanoTime();
+    private boolean finished = false;
+
+    StageTimer() {
+      // a negative duration marks a stage, which was not entered
+      Arrays.fill(durations, -1);
+      durations[Stage.QUEUE.ordinal()] = 0;
+    }
+
+    /**
+     * Runs the given task on the current thread, with this timer bound to the thread. The task
+     * starts in the stage PARAMETERS. Its result is serialized afterwards, which is measured as
+     * SERIALIZATION until the timer is finished.
+     */
+    public <T> T run(Callable<T> task) throws Exception {
+      currentTimer.set(this);
+      try {
+        enter(Stage.PARAMETERS);
+        T result = task.call();
+        enter(Stage.SERIALIZATION);
+        return result;
+      } finally {
+        currentTimer.remove();
+      }
+    }
+
+    synchronized void enter(Stage nextStage) {
+      if (finished || nextStage == stage) {
+        return;
+      }
+      long now = System.nanoTime();
+      addDuration(now);
+      stage = nextStage;
+      stageStart = now;
+    }
+
+    synchronized long[] finish() {
+      if (!finished) {
+        addDuration(System.nanoTime());
+        finished = true;
+      }
+      return durations.clone();
+    }
+
+    private void addDuration(long now) {
+      int index = stage.ordinal();
+      durations[index] = Math.max(durations[index], 0) + now - stageStart;
+    }
+  }
+}
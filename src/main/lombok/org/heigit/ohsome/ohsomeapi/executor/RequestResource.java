@@ -5,15 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 /**
- * Enumeration defining the request resource (LENGTH, PERIMETER, AREA, COUNT, GROUPBYTAG,
+ * Enumeration defining the request resource (LENGTH, PERIMETER, AREA, COUNT, STATS, GROUPBYTAG,
  * GROUPBYKEY, RATIO, DATAEXTRACTION, CONTRIBUTION).
  */
 @Getter
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
 public enum RequestResource {
   LENGTH("length", "meters"), PERIMETER("perimeter", "meters"), AREA("area",
-      "square meters"), COUNT("count", "absolute values"), GROUPBYTAG("", ""), GROUPBYKEY("",
-          ""), RATIO("", ""), DATAEXTRACTION("OSM data as GeoJSON features.",
+      "square meters"), COUNT("count", "absolute values"), STATS("", ""), GROUPBYTAG("",
+          ""), GROUPBYKEY("", ""), RATIO("", ""), DATAEXTRACTION("OSM data as GeoJSON features.",
               ""), DATAEXTRACTIONFFULLHISTORY("Full-history OSM data as GeoJSON features.",
                   ""), CONTRIBUTIONS("Contributions as GeoJSON features.",
                       ""), CONTRIBUTIONSLATEST("Latest contributions as GeoJSON features.", "");
@@ -0,0 +1,37 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.heigit.bigspatialdata.oshdb.util.OSHDBTimestamp;
+import org.heigit.bigspatialdata.oshdb.util.time.TimestampFormatter;
+
+/**
+ * Request-scoped cache of the ISO-8601 representation of timestamps, which formats each distinct
+ * timestamp only once. It is meant for timestamps, which repeat across many features of a
+ * data-extraction request, like the snapshot timestamps. At most {@link #MAX_SIZE} timestamps are
+ * cached, further timestamps are formatted on each call.
+ *
+ * <p>
+ * The cache is thread-safe and serializable, so that it can be used in the mappers of the OSHDB
+ * backends, which get their own copy of it.
+ */
+public class TimestampFormatCache implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+  static final int MAX_SIZE = 1024;
+  private final ConcurrentMap<Long, String> formattedTimestamps = new ConcurrentHashMap<>();
+
+  /** Gives the ISO-8601 representation of the given timestamp, as formatted by the OSHDB. */
+  public String isoDateTime(OSHDBTimestamp timestamp) {
+    Long key = timestamp.getRawUnixTimestamp();
+    String formatted = formattedTimestamps.get(key);
+    if (formatted == null) {
+      formatted = TimestampFormatter.getInstance().isoDateTime(timestamp);
+      if (formattedTimestamps.size() < MAX_SIZE) {
+        formattedTimestamps.putIfAbsent(key, formatted);
+      }
+    }
+    return formatted;
+  }
+}
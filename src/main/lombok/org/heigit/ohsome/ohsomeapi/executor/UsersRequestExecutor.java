@@ -1,23 +1,21 @@
 package org.heigit.ohsome.ohsomeapi.executor;
 
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.heigit.bigspatialdata.oshdb.api.generic.OSHDBCombinedIndex;
 import org.heigit.bigspatialdata.oshdb.api.generic.function.SerializableFunction;
-import org.heigit.bigspatialdata.oshdb.api.mapreducer.MapAggregator;
 import org.heigit.bigspatialdata.oshdb.api.mapreducer.MapReducer;
 import org.heigit.bigspatialdata.oshdb.api.object.OSMContribution;
 import org.heigit.bigspatialdata.oshdb.osm.OSMType;
@@ -42,14 +40,12 @@ import org.heigit.ohsome.ohsomeapi.output.groupby.GroupByResponse;
 import org.heigit.ohsome.ohsomeapi.output.groupby.GroupByResult;
 import org.heigit.ohsome.ohsomeapi.utils.GroupByBoundaryGeoJsonGenerator;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.geom.Polygonal;
 
 /** Includes the execute methods for requests mapped to /users. */
 public class UsersRequestExecutor {
 
-  private static final String URL = ExtractMetadata.attributionUrl;
-  private static final String TEXT = ExtractMetadata.attributionShort;
-  public static final DecimalFormat df = ExecutionUtils.defineDecimalFormat("#.##");
+  private static final String URL = ExtractMetadata.getAttributionUrl();
+  private static final String TEXT = ExtractMetadata.getAttributionShort();
 
   private UsersRequestExecutor() {
     throw new IllegalStateException("Utility class");
@@ -60,16 +56,17 @@ public class UsersRequestExecutor {
       HttpServletResponse servletResponse, boolean isDensity) throws Exception {
     long startTime = System.currentTimeMillis();
     SortedMap<OSHDBTimestamp, Integer> result;
-    MapReducer<OSMContribution> mapRed = null;
     InputProcessor inputProcessor = new InputProcessor(servletRequest, false, isDensity);
-    mapRed = inputProcessor.processParameters();
+    final MapReducer<OSMContribution> mapRed = inputProcessor.processParameters();
     ProcessingData processingData = inputProcessor.getProcessingData();
     RequestParameters requestParameters = processingData.getRequestParameters();
-    result = mapRed.aggregateByTimestamp().map(OSMContribution::getContributorUserId).countUniq();
+    result = AggregationResultCache.getOrCompute("users/count", inputProcessor,
+        () -> mapRed.aggregateByTimestamp().map(OSMContribution::getContributorUserId)
+            .countUniq());
     ExecutionUtils exeUtils = new ExecutionUtils(processingData);
-    Geometry geom = inputProcessor.getGeometry();
+    double area = processingData.getRequestGeomArea();
     UsersResult[] results =
-        exeUtils.fillUsersResult(result, requestParameters.isDensity(), inputProcessor, df, geom);
+        exeUtils.fillUsersResult(result, requestParameters.isDensity(), inputProcessor, area);
     Metadata metadata = null;
     if (processingData.isShowMetadata()) {
       long duration = System.currentTimeMillis() - startTime;
@@ -105,10 +102,10 @@ public class UsersRequestExecutor {
     GroupByResult[] resultSet = new GroupByResult[groupByResult.size()];
     int count = 0;
     ExecutionUtils exeUtils = new ExecutionUtils(processingData);
-    Geometry geom = inputProcessor.getGeometry();
+    double area = processingData.getRequestGeomArea();
     for (Entry<OSMType, SortedMap<OSHDBTimestamp, Integer>> entry : groupByResult.entrySet()) {
       UsersResult[] results = exeUtils.fillUsersResult(entry.getValue(),
-          requestParameters.isDensity(), inputProcessor, df, geom);
+          requestParameters.isDensity(), inputProcessor, area);
       resultSet[count] = new GroupByResult(entry.getKey().toString(), results);
       count++;
     }
@@ -183,7 +180,7 @@ public class UsersRequestExecutor {
       return res;
     }).aggregateByTimestamp().aggregateBy(Pair::getKey, zeroFill).map(Pair::getValue)
         .map(OSMContribution::getContributorUserId).countUniq();
-    Geometry geom = inputProcessor.getGeometry();
+    double area = processingData.getRequestGeomArea();
     SortedMap<Pair<Integer, Integer>, SortedMap<OSHDBTimestamp, Integer>> groupByResult;
     groupByResult = ExecutionUtils.nest(result);
     GroupByResult[] resultSet = new GroupByResult[groupByResult.size()];
@@ -192,7 +189,7 @@ public class UsersRequestExecutor {
     for (Entry<Pair<Integer, Integer>, SortedMap<OSHDBTimestamp, Integer>> entry : groupByResult
         .entrySet()) {
       UsersResult[] results = exeUtils.fillUsersResult(entry.getValue(),
-          requestParameters.isDensity(), inputProcessor, df, geom);
+          requestParameters.isDensity(), inputProcessor, area);
       if (entry.getKey().getKey() == -2 && entry.getKey().getValue() == -2) {
         groupByName = "total";
       } else if (entry.getKey().getKey() == -1 && entry.getKey().getValue() == -1) {
@@ -261,7 +258,7 @@ public class UsersRequestExecutor {
       return res;
     }).aggregateByTimestamp().aggregateBy(Pair::getKey, Arrays.asList(keysInt)).map(Pair::getValue)
         .map(OSMContribution::getContributorUserId).countUniq();
-    Geometry geom = inputProcessor.getGeometry();
+    double area = processingData.getRequestGeomArea();
     SortedMap<Integer, SortedMap<OSHDBTimestamp, Integer>> groupByResult;
     groupByResult = ExecutionUtils.nest(result);
     GroupByResult[] resultSet = new GroupByResult[groupByResult.size()];
@@ -269,7 +266,7 @@ public class UsersRequestExecutor {
     int count = 0;
     for (Entry<Integer, SortedMap<OSHDBTimestamp, Integer>> entry : groupByResult.entrySet()) {
       UsersResult[] results = exeUtils.fillUsersResult(entry.getValue(),
-          requestParameters.isDensity(), inputProcessor, df, geom);
+          requestParameters.isDensity(), inputProcessor, area);
       if (entry.getKey() == -2) {
         groupByName = "total";
       } else if (entry.getKey() == -1) {
@@ -296,7 +293,7 @@ public class UsersRequestExecutor {
   }
 
   /** Performs a count calculation grouped by the boundary. */
-  public static <P extends Geometry & Polygonal> Response countGroupByBoundary(
+  public static Response countGroupByBoundary(
       HttpServletRequest servletRequest, HttpServletResponse servletResponse, boolean isDensity)
       throws Exception {
     long startTime = System.currentTimeMillis();
@@ -307,20 +304,25 @@ public class UsersRequestExecutor {
     ProcessingData processingData = inputProcessor.getProcessingData();
     RequestParameters requestParameters = processingData.getRequestParameters();
     List<Geometry> arrGeoms = processingData.getBoundaryList();
-    @SuppressWarnings("unchecked") // intentionally as check for P on Polygonal is already performed
-    Map<Integer, P> geoms = IntStream.range(0, arrGeoms.size()).boxed()
-        .collect(Collectors.toMap(idx -> idx, idx -> (P) arrGeoms.get(idx)));
-    MapAggregator<OSHDBCombinedIndex<OSHDBTimestamp, Integer>, OSMContribution> mapAgg =
-        mapRed.aggregateByTimestamp().aggregateByGeometry(geoms);
     if (processingData.isContainingSimpleFeatureTypes()) {
-      mapAgg = inputProcessor.filterOnSimpleFeatures(mapAgg);
+      mapRed = inputProcessor.filterOnSimpleFeatures(mapRed);
     }
     Optional<FilterExpression> filter = processingData.getFilterExpression();
     if (filter.isPresent()) {
-      mapAgg = mapAgg.filter(filter.get());
+      mapRed = mapRed.filter(filter.get());
     }
-    SortedMap<OSHDBCombinedIndex<OSHDBTimestamp, Integer>, Integer> result =
-        mapAgg.map(OSMContribution::getContributorUserId).countUniq();
+    BoundarySplitter splitter = new BoundarySplitter(arrGeoms);
+    SortedMap<OSHDBCombinedIndex<OSHDBTimestamp, Integer>, Integer> result = mapRed
+        .flatMap(contribution -> {
+          // a contribution counts for every boundary its geometry intersects before or after
+          Set<Integer> indices = new TreeSet<>(splitter.intersecting(
+              contribution.getGeometryBefore()));
+          indices.addAll(splitter.intersecting(contribution.getGeometryAfter()));
+          return indices.stream().map(index -> new ImmutablePair<>(index, contribution))
+              .collect(Collectors.toList());
+        })
+        .aggregateByTimestamp().aggregateBy(Pair::getKey, splitter.getBoundaryIndices())
+        .map(Pair::getValue).map(OSMContribution::getContributorUserId).countUniq();
     SortedMap<Integer, SortedMap<OSHDBTimestamp, Integer>> groupByResult;
     groupByResult = ExecutionUtils.nest(result);
     GroupByResult[] resultSet = new GroupByResult[groupByResult.size()];
@@ -330,7 +332,7 @@ public class UsersRequestExecutor {
     Object[] boundaryIds = utils.getBoundaryIds();
     for (Entry<Integer, SortedMap<OSHDBTimestamp, Integer>> entry : groupByResult.entrySet()) {
       UsersResult[] results = exeUtils.fillUsersResult(entry.getValue(),
-          requestParameters.isDensity(), inputProcessor, df, arrGeoms.get(count));
+          requestParameters.isDensity(), inputProcessor, processingData.getBoundaryArea(count));
       resultSet[count] = new GroupByResult(boundaryIds[count], results);
       count++;
     }
@@ -9,6 +9,7 @@ import javax.servlet.http.HttpServletResponseWrapper;
 import org.heigit.ohsome.ohsomeapi.utils.RequestUtils;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -23,8 +24,6 @@ public class RequestFilter extends OncePerRequestFilter {
 
   /**
    * @throws IOException thrown by
-   *         {@link org.heigit.ohsome.ohsomeapi.utils.RequestUtils#extractOSHDBMetadata()
-   *         extractOSHDBMetadata}, and
    *         {@link javax.servlet.ServletRequest#setCharacterEncoding(String) setCharacterEncoding}
    * @throws ServletException thrown by
    *         {@link javax.servlet.FilterChain#doFilter(javax.servlet.ServletRequest, javax.servlet.ServletResponse)
@@ -47,7 +46,13 @@ public class RequestFilter extends OncePerRequestFilter {
     String requestUrl = request.getRequestURL().toString();
     if (RequestUtils.isDataExtraction(requestUrl)
         || RequestUtils.isContributionsExtraction(requestUrl)) {
-      response.setHeader("Content-disposition", "attachment;filename=ohsome.geojson");
+      if (RequestUtils.usesFlatGeobufFormat(request)) {
+        response.setHeader("Content-disposition", "attachment;filename=ohsome.fgb");
+      } else if (RequestUtils.usesGeoJsonSeqFormat(request)) {
+        response.setHeader("Content-disposition", "attachment;filename=ohsome.geojsonseq");
+      } else {
+        response.setHeader("Content-disposition", "attachment;filename=ohsome.geojson");
+      }
     }
     if (RequestUtils.usesCsvFormat(request)) {
       response.setHeader("Content-disposition", "attachment;filename=ohsome.csv");
@@ -65,6 +70,11 @@ public class RequestFilter extends OncePerRequestFilter {
 
       @Override
       public void setHeader(String name, String value) {
+        if (HttpHeaders.RETRY_AFTER.equalsIgnoreCase(name)) {
+          // set by the admission control of rejected requests
+          super.setHeader(name, value);
+          return;
+        }
         if (status != 200 || cacheNotAllowed) {
           super.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
         } else {
@@ -77,7 +87,15 @@ public class RequestFilter extends OncePerRequestFilter {
         setHeader(name, value);
       }
     };
-    RequestUtils.extractOSHDBMetadata();
     filterChain.doFilter(request, wrapper);
   }
+
+  /**
+   * Also filters the dispatch, which writes the result of an asynchronously processed request, as
+   * the response headers are only set via the wrapped response.
+   */
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
 }
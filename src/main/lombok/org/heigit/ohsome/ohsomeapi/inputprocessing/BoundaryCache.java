@@ -0,0 +1,191 @@
+package org.heigit.ohsome.ohsomeapi.inputprocessing;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.Getter;
+import org.heigit.bigspatialdata.oshdb.util.geometry.Geo;
+import org.heigit.ohsome.ohsomeapi.utils.GeoJsonBoundaries;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Server-side cache for the boundaries built out of the boundary parameters. The entries are
+ * stored under a hash of the boundary type and the raw parameter value, so that clients sending
+ * the same (possibly large) bpolys GeoJSON again don't need to have it parsed and unified again.
+ * An entry holds the unified geometry, the list of the single boundaries, the boundary ids and the
+ * GeoJSON representation of the boundaries, which is converted lazily for geojson responses. The
+ * weight of an entry is the number of coordinates of its geometries.
+ *
+ * <p>
+ * The cached geometries are shared by all requests using the same boundary and must not be
+ * modified. Entries, which were validated against a previous data-extract, are not used anymore.
+ */
+@Component
+public class BoundaryCache {
+
+  private final long maxPoints;
+  private Cache<String, CachedBoundary> cache;
+
+  public BoundaryCache(@Value("${ohsome.boundary-cache.max-points:5000000}") long maxPoints) {
+    this.maxPoints = maxPoints;
+  }
+
+  /** Creates the cache and makes it available via ProcessingData. */
+  @PostConstruct
+  public void init() {
+    cache = CacheBuilder.newBuilder().maximumWeight(maxPoints)
+        .weigher((String key, CachedBoundary value) -> value.getNumberOfPoints()).build();
+    ProcessingData.setBoundaryCache(this);
+  }
+
+  /** Removes all entries and makes this cache unavailable. */
+  @PreDestroy
+  public void close() {
+    if (ProcessingData.getBoundaryCache() == this) {
+      ProcessingData.setBoundaryCache(null);
+    }
+    cache.invalidateAll();
+  }
+
+  /**
+   * Gives the boundary of the given parameter value from the cache, or builds and caches it, if
+   * there is none. The boundary list, the request geometry and the raw GeoJSON geometries of the
+   * processing data, as well as the boundary ids of the utils, are set in both cases.
+   *
+   * @param boundaryType type of the boundary parameter
+   * @param boundaryParameter raw value of the boundary parameter
+   * @param inputProcessor the <code>InputProcessor</code> of the request
+   * @param builder builds the boundary, if it is not cached yet
+   * @return the unified boundary
+   */
+  public static CachedBoundary getOrBuild(BoundaryType boundaryType, String boundaryParameter,
+      InputProcessor inputProcessor, Supplier<Geometry> builder) {
+    BoundaryCache boundaryCache = ProcessingData.getBoundaryCache();
+    if (boundaryCache == null || boundaryCache.maxPoints <= 0) {
+      return build(inputProcessor, builder);
+    }
+    return boundaryCache.get(boundaryType, boundaryParameter, inputProcessor, builder);
+  }
+
+  private CachedBoundary get(BoundaryType boundaryType, String boundaryParameter,
+      InputProcessor inputProcessor, Supplier<Geometry> builder) {
+    String key = createKey(boundaryType, boundaryParameter);
+    CachedBoundary cachedBoundary = cache.getIfPresent(key);
+    if (cachedBoundary == null
+        || cachedBoundary.getDataPoly() != inputProcessor.getUtils().getDataPoly()) {
+      // the check, whether the boundary is within the data-extract, is done by the builder
+      cachedBoundary = build(inputProcessor, builder);
+      cache.put(key, cachedBoundary);
+      return cachedBoundary;
+    }
+    ProcessingData processingData = inputProcessor.getProcessingData();
+    processingData.setBoundaryList(cachedBoundary.getBoundaryList());
+    processingData.setRequestGeom(cachedBoundary.getRequestGeom());
+    processingData.setRawGeoJsonGeoms(cachedBoundary.getRawGeoJsonGeoms());
+    Object[] boundaryIds = cachedBoundary.getBoundaryIds();
+    if (boundaryIds != null) {
+      if ("csv".equalsIgnoreCase(processingData.getFormat())) {
+        // the ids of a GeoJSON boundary are only checked, if they are used in a csv response
+        for (Object boundaryId : boundaryIds) {
+          if (boundaryId instanceof String) {
+            inputProcessor.getUtils().checkCustomBoundaryId((String) boundaryId);
+          }
+        }
+      }
+      inputProcessor.getUtils().setBoundaryIds(boundaryIds.clone());
+    }
+    return cachedBoundary;
+  }
+
+  private static CachedBoundary build(InputProcessor inputProcessor, Supplier<Geometry> builder) {
+    Geometry boundary = builder.get();
+    ProcessingData processingData = inputProcessor.getProcessingData();
+    List<Geometry> boundaryList = processingData.getBoundaryList();
+    Object[] boundaryIds = inputProcessor.getUtils().getBoundaryIds();
+    return new CachedBoundary(boundary,
+        boundaryList != null ? Collections.unmodifiableList(boundaryList) : null,
+        processingData.getRequestGeom(), boundaryIds != null ? boundaryIds.clone() : null,
+        inputProcessor.getUtils().getDataPoly(), processingData.getRawGeoJsonGeoms());
+  }
+
+  private static String createKey(BoundaryType boundaryType, String boundaryParameter) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(boundaryType.toString().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      digest.update(boundaryParameter.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      // every java platform has to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Boundary built out of one boundary parameter value. */
+  @Getter
+  public static class CachedBoundary {
+
+    private final Geometry boundary;
+    private final List<Geometry> boundaryList;
+    private final Geometry requestGeom;
+    private final Object[] boundaryIds;
+    private final Geometry dataPoly;
+    /** Raw JSON text of the geometries of a GeoJSON boundary parameter, as read by the builder. */
+    private final String[] rawGeoJsonGeoms;
+    /** GeoJSON representation of the boundaries, shared by the geojson responses. */
+    private final GeoJsonBoundaries geoJsonGeoms;
+    private volatile double requestGeomArea = Double.NaN;
+    private volatile double[] boundaryAreas;
+
+    CachedBoundary(Geometry boundary, List<Geometry> boundaryList, Geometry requestGeom,
+        Object[] boundaryIds, Geometry dataPoly, String[] rawGeoJsonGeoms) {
+      this.boundary = boundary;
+      this.boundaryList = boundaryList;
+      this.requestGeom = requestGeom;
+      this.boundaryIds = boundaryIds;
+      this.dataPoly = dataPoly;
+      this.rawGeoJsonGeoms = rawGeoJsonGeoms;
+      this.geoJsonGeoms =
+          boundaryList != null ? new GeoJsonBoundaries(boundaryList, rawGeoJsonGeoms) : null;
+    }
+
+    /** Gives the area of the request geometry in square meters, which is computed only once. */
+    public double getRequestGeomArea() {
+      if (Double.isNaN(requestGeomArea)) {
+        requestGeomArea = Geo.areaOf(requestGeom);
+      }
+      return requestGeomArea;
+    }
+
+    /**
+     * Gives the areas of the boundaries in square meters, which are computed only once. The
+     * returned array is shared and must not be modified.
+     */
+    public double[] getBoundaryAreas() {
+      if (boundaryAreas == null && boundaryList != null) {
+        boundaryAreas = boundaryList.stream().mapToDouble(Geo::areaOf).toArray();
+      }
+      return boundaryAreas;
+    }
+
+    int getNumberOfPoints() {
+      long points = boundary.getNumPoints();
+      if (boundaryList != null) {
+        for (Geometry geometry : boundaryList) {
+          points += geometry.getNumPoints();
+        }
+      }
+      return (int) Math.min(Integer.MAX_VALUE, points);
+    }
+  }
+}
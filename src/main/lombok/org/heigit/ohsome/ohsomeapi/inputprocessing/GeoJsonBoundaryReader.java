@@ -0,0 +1,261 @@
+package org.heigit.ohsome.ohsomeapi.inputprocessing;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.heigit.ohsome.ohsomeapi.exception.BadRequestException;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Reads the features of a GeoJSON FeatureCollection, as given in the bpolys parameter, in a single
+ * pass with a streaming Jackson parser. For each feature, its custom id and the type and the
+ * coordinates of its geometry are read, as well as the raw JSON text of the geometry, which is only
+ * parsed again for geojson responses. The JTS geometries are built afterwards, in parallel for
+ * collections of at least {@link #PARALLEL_THRESHOLD} features.
+ */
+class GeoJsonBoundaryReader {
+
+  /** Number of features, from which on the geometries are built in parallel. */
+  static final int PARALLEL_THRESHOLD = 64;
+  private static final JsonFactory jsonFactory = new JsonFactory();
+  /** Marks an id, which is neither a string nor a number. */
+  private static final Object INVALID_ID = new Object();
+  private static final GeometryFactory geometryFactory = new GeometryFactory();
+
+  private final String geoJson;
+  private final List<BoundaryFeature> features = new ArrayList<>();
+
+  private GeoJsonBoundaryReader(String geoJson) {
+    this.geoJson = geoJson;
+  }
+
+  /**
+   * Reads the features of the given GeoJSON FeatureCollection.
+   *
+   * @throws BadRequestException if the given GeoJSON cannot be read, it is not of the type
+   *         'FeatureCollection', or if the custom id of a feature is neither a string nor a number
+   */
+  static List<BoundaryFeature> read(String geoJson) {
+    GeoJsonBoundaryReader reader = new GeoJsonBoundaryReader(geoJson);
+    boolean isFeatureCollection;
+    try (JsonParser parser = jsonFactory.createParser(geoJson)) {
+      isFeatureCollection = reader.readRoot(parser);
+    } catch (IOException e) {
+      throw new BadRequestException("Error in reading of the given GeoJSON.");
+    }
+    if (!isFeatureCollection) {
+      throw new BadRequestException("The given GeoJSON has to be of the type 'FeatureCollection'.");
+    }
+    return reader.features;
+  }
+
+  /**
+   * Builds the JTS geometries of the given features, in parallel if there are many of them.
+   *
+   * @throws BadRequestException if the geometry of a feature is not of the type 'Polygon' or
+   *         'MultiPolygon', or if it cannot be converted
+   */
+  static Geometry[] buildGeometries(List<BoundaryFeature> features) {
+    for (BoundaryFeature feature : features) {
+      if (!"Polygon".equals(feature.geometryType)
+          && !"MultiPolygon".equals(feature.geometryType)) {
+        throw new BadRequestException(
+            "The geometry of each feature in the GeoJSON has to be of type 'Polygon' "
+                + "or 'MultiPolygon'.");
+      }
+    }
+    IntStream indices = IntStream.range(0, features.size());
+    if (features.size() >= PARALLEL_THRESHOLD) {
+      indices = indices.parallel();
+    }
+    return indices.mapToObj(i -> features.get(i).buildGeometry()).toArray(Geometry[]::new);
+  }
+
+  /** Reads the root object and gives whether it is of the type 'FeatureCollection'. */
+  private boolean readRoot(JsonParser parser) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new BadRequestException("Error in reading of the given GeoJSON.");
+    }
+    String type = null;
+    boolean hasFeatures = false;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      if ("type".equals(fieldName) && token == JsonToken.VALUE_STRING) {
+        type = parser.getText();
+      } else if ("features".equals(fieldName)) {
+        if (token != JsonToken.START_ARRAY) {
+          throw new BadRequestException("Error in reading of the given GeoJSON.");
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          features.add(readFeature(parser));
+        }
+        hasFeatures = true;
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (parser.nextToken() != null) {
+      throw new BadRequestException("Error in reading of the given GeoJSON.");
+    }
+    if (!"FeatureCollection".equals(type)) {
+      return false;
+    }
+    if (!hasFeatures) {
+      throw new BadRequestException("Error in reading of the given GeoJSON.");
+    }
+    return true;
+  }
+
+  private BoundaryFeature readFeature(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      throw new BadRequestException("Error in reading of the given GeoJSON.");
+    }
+    BoundaryFeature feature = new BoundaryFeature();
+    Object propertiesId = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      if ("id".equals(fieldName)) {
+        feature.id = readId(parser);
+      } else if ("properties".equals(fieldName) && token == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String propertyName = parser.getCurrentName();
+          parser.nextToken();
+          if ("id".equals(propertyName)) {
+            propertiesId = readId(parser);
+          } else {
+            parser.skipChildren();
+          }
+        }
+      } else if ("geometry".equals(fieldName) && token == JsonToken.START_OBJECT) {
+        readGeometry(parser, feature);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (feature.id == null) {
+      // the id of the feature takes precedence over the id in its properties
+      feature.id = propertiesId;
+    }
+    if (feature.id == INVALID_ID) {
+      throw new BadRequestException("The provided custom id(s) could not be parsed.");
+    }
+    return feature;
+  }
+
+  /** Reads a custom id, which is either a string or a number, the latter given as integer. */
+  private static Object readId(JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return parser.getNumberValue().intValue();
+      default:
+        parser.skipChildren();
+        return INVALID_ID;
+    }
+  }
+
+  private void readGeometry(JsonParser parser, BoundaryFeature feature) throws IOException {
+    int start = (int) parser.getTokenLocation().getCharOffset();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      if ("type".equals(fieldName) && token == JsonToken.VALUE_STRING) {
+        feature.geometryType = parser.getText();
+      } else if ("coordinates".equals(fieldName) && token == JsonToken.START_ARRAY) {
+        feature.coordinates = readCoordinates(parser);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    int end = (int) parser.getCurrentLocation().getCharOffset();
+    feature.rawGeometry = geoJson.substring(start, end);
+  }
+
+  /**
+   * Reads a (nested) coordinates array. A position is read as <code>Coordinate</code>, any other
+   * array as <code>List</code> of its elements.
+   */
+  private static Object readCoordinates(JsonParser parser) throws IOException {
+    JsonToken token = parser.nextToken();
+    if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+      double x = parser.getDoubleValue();
+      if (!parser.nextToken().isNumeric()) {
+        throw new BadRequestException("The provided GeoJSON cannot be converted.");
+      }
+      double y = parser.getDoubleValue();
+      // a third value (altitude) is ignored, like any further values
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        parser.skipChildren();
+      }
+      return new Coordinate(x, y);
+    }
+    List<Object> elements = new ArrayList<>();
+    for (; token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+      if (token != JsonToken.START_ARRAY) {
+        throw new BadRequestException("The provided GeoJSON cannot be converted.");
+      }
+      elements.add(readCoordinates(parser));
+    }
+    return elements;
+  }
+
+  /** Feature of a GeoJSON FeatureCollection, as read by the {@link GeoJsonBoundaryReader}. */
+  static class BoundaryFeature {
+
+    /** Custom id of the feature as <code>String</code> or <code>Integer</code>, or null. */
+    private Object id;
+    private String geometryType;
+    private Object coordinates;
+    private String rawGeometry;
+
+    Object getId() {
+      return id;
+    }
+
+    /** Gives the JSON text of the geometry, as it was given in the FeatureCollection. */
+    String getRawGeometry() {
+      return rawGeometry;
+    }
+
+    private Geometry buildGeometry() {
+      try {
+        if ("Polygon".equals(geometryType)) {
+          return buildPolygon((List<?>) coordinates);
+        }
+        List<?> polygons = (List<?>) coordinates;
+        Polygon[] parts = new Polygon[polygons.size()];
+        for (int i = 0; i < parts.length; i++) {
+          parts[i] = buildPolygon((List<?>) polygons.get(i));
+        }
+        return geometryFactory.createMultiPolygon(parts);
+      } catch (RuntimeException e) {
+        // e.g. wrongly nested coordinates or rings which are not closed
+        throw new BadRequestException("The provided GeoJSON cannot be converted.");
+      }
+    }
+
+    private static Polygon buildPolygon(List<?> rings) {
+      LinearRing[] linearRings = new LinearRing[rings.size()];
+      for (int i = 0; i < linearRings.length; i++) {
+        List<?> positions = (List<?>) rings.get(i);
+        linearRings[i] =
+            geometryFactory.createLinearRing(positions.toArray(new Coordinate[positions.size()]));
+      }
+      LinearRing[] holes = new LinearRing[linearRings.length - 1];
+      System.arraycopy(linearRings, 1, holes, 0, holes.length);
+      return geometryFactory.createPolygon(linearRings[0], holes);
+    }
+  }
+}
@@ -1,17 +1,13 @@
 package org.heigit.ohsome.ohsomeapi.inputprocessing;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
-import javax.json.Json;
-import javax.json.JsonArray;
-import javax.json.JsonObject;
-import javax.json.JsonReader;
-import javax.json.JsonValue;
 import lombok.RequiredArgsConstructor;
-import org.geojson.GeoJsonObject;
 import org.geotools.geometry.jts.JTS;
 import org.geotools.referencing.CRS;
 import org.heigit.bigspatialdata.oshdb.util.OSHDBBoundingBox;
@@ -19,6 +15,7 @@ import org.heigit.bigspatialdata.oshdb.util.geometry.OSHDBGeometryBuilder;
 import org.heigit.ohsome.ohsomeapi.exception.BadRequestException;
 import org.heigit.ohsome.ohsomeapi.exception.ExceptionMessages;
 import org.heigit.ohsome.ohsomeapi.exception.NotFoundException;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.GeoJsonBoundaryReader.BoundaryFeature;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -38,6 +35,9 @@ import org.wololo.jts2geojson.GeoJSONReader;
 @RequiredArgsConstructor
 public class GeometryBuilder {
 
+  /** Transforms into and out of the UTM zones, per EPSG code of the zone. */
+  private static final Map<String, MathTransform[]> UTM_TRANSFORMS = new ConcurrentHashMap<>();
+
   GeometryFactory gf;
   private final ProcessingData processingData;
 
@@ -102,23 +102,16 @@ public class GeometryBuilder {
     GeometryFactory geomFact = new GeometryFactory();
     Geometry buffer;
     Geometry geom;
-    CoordinateReferenceSystem sourceCrs;
-    CoordinateReferenceSystem targetCrs;
-    MathTransform transform = null;
     ArrayList<Geometry> geometryList = new ArrayList<>();
-    InputProcessingUtils utils = new InputProcessingUtils();
+    InputProcessingUtils utils = new InputProcessingUtils(processingData.getExtractMetadata());
     try {
       for (int i = 0; i < bpoints.length; i += 3) {
-        sourceCrs = CRS.decode("EPSG:4326", true);
-        targetCrs = CRS.decode(
-            utils.findEpsg(Double.parseDouble(bpoints[i]), Double.parseDouble(bpoints[i + 1])),
-            true);
-        transform = CRS.findMathTransform(sourceCrs, targetCrs, false);
-        Point p = geomFact.createPoint(
-            new Coordinate(Double.parseDouble(bpoints[i]), Double.parseDouble(bpoints[i + 1])));
-        buffer = JTS.transform(p, transform).buffer(Double.parseDouble(bpoints[i + 2]));
-        transform = CRS.findMathTransform(targetCrs, sourceCrs, false);
-        geom = JTS.transform(buffer, transform);
+        double lon = Double.parseDouble(bpoints[i]);
+        double lat = Double.parseDouble(bpoints[i + 1]);
+        MathTransform[] transforms = findUtmTransforms(utils.findEpsg(lon, lat));
+        Point p = geomFact.createPoint(new Coordinate(lon, lat));
+        buffer = JTS.transform(p, transforms[0]).buffer(Double.parseDouble(bpoints[i + 2]));
+        geom = JTS.transform(buffer, transforms[1]);
         if (bpoints.length == 3) {
           geometryList.add(geom);
           processingData.setBoundaryList(geometryList);
@@ -138,6 +131,26 @@ public class GeometryBuilder {
     }
   }
 
+  /**
+   * Gives the transforms from WGS 84 into the given UTM (or UPS) zone at [0] and back at [1]. They
+   * are resolved via the EPSG database only once per zone, as there are only 122 different zones
+   * returned by {@link InputProcessingUtils#findEpsg(double, double) findEpsg}.
+   *
+   * @throws FactoryException if the given code or the transforms cannot be resolved
+   */
+  private static MathTransform[] findUtmTransforms(String epsgCode) throws FactoryException {
+    MathTransform[] transforms = UTM_TRANSFORMS.get(epsgCode);
+    if (transforms == null) {
+      CoordinateReferenceSystem sourceCrs = CRS.decode("EPSG:4326", true);
+      CoordinateReferenceSystem targetCrs = CRS.decode(epsgCode, true);
+      transforms = new MathTransform[] {CRS.findMathTransform(sourceCrs, targetCrs, false),
+          CRS.findMathTransform(targetCrs, sourceCrs, false)};
+      // the transforms are immutable, so a concurrently resolved duplicate can just be dropped
+      UTM_TRANSFORMS.putIfAbsent(epsgCode, transforms);
+    }
+    return transforms;
+  }
+
   /**
    * Creates a <code>Polygon</code> out of the coordinates in the given array. If more polygons are
    * given, a union of the polygons is applied and a <code>MultiPolygon</code> is created.
@@ -202,12 +215,13 @@ public class GeometryBuilder {
   /**
    * Creates a Geometry object from the given GeoJSON String, which is derived from the metadata.
    * 
+   * @return <code>Geometry</code> object of the data-extract
    * @throws RuntimeException if the derived GeoJSON cannot be converted to a Geometry
    */
-  public void createGeometryFromMetadataGeoJson(String geoJson) {
+  public Geometry createGeometryFromMetadataGeoJson(String geoJson) {
     GeoJSONReader reader = new GeoJSONReader();
     try {
-      ProcessingData.setDataPolyGeom(reader.read(geoJson));
+      return reader.read(geoJson);
     } catch (Exception e) {
       throw new RuntimeException("The GeoJSON that is derived out of the metadata, cannot be "
           + "converted. Please use a different data file and contact an admin about this issue.");
@@ -216,58 +230,33 @@ public class GeometryBuilder {
 
   /**
    * Creates a Geometry object from the given GeoJSON String. It must be of type 'FeatureCollection'
-   * and its features must be of type 'Polygon' or 'Multipolygon'.
+   * and its features must be of type 'Polygon' or 'Multipolygon'. The GeoJSON is read in a single
+   * pass by a {@link GeoJsonBoundaryReader}, which keeps the raw JSON text of the geometries for a
+   * geojson response.
    * 
    * @throws BadRequestException if the given GeoJSON String cannot be converted to a Geometry, it
    *         is not of the type 'FeatureCollection', or if the provided custom id(s) cannot be
    *         parsed
    */
   public Geometry createGeometryFromGeoJson(String geoJson, InputProcessor inputProcessor) {
-    ArrayList<Geometry> geometryList = new ArrayList<>();
-    JsonObject root = null;
-    try (JsonReader jsonReader = Json.createReader(new StringReader(geoJson))) {
-      root = jsonReader.readObject();
-    } catch (Exception e) {
-      throw new BadRequestException("Error in reading of the given GeoJSON.");
-    }
-    if (!"FeatureCollection".equals(root.getString("type"))) {
-      throw new BadRequestException("The given GeoJSON has to be of the type 'FeatureCollection'.");
-    }
-    JsonArray features = root.getJsonArray("features");
+    List<BoundaryFeature> features = GeoJsonBoundaryReader.read(geoJson);
     Object[] boundaryIds = new Object[features.size()];
-    GeoJsonObject[] geoJsonGeoms = new GeoJsonObject[features.size()];
-    int count = 0;
-    for (JsonValue featureVal : features) {
-      JsonObject feature = featureVal.asJsonObject();
-      JsonObject properties = feature.getJsonObject("properties");
-      try {
-        if (feature.containsKey("id")) {
-          boundaryIds[count] = createBoundaryIdFromJsonObjectId(feature, inputProcessor);
-        } else if (properties != null && properties.containsKey("id")) {
-          boundaryIds[count] = createBoundaryIdFromJsonObjectId(properties, inputProcessor);
-        } else {
-          boundaryIds[count] = "feature" + (count + 1);
-        }
-        count++;
-      } catch (BadRequestException e) {
-        throw e;
-      } catch (Exception e) {
-        throw new BadRequestException("The provided custom id(s) could not be parsed.");
-      }
-      JsonObject geomObj = feature.getJsonObject("geometry");
-      checkGeometryTypeOfFeature(geomObj);
-      try {
-        GeoJSONReader reader = new GeoJSONReader();
-        Geometry currentResult = reader.read(geomObj.toString());
-        geometryList.add(currentResult);
-        geoJsonGeoms[count - 1] =
-            new ObjectMapper().readValue(geomObj.toString(), GeoJsonObject.class);
-      } catch (Exception e) {
-        throw new BadRequestException("The provided GeoJSON cannot be converted.");
+    String[] rawGeoJsonGeoms = new String[features.size()];
+    boolean isCsv = "csv".equalsIgnoreCase(processingData.getFormat());
+    for (int i = 0; i < boundaryIds.length; i++) {
+      BoundaryFeature feature = features.get(i);
+      Object id = feature.getId();
+      if (id == null) {
+        id = "feature" + (i + 1);
+      } else if (id instanceof String && isCsv) {
+        inputProcessor.getUtils().checkCustomBoundaryId((String) id);
       }
+      boundaryIds[i] = id;
+      rawGeoJsonGeoms[i] = feature.getRawGeometry();
     }
+    List<Geometry> geometryList = Arrays.asList(GeoJsonBoundaryReader.buildGeometries(features));
     Geometry result = unifyPolys(geometryList);
-    processingData.setGeoJsonGeoms(geoJsonGeoms);
+    processingData.setRawGeoJsonGeoms(rawGeoJsonGeoms);
     processingData.setBoundaryList(geometryList);
     processingData.setRequestGeom(result);
     InputProcessingUtils util = inputProcessor.getUtils();
@@ -301,53 +290,13 @@ public class GeometryBuilder {
     MultiPolygon mp = geometryFactory.createMultiPolygon(polys);
     // merge all input geometries to single (multi) polygon
     Geometry result = mp.union();
-    InputProcessingUtils utils = new InputProcessingUtils();
+    InputProcessingUtils utils = new InputProcessingUtils(processingData.getExtractMetadata());
     if (!utils.isWithin(result)) {
       throw new NotFoundException(ExceptionMessages.BOUNDARY_NOT_IN_DATA_EXTRACT);
     }
     return result;
   }
 
-  /**
-   * Creates a boundary ID value from the 'id' field in the given <code>JsonObject</code>.
-   * 
-   * @param jsonObject <code>JsonObject</code> where the 'id' value is extracted from
-   * @param inputProcessor used for
-   *        {@link org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessingUtils#checkCustomBoundaryId(String)
-   *        checkCustomBoundaryId}
-   * @return <code>Object</code> having the custom id of type <code>String</code> or
-   *         <code>Integer</code>
-   */
-  private Object createBoundaryIdFromJsonObjectId(JsonObject jsonObject,
-      InputProcessor inputProcessor) {
-    if (jsonObject.get("id").getValueType().compareTo(JsonValue.ValueType.STRING) == 0) {
-      String id = jsonObject.getString("id");
-      if ("csv".equalsIgnoreCase(processingData.getFormat())) {
-        inputProcessor.getUtils().checkCustomBoundaryId(id);
-      }
-      return id;
-    } else {
-      return jsonObject.getInt("id");
-    }
-  }
-
-  /**
-   * Checks the geometry of the given <code>JsonObject</code> on its type. If it's not of type
-   * Polygon or Multipolygon, an exception is thrown.
-   * 
-   * @param geomObj <code>JsonObject</code> to check
-   * @throws BadRequestException if the given <code>JsonObject</code> is not of type Polygon or
-   *         Multipolygon
-   */
-  private void checkGeometryTypeOfFeature(JsonObject geomObj) {
-    if (!geomObj.getString("type").equals("Polygon")
-        && !geomObj.getString("type").equals("MultiPolygon")) {
-      throw new BadRequestException(
-          "The geometry of each feature in the GeoJSON has to be of type 'Polygon' "
-              + "or 'MultiPolygon'.");
-    }
-  }
-
   public ProcessingData getprocessingData() {
     return processingData;
   }
@@ -22,6 +22,7 @@ import org.heigit.ohsome.ohsomeapi.exception.ExceptionMessages;
 import org.heigit.ohsome.ohsomeapi.exception.NotFoundException;
 import org.heigit.ohsome.ohsomeapi.oshdb.DbConnData;
 import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadata;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadataSnapshot;
 import org.jparsec.error.ParserException;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.Lineal;
@@ -32,9 +33,24 @@ import org.locationtech.jts.geom.Puntal;
 public class InputProcessingUtils {
 
   private static final String GEOMCOLLTYPE = "GeometryCollection";
+  private final ExtractMetadataSnapshot extractMetadata;
   private Object[] boundaryIds;
   private String[] toTimestamps = null;
 
+  /** Creates the utils using the currently published metadata of the data-extract. */
+  public InputProcessingUtils() {
+    this(ExtractMetadata.getSnapshot());
+  }
+
+  /**
+   * Creates the utils using the given metadata of the data-extract.
+   *
+   * @param extractMetadata metadata of the data-extract, or null if none is loaded
+   */
+  public InputProcessingUtils(ExtractMetadataSnapshot extractMetadata) {
+    this.extractMetadata = extractMetadata;
+  }
+
   /**
    * Finds and returns the EPSG code of the given point, which is needed for
    * {@link org.heigit.ohsome.ohsomeapi.inputprocessing.GeometryBuilder#createCircularPolygons(String[] bcircles)
@@ -226,8 +242,8 @@ public class InputProcessingUtils {
     if (time.startsWith("/")) {
       if (time.length() == 1) {
         // only /
-        timeVals[0] = ExtractMetadata.fromTstamp;
-        timeVals[1] = ExtractMetadata.toTstamp;
+        timeVals[0] = getFromTstamp();
+        timeVals[1] = getToTstamp();
         return timeVals;
       }
       if (split[0].length() == 0 && split.length == 2) {
@@ -238,7 +254,7 @@ public class InputProcessingUtils {
       } else if (split.length == 3 && split[0].length() == 0 && split[1].length() == 0) {
         // //PnYnMnD
         checkPeriodOnIsoConformity(split[2]);
-        timeVals[1] = ExtractMetadata.toTstamp;
+        timeVals[1] = getToTstamp();
         timeVals[2] = split[2];
       } else if (split.length == 3 && split[1].length() != 0) {
         // /YYYY-MM-DD/PnYnMnD
@@ -251,7 +267,7 @@ public class InputProcessingUtils {
         // invalid time parameter
         throw new BadRequestException(ExceptionMessages.TIME_FORMAT);
       }
-      timeVals[0] = ExtractMetadata.fromTstamp;
+      timeVals[0] = getFromTstamp();
     } else if (time.endsWith("/")) {
       if (split.length != 1) {
         // invalid time parameter
@@ -261,13 +277,13 @@ public class InputProcessingUtils {
       checkTimestampsOnIsoConformity(split[0]);
       checkTemporalExtend(split[0]);
       timeVals[0] = split[0];
-      timeVals[1] = ExtractMetadata.toTstamp;
+      timeVals[1] = getToTstamp();
     } else if (split.length == 3) {
       if (split[1].length() == 0) {
         // YYYY-MM-DD//PnYnMnD
         checkTimestampsOnIsoConformity(split[0]);
         checkTemporalExtend(split[0]);
-        timeVals[1] = ExtractMetadata.toTstamp;
+        timeVals[1] = getToTstamp();
         timeVals[2] = split[2];
       } else {
         // YYYY-MM-DD/YYYY-MM-DD/PnYnMnD
@@ -341,8 +357,9 @@ public class InputProcessingUtils {
    *         <code>false</code> - if not inside
    */
   public boolean isWithin(Geometry geom) {
-    if (ExtractMetadata.dataPoly != null) {
-      return geom.within(ExtractMetadata.dataPoly);
+    Geometry dataPoly = getDataPoly();
+    if (dataPoly != null) {
+      return geom.within(dataPoly);
     }
     return true;
   }
@@ -411,8 +428,8 @@ public class InputProcessingUtils {
     long end = 0;
     long timestampLong = 0;
     try {
-      start = IsoDateTimeParser.parseIsoDateTime(ExtractMetadata.fromTstamp).toEpochSecond();
-      end = IsoDateTimeParser.parseIsoDateTime(ExtractMetadata.toTstamp).toEpochSecond();
+      start = IsoDateTimeParser.parseIsoDateTime(getFromTstamp()).toEpochSecond();
+      end = IsoDateTimeParser.parseIsoDateTime(getToTstamp()).toEpochSecond();
     } catch (Exception e) {
       throw new RuntimeException(
           "The ISO 8601 Date or the combined Date-Time String cannot be converted into a UTC based ZonedDateTime Object");
@@ -426,7 +443,7 @@ public class InputProcessingUtils {
         if (timestampLong < start || timestampLong > end) {
           throw new NotFoundException(
               "The given time parameter is not completely within the timeframe ("
-                  + ExtractMetadata.fromTstamp + " to " + ExtractMetadata.toTstamp
+                  + getFromTstamp() + " to " + getToTstamp()
                   + ") of the underlying osh-data.");
         }
       } catch (NotFoundException e) {
@@ -631,4 +648,17 @@ public class InputProcessingUtils {
   public void setToTimestamps(String[] toTimestamps) {
     this.toTimestamps = toTimestamps;
   }
+
+  /** Gives the polygon of the data-extract, or null if it is not defined. */
+  public Geometry getDataPoly() {
+    return extractMetadata != null ? extractMetadata.getDataPoly() : null;
+  }
+
+  private String getFromTstamp() {
+    return extractMetadata != null ? extractMetadata.getFromTstamp() : null;
+  }
+
+  private String getToTstamp() {
+    return extractMetadata != null ? extractMetadata.getToTstamp() : null;
+  }
 }
@@ -1,12 +1,9 @@
 package org.heigit.ohsome.ohsomeapi.inputprocessing;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
@@ -16,7 +13,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
-import org.geojson.GeoJsonObject;
+import org.heigit.bigspatialdata.oshdb.api.db.OSHDBDatabase;
 import org.heigit.bigspatialdata.oshdb.api.db.OSHDBIgnite;
 import org.heigit.bigspatialdata.oshdb.api.db.OSHDBIgnite.ComputeMode;
 import org.heigit.bigspatialdata.oshdb.api.mapreducer.MapReducer;
@@ -27,6 +24,7 @@ import org.heigit.bigspatialdata.oshdb.api.object.OSHDBMapReducible;
 import org.heigit.bigspatialdata.oshdb.api.object.OSMContribution;
 import org.heigit.bigspatialdata.oshdb.api.object.OSMEntitySnapshot;
 import org.heigit.bigspatialdata.oshdb.osm.OSMType;
+import org.heigit.bigspatialdata.oshdb.util.geometry.Geo;
 import org.heigit.bigspatialdata.oshdb.util.geometry.OSHDBGeometryBuilder;
 import org.heigit.bigspatialdata.oshdb.util.time.IsoDateTimeParser;
 import org.heigit.bigspatialdata.oshdb.util.time.OSHDBTimestamps;
@@ -35,13 +33,17 @@ import org.heigit.ohsome.filter.FilterParser;
 import org.heigit.ohsome.ohsomeapi.exception.BadRequestException;
 import org.heigit.ohsome.ohsomeapi.exception.ExceptionMessages;
 import org.heigit.ohsome.ohsomeapi.exception.ServiceUnavailableException;
+import org.heigit.ohsome.ohsomeapi.executor.RequestMetrics;
+import org.heigit.ohsome.ohsomeapi.executor.RequestMetrics.Stage;
 import org.heigit.ohsome.ohsomeapi.executor.RequestParameters;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.BoundaryCache.CachedBoundary;
+import org.heigit.ohsome.ohsomeapi.oshdb.CancellationToken;
 import org.heigit.ohsome.ohsomeapi.oshdb.DbConnData;
-import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadata;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExecutionContext;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadataSnapshot;
 import org.heigit.ohsome.ohsomeapi.utils.RequestUtils;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.Polygonal;
-import org.wololo.jts2geojson.GeoJSONWriter;
 
 /**
  * Holds general input processing and validation methods and validates specific parameters given by
@@ -68,6 +70,7 @@ public class InputProcessor {
   private boolean includeTags;
   private boolean includeOSMMetadata;
   private boolean clipGeometry = true;
+  private CancellationToken cancellationToken = new CancellationToken();
 
   public InputProcessor(ProcessingData processingData) {
     this.processingData = processingData;
@@ -93,6 +96,7 @@ public class InputProcessor {
     this.requestMethod = servletRequest.getMethod();
     this.requestTimeout = servletRequest.getParameter("timeout");
     this.requestParameters = servletRequest.getParameterMap();
+    this.cancellationToken = CancellationToken.of(servletRequest);
   }
 
   /**
@@ -144,31 +148,40 @@ public class InputProcessor {
     MapReducer<? extends OSHDBMapReducible> mapRed = null;
     processingData.setBoundaryType(setBoundaryType(bboxes, bcircles, bpolys));
     geomBuilder = new GeometryBuilder(processingData);
-    utils = new InputProcessingUtils();
+    utils = new InputProcessingUtils(processingData.getExtractMetadata());
     Geometry boundary;
+    CachedBoundary cachedBoundary = null;
+    RequestMetrics.enterStage(Stage.BOUNDARY);
     try {
       switch (processingData.getBoundaryType()) {
         case NOBOUNDARY:
-          if (ExtractMetadata.dataPoly == null) {
+          boundary = getDataPoly();
+          if (boundary == null) {
             throw new BadRequestException(ExceptionMessages.NO_BOUNDARY);
           }
-          boundary = ExtractMetadata.dataPoly;
           break;
         case BBOXES:
           processingData.setBoundaryValues(utils.splitBboxes(bboxes).toArray(new String[] {}));
-          boundary = geomBuilder.createBboxes(processingData.getBoundaryValues());
+          cachedBoundary = BoundaryCache.getOrBuild(BoundaryType.BBOXES, bboxes, this,
+              () -> geomBuilder.createBboxes(processingData.getBoundaryValues()));
+          boundary = cachedBoundary.getBoundary();
           break;
         case BCIRCLES:
           processingData.setBoundaryValues(utils.splitBcircles(bcircles).toArray(new String[] {}));
-          boundary = geomBuilder.createCircularPolygons(processingData.getBoundaryValues());
+          cachedBoundary = BoundaryCache.getOrBuild(BoundaryType.BCIRCLES, bcircles, this,
+              () -> geomBuilder.createCircularPolygons(processingData.getBoundaryValues()));
+          boundary = cachedBoundary.getBoundary();
           break;
         case BPOLYS:
           if (bpolys.matches("^\\s*\\{[\\s\\S]*")) {
-            boundary = geomBuilder.createGeometryFromGeoJson(bpolys, this);
+            cachedBoundary = BoundaryCache.getOrBuild(BoundaryType.BPOLYS, bpolys, this,
+                () -> geomBuilder.createGeometryFromGeoJson(bpolys, this));
           } else {
             processingData.setBoundaryValues(utils.splitBpolys(bpolys).toArray(new String[] {}));
-            boundary = geomBuilder.createBpolys(processingData.getBoundaryValues());
+            cachedBoundary = BoundaryCache.getOrBuild(BoundaryType.BPOLYS, bpolys, this,
+                () -> geomBuilder.createBpolys(processingData.getBoundaryValues()));
           }
+          boundary = cachedBoundary.getBoundary();
           break;
         default:
           throw new BadRequestException(ExceptionMessages.BOUNDARY_PARAM_FORMAT_OR_COUNT);
@@ -176,36 +189,27 @@ public class InputProcessor {
     } catch (ClassCastException e) {
       throw new BadRequestException(ExceptionMessages.BOUNDARY_PARAM_FORMAT);
     }
-
-    if (DbConnData.db instanceof OSHDBIgnite) {
-      final OSHDBIgnite dbIgnite = (OSHDBIgnite) DbConnData.db;
-      if (forceComputeMode != null) {
-        dbIgnite.computeMode(forceComputeMode);
-      } else {
-        ComputeMode computeMode;
-        double boundarySize = boundary.getEnvelope().getArea();
-        if (boundarySize <= COMPUTE_MODE_THRESHOLD) {
-          computeMode = ComputeMode.LocalPeek;
-        } else {
-          computeMode = ComputeMode.ScanQuery;
-        }
-        dbIgnite.computeMode(computeMode);
-      }
+    if (isDensity) {
+      computeBoundaryAreas(cachedBoundary);
     }
+    RequestMetrics.enterStage(Stage.PARAMETERS);
 
-    DbConnData.db.timeout(timeout);
-
+    // the boundary might have taken a while to parse: don't start the query for a gone client
+    cancellationToken.throwIfCancelled();
+    ExecutionContext executionContext = defineExecutionContext(boundary, timeout, forceComputeMode);
+    processingData.setExecutionContext(executionContext);
+    OSHDBDatabase db = executionContext.createDatabase();
     if (isSnapshot) {
       if (DbConnData.keytables == null) {
-        mapRed = OSMEntitySnapshotView.on(DbConnData.db);
+        mapRed = OSMEntitySnapshotView.on(db);
       } else {
-        mapRed = OSMEntitySnapshotView.on(DbConnData.db).keytables(DbConnData.keytables);
+        mapRed = OSMEntitySnapshotView.on(db).keytables(DbConnData.keytables);
       }
     } else {
       if (DbConnData.keytables == null) {
-        mapRed = OSMContributionView.on(DbConnData.db);
+        mapRed = OSMContributionView.on(db);
       } else {
-        mapRed = OSMContributionView.on(DbConnData.db).keytables(DbConnData.keytables);
+        mapRed = OSMContributionView.on(db).keytables(DbConnData.keytables);
       }
     }
     if (boundary.isRectangle()) {
@@ -216,21 +220,12 @@ public class InputProcessor {
     }
 
     processShowMetadata(showMetadata);
+    processPrettyPrint();
 
     checkFormat(processingData.getFormat());
-    if ("geojson".equalsIgnoreCase(processingData.getFormat())) {
-      GeoJSONWriter writer = new GeoJSONWriter();
-      Collection<Geometry> boundaryColl = processingData.getBoundaryList();
-      GeoJsonObject[] geoJsonGeoms = new GeoJsonObject[boundaryColl.size()];
-      for (int i = 0; i < geoJsonGeoms.length; i++) {
-        try {
-          geoJsonGeoms[i] = new ObjectMapper().readValue(
-              writer.write((Geometry) boundaryColl.toArray()[i]).toString(), GeoJsonObject.class);
-        } catch (IOException e) {
-          throw new BadRequestException(ExceptionMessages.BOUNDARY_PARAM_GEOJSON_FORMAT);
-        }
-      }
-      processingData.setGeoJsonGeoms(geoJsonGeoms);
+    if ("geojson".equalsIgnoreCase(processingData.getFormat()) && cachedBoundary != null) {
+      // the single boundaries are converted to GeoJSON only when the response is written
+      processingData.setGeoJsonGeoms(cachedBoundary.getGeoJsonGeoms());
     }
     mapRed = defineTypes(types, mapRed);
     // the OSM type will be set in the ratio implementation within the ElementsRequestExecutor.java
@@ -262,9 +257,29 @@ public class InputProcessor {
     } else {
       mapRed = extractKeysValues(mapRed, keys, values);
     }
+    RequestMetrics.enterStage(Stage.QUERY);
     return (MapReducer<T>) mapRed;
   }
 
+  /**
+   * Defines the execution context of this request. On an ignite cluster, the compute mode depends on
+   * the size of the boundary, unless it is forced by the caller.
+   */
+  private ExecutionContext defineExecutionContext(Geometry boundary, double timeout,
+      ComputeMode forceComputeMode) {
+    ComputeMode computeMode = null;
+    if (DbConnData.db instanceof OSHDBIgnite) {
+      if (forceComputeMode != null) {
+        computeMode = forceComputeMode;
+      } else if (boundary.getEnvelope().getArea() <= COMPUTE_MODE_THRESHOLD) {
+        computeMode = ComputeMode.LocalPeek;
+      } else {
+        computeMode = ComputeMode.ScanQuery;
+      }
+    }
+    return new ExecutionContext(timeout, computeMode, cancellationToken);
+  }
+
   /**
    * Defines the type(s) out of the given String[].
    * 
@@ -545,11 +560,13 @@ public class InputProcessor {
     String[] toTimestamps = null;
     String[] timeData;
     if (time.length == 0 || time[0].replaceAll("\\s", "").length() == 0 && time.length == 1) {
+      ExtractMetadataSnapshot extractMetadata = processingData.getExtractMetadata();
       if (!isSnapshot) {
-        toTimestamps = new String[] {ExtractMetadata.fromTstamp, ExtractMetadata.toTstamp};
-        mapRed = mapRed.timestamps(ExtractMetadata.fromTstamp, ExtractMetadata.toTstamp);
+        toTimestamps =
+            new String[] {extractMetadata.getFromTstamp(), extractMetadata.getToTstamp()};
+        mapRed = mapRed.timestamps(extractMetadata.getFromTstamp(), extractMetadata.getToTstamp());
       } else {
-        mapRed = mapRed.timestamps(ExtractMetadata.toTstamp);
+        mapRed = mapRed.timestamps(extractMetadata.getToTstamp());
       }
     } else if (time.length == 1) {
       timeData = utils.extractIsoTime(time[0]);
@@ -614,16 +631,27 @@ public class InputProcessor {
   }
 
   /**
-   * Checks the content of the given format parameter.
+   * Checks the content of the given format parameter. Data-extraction requests can only be written
+   * as geojson, geojsonseq or flatgeobuf, aggregation requests only as json, csv or geojson.
    * 
-   * @throws BadRequestException if the given format parameter is invalid.
+   * @throws BadRequestException if the given format parameter is invalid for the requested
+   *         resource.
    */
   private void checkFormat(String format) {
-    if (format != null && !format.isEmpty() && !"geojson".equalsIgnoreCase(format)
-        && !"json".equalsIgnoreCase(format) && !"csv".equalsIgnoreCase(format)) {
+    if (format == null || format.isEmpty() || "geojson".equalsIgnoreCase(format)) {
+      return;
+    }
+    if (RequestUtils.isDataExtraction(processingData.getRequestUrl())
+        || RequestUtils.isContributionsExtraction(processingData.getRequestUrl())) {
+      if (!RequestUtils.usesGeoJsonSeqFormat(format)
+          && !RequestUtils.usesFlatGeobufFormat(format)) {
+        throw new BadRequestException("The given 'format' parameter is invalid. Please choose "
+            + "between 'geojson', 'geojsonseq', or 'flatgeobuf'.");
+      }
+    } else if (!"json".equalsIgnoreCase(format) && !"csv".equalsIgnoreCase(format)) {
       throw new BadRequestException(
           "The given 'format' parameter is invalid. Please choose between 'geojson'(only available"
-              + " for /groupBy/boundary and data extraction requests), 'json', or 'csv'.");
+              + " for /groupBy/boundary requests), 'json', or 'csv'.");
     }
   }
 
@@ -761,6 +789,17 @@ public class InputProcessor {
     processingData.setShowMetadata(processBooleanParam("showMetadata", showMetadata));
   }
 
+  /**
+   * Processes the pretty parameter and sets the respective value in the processingData object. If
+   * it is not given, the server-wide setting is kept.
+   */
+  private void processPrettyPrint() {
+    String[] pretty = requestParameters.get("pretty");
+    if (pretty != null) {
+      processingData.setPrettyPrint(processBooleanParam("pretty", pretty[0]));
+    }
+  }
+
   /**
    * Tries to extract and set a boolean value out of the given parameter. Assumes that the default
    * value of the parameter is false.
@@ -792,13 +831,32 @@ public class InputProcessor {
   public Geometry getGeometry() {
     Geometry geom;
     if (BoundaryType.NOBOUNDARY == processingData.getBoundaryType()) {
-      geom = ProcessingData.getDataPolyGeom();
+      geom = getDataPoly();
     } else {
       geom = processingData.getRequestGeom();
     }
     return geom;
   }
 
+  /** Gives the polygon of the data-extract used by this request, or null if it is not defined. */
+  private Geometry getDataPoly() {
+    ExtractMetadataSnapshot extractMetadata = processingData.getExtractMetadata();
+    return extractMetadata != null ? extractMetadata.getDataPoly() : null;
+  }
+
+  /**
+   * Computes the areas of the request geometry and of the single boundaries, which are the
+   * denominators of the density results. The areas of a cached boundary are computed only once.
+   */
+  private void computeBoundaryAreas(CachedBoundary cachedBoundary) {
+    if (cachedBoundary == null) {
+      processingData.setRequestGeomArea(Geo.areaOf(getGeometry()));
+      return;
+    }
+    processingData.setRequestGeomArea(cachedBoundary.getRequestGeomArea());
+    processingData.setBoundaryAreas(cachedBoundary.getBoundaryAreas());
+  }
+
   public GeometryBuilder getGeomBuilder() {
     return geomBuilder;
   }
@@ -5,25 +5,47 @@ import java.util.List;
 import java.util.Optional;
 import lombok.Getter;
 import lombok.Setter;
-import org.geojson.GeoJsonObject;
 import org.heigit.bigspatialdata.oshdb.osm.OSMType;
 import org.heigit.ohsome.filter.FilterExpression;
+import org.heigit.ohsome.ohsomeapi.executor.AggregationResultCache;
+import org.heigit.ohsome.ohsomeapi.executor.DataExtractionPool;
+import org.heigit.ohsome.ohsomeapi.executor.RequestExecutionPool;
+import org.heigit.ohsome.ohsomeapi.executor.RequestMetrics;
 import org.heigit.ohsome.ohsomeapi.executor.RequestParameters;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExecutionContext;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadata;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadataSnapshot;
+import org.heigit.ohsome.ohsomeapi.utils.GeoJsonBoundaries;
 import org.locationtech.jts.geom.Geometry;
 
 /** Holds the relevant objects for processing the request and creating the response. */
 @Getter
 @Setter
 public class ProcessingData {
-  @Getter
-  @Setter
-  private static Geometry dataPolyGeom;
   @Getter
   @Setter
   private static double timeout;
   @Getter
   @Setter
   private static int numberOfDataExtractionThreads = 1;
+  @Getter
+  @Setter
+  private static DataExtractionPool dataExtractionPool;
+  @Getter
+  @Setter
+  private static AggregationResultCache aggregationResultCache;
+  @Getter
+  @Setter
+  private static RequestExecutionPool requestExecutionPool;
+  @Getter
+  @Setter
+  private static RequestMetrics requestMetrics;
+  @Getter
+  @Setter
+  private static BoundaryCache boundaryCache;
+  @Getter
+  @Setter
+  private static boolean defaultPrettyPrint = true;
   private RequestParameters requestParameters;
   private String requestUrl;
   private BoundaryType boundaryType;
@@ -31,10 +53,17 @@ public class ProcessingData {
   private String boundaryValuesGeoJson;
   private EnumSet<OSMType> osmTypes;
   private boolean showMetadata;
+  private boolean prettyPrint;
   private String format;
   private Geometry requestGeom;
   private List<Geometry> boundaryList;
-  private GeoJsonObject[] geoJsonGeoms;
+  /** Area of the request geometry in square meters, only computed for density requests. */
+  private double requestGeomArea = Double.NaN;
+  /** Areas of the boundaries in square meters, only computed for density requests. */
+  private double[] boundaryAreas;
+  /** Geometries of a GeoJSON boundary parameter, as raw JSON text of the single features. */
+  private String[] rawGeoJsonGeoms;
+  private GeoJsonBoundaries geoJsonGeoms;
   private boolean isContainingSimpleFeatureTypes;
   private EnumSet<SimpleFeatureType> simpleFeatureTypes;
   @Getter
@@ -44,6 +73,9 @@ public class ProcessingData {
   private boolean isGroupByBoundary;
   private boolean isFullHistory;
   private FilterExpression filterExpression;
+  private ExecutionContext executionContext;
+  /** Metadata of the data-extract, which is used during the whole processing of the request. */
+  private ExtractMetadataSnapshot extractMetadata;
 
   public ProcessingData(RequestParameters requestParameters, String requestUrl) {
     this.requestParameters = requestParameters;
@@ -51,6 +83,16 @@ public class ProcessingData {
     this.isRatio = false;
     this.isGroupByBoundary = false;
     this.isFullHistory = false;
+    this.prettyPrint = defaultPrettyPrint;
+    this.extractMetadata = ExtractMetadata.getSnapshot();
+  }
+
+  /**
+   * Gives the area of the boundary at the given index of the boundary list in square meters, or NaN
+   * if the areas were not computed for this request.
+   */
+  public double getBoundaryArea(int index) {
+    return boundaryAreas != null ? boundaryAreas[index] : Double.NaN;
   }
 
   // Override @Getter of Lombok
@@ -26,9 +26,9 @@ public class ResourceParameters {
   public static List<String> getResourceSpecificParams(HttpServletRequest servletRequest) {
     String uri = servletRequest.getRequestURI();
     List<String> possibleParams = new LinkedList<>(Arrays.asList("bboxes", "bcircles", "bpolys",
-        "types", "keys", "values", "timeout", "time", "showMetadata", "filter"));
+        "types", "keys", "values", "timeout", "time", "showMetadata", "filter", "pretty"));
     if (uri.contains("/count") || uri.contains("/length") || uri.contains("/area")
-        || uri.contains("/perimeter")) {
+        || uri.contains("/perimeter") || uri.contains("/stats")) {
       possibleParams.add("format");
     }
     if (uri.contains("/groupBy/tag")) {
@@ -38,6 +38,9 @@ public class ResourceParameters {
     } else if (uri.contains("/groupBy/key")) {
       possibleParams.add("groupByKeys");
       return possibleParams;
+    } else if (uri.contains("/stats")) {
+      possibleParams.add("metrics");
+      return possibleParams;
     } else if (uri.contains("/ratio")) {
       possibleParams.add("filter2");
       possibleParams.add("keys2");
@@ -47,6 +50,7 @@ public class ResourceParameters {
     } else if (uri.contains("/bbox") || uri.contains("/centroid") || uri.contains("/geometry")) {
       possibleParams.add("properties");
       possibleParams.add("clipGeometry");
+      possibleParams.add("format");
       // removing deprecated params from newly implemented endpoint
       if (uri.contains("/contributions")) {
         possibleParams.remove("types");
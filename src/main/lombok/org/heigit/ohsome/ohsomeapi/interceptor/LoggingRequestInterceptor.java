@@ -1,8 +1,10 @@
 package org.heigit.ohsome.ohsomeapi.interceptor;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.heigit.ohsome.ohsomeapi.Application;
+import org.heigit.ohsome.ohsomeapi.executor.RequestMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -12,12 +14,21 @@ import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 @Component
 public class LoggingRequestInterceptor extends HandlerInterceptorAdapter {
 
+  private static final String START_TIME_ATTRIBUTE =
+      LoggingRequestInterceptor.class.getName() + ".startTime";
   final Logger logger = LoggerFactory.getLogger(Application.class);
-  private long startTime;
 
+  /**
+   * Stores the start time as attribute of the request, as this interceptor is shared by all
+   * concurrently processed requests.
+   */
   public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
       Object handler) {
-    startTime = System.currentTimeMillis();
+    if (request.getDispatcherType() == DispatcherType.ASYNC) {
+      // the result of an asynchronously processed request is written: keep the initial start time
+      return true;
+    }
+    request.setAttribute(START_TIME_ATTRIBUTE, System.currentTimeMillis());
     return true;
   }
 
@@ -30,8 +41,12 @@ public class LoggingRequestInterceptor extends HandlerInterceptorAdapter {
     } else {
       requestUri = request.getRequestURL().toString();
     }
+    Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
     logger.info("accessed URI: " + requestUri);
-    logger.info("processing time: " + (System.currentTimeMillis() - startTime));
+    if (startTime instanceof Long) {
+      logger.info("processing time: " + (System.currentTimeMillis() - (Long) startTime));
+    }
     logger.info("response code: " + response.getStatus());
+    RequestMetrics.finish(request);
   }
 }
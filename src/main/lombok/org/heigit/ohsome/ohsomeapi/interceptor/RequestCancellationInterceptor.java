@@ -0,0 +1,47 @@
+package org.heigit.ohsome.ohsomeapi.interceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import org.heigit.ohsome.ohsomeapi.oshdb.CancellationToken;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+
+/**
+ * Interceptor of the asynchronously processed requests, which cancels the
+ * {@link CancellationToken} of a request, when the servlet container reports an error on its
+ * connection (e.g. the client has disconnected), or when the async processing has ended before the
+ * result was computed.
+ *
+ * <p>
+ * The detection depends on the servlet container reporting the error. Tomcat usually notices a
+ * disconnected client only when writing to its connection, so a request, which has not written
+ * anything yet (e.g. a long-running aggregation), is not cancelled before its result is written.
+ * Data-extraction requests write while they compute, so they are cancelled with the next failing
+ * write at the latest.
+ */
+public class RequestCancellationInterceptor implements DeferredResultProcessingInterceptor {
+
+  @Override
+  public <T> boolean handleError(NativeWebRequest request, DeferredResult<T> deferredResult,
+      Throwable t) {
+    cancel(request);
+    return true;
+  }
+
+  @Override
+  public <T> void afterCompletion(NativeWebRequest request, DeferredResult<T> deferredResult) {
+    // has no effect on requests, whose processing has already finished
+    cancel(request);
+  }
+
+  private void cancel(NativeWebRequest request) {
+    HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+    if (servletRequest == null) {
+      return;
+    }
+    CancellationToken cancellationToken = CancellationToken.get(servletRequest);
+    if (cancellationToken != null) {
+      cancellationToken.cancel();
+    }
+  }
+}
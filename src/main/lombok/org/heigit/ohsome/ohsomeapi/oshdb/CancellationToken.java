@@ -0,0 +1,109 @@
+package org.heigit.ohsome.ohsomeapi.oshdb;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Signals that the processing of a request is not needed anymore, e.g. because the client has
+ * disconnected. The token of a request is stored as attribute of the servlet request, so that the
+ * controllers, the executors and the async handling of Spring share the same object.
+ *
+ * <p>
+ * The token is checked at the stage boundaries of a request, i.e. before it is started and before
+ * its OSHDB query is run, and for every feature streamed by a data-extraction request. An
+ * aggregation query, which is already running, is not aborted on the local database backends. On
+ * an ignite cluster, the worker thread of the request is interrupted via a callback registered
+ * with {@link #onCancel(Runnable) onCancel}: this ends its wait for the result of the cluster, or,
+ * for data extractions, its wait in
+ * {@link org.heigit.ohsome.ohsomeapi.executor.DataExtractionPool#execute(Runnable) execute}. The
+ * threads of the DataExtractionPool are never interrupted, they stop at their next check of the
+ * token.
+ */
+public class CancellationToken implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+  private static final String REQUEST_ATTRIBUTE = CancellationToken.class.getName();
+  private volatile boolean cancelled = false;
+  private final transient List<Runnable> callbacks = new ArrayList<>();
+
+  /**
+   * Gives the token of the given request. It is created and attached to the request, if the
+   * request does not have one yet.
+   */
+  public static CancellationToken of(HttpServletRequest servletRequest) {
+    synchronized (servletRequest) {
+      Object token = servletRequest.getAttribute(REQUEST_ATTRIBUTE);
+      if (token instanceof CancellationToken) {
+        return (CancellationToken) token;
+      }
+      CancellationToken newToken = new CancellationToken();
+      servletRequest.setAttribute(REQUEST_ATTRIBUTE, newToken);
+      return newToken;
+    }
+  }
+
+  /**
+   * Gives the token of the given request, or null, if no token was attached to it.
+   */
+  public static CancellationToken get(HttpServletRequest servletRequest) {
+    Object token = servletRequest.getAttribute(REQUEST_ATTRIBUTE);
+    return token instanceof CancellationToken ? (CancellationToken) token : null;
+  }
+
+  /** Cancels the request and runs all registered callbacks. Repeated calls have no effect. */
+  public void cancel() {
+    if (cancelled) {
+      return;
+    }
+    synchronized (this) {
+      if (cancelled) {
+        return;
+      }
+      cancelled = true;
+      if (callbacks != null) {
+        callbacks.forEach(Runnable::run);
+        callbacks.clear();
+      }
+    }
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Throws a {@link CancellationException} if the request was cancelled.
+   *
+   * @throws CancellationException if the request was cancelled
+   */
+  public void throwIfCancelled() {
+    if (cancelled) {
+      throw new CancellationException("The request was cancelled.");
+    }
+  }
+
+  /**
+   * Registers a callback, which is run once the request is cancelled. If the request was already
+   * cancelled, the callback is run right away.
+   *
+   * @return true if the callback was registered, false if it was run right away
+   */
+  public synchronized boolean onCancel(Runnable callback) {
+    if (cancelled) {
+      callback.run();
+      return false;
+    }
+    callbacks.add(callback);
+    return true;
+  }
+
+  /**
+   * Removes the given callback. After this method returns, the callback is not run anymore.
+   */
+  public synchronized void removeCallback(Runnable callback) {
+    callbacks.remove(callback);
+  }
+}
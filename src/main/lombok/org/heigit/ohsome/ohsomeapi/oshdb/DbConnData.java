@@ -13,6 +13,7 @@ public class DbConnData {
   public static TagTranslator tagTranslator = null;
   public static RemoteTagTranslator mapTagTranslator = null;
   public static HikariConfig keytablesDbPoolConfig = null;
+  public static TagTranslatorPool tagTranslatorPool = null;
 
   private DbConnData() {
     throw new IllegalStateException("Utility class");
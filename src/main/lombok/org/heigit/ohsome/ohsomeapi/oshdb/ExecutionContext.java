@@ -0,0 +1,50 @@
+package org.heigit.ohsome.ohsomeapi.oshdb;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.heigit.bigspatialdata.oshdb.api.db.OSHDBDatabase;
+import org.heigit.bigspatialdata.oshdb.api.db.OSHDBIgnite;
+import org.heigit.bigspatialdata.oshdb.api.db.OSHDBIgnite.ComputeMode;
+import org.heigit.bigspatialdata.oshdb.api.db.OSHDBJdbc;
+
+/**
+ * Holds the execution settings of a single request: its timeout, the compute mode (only used on
+ * an ignite cluster) and its {@link CancellationToken}. As the OSHDB reads these settings from the
+ * database object, each request gets its own, lightweight database handle via
+ * {@link #createDatabase() createDatabase}, instead of changing the settings of the shared
+ * {@link DbConnData#db db}.
+ */
+@Getter
+@AllArgsConstructor
+public class ExecutionContext {
+
+  private final double timeout;
+  private final ComputeMode computeMode;
+  private final CancellationToken cancellationToken;
+
+  /**
+   * Creates a database handle, which shares the connection (or ignite instance) of the global
+   * {@link DbConnData#db db}, but uses the timeout and compute mode of this context. The handle
+   * does not take over the close callback of the shared object, as closing it must not release any
+   * shared resources.
+   *
+   * @return <code>OSHDBDatabase</code> object to be used only by the current request
+   */
+  public OSHDBDatabase createDatabase() {
+    OSHDBDatabase sharedDb = DbConnData.db;
+    OSHDBDatabase db;
+    if (sharedDb instanceof OSHDBIgnite) {
+      OSHDBIgnite sharedIgnite = (OSHDBIgnite) sharedDb;
+      OSHDBIgnite dbIgnite = new OSHDBIgnite(sharedIgnite.getIgnite());
+      dbIgnite.computeMode(computeMode != null ? computeMode : sharedIgnite.computeMode());
+      db = dbIgnite;
+    } else if (sharedDb instanceof OSHDBJdbc) {
+      OSHDBJdbc sharedJdbc = (OSHDBJdbc) sharedDb;
+      db = new OSHDBJdbc(sharedJdbc.getConnection()).multithreading(sharedJdbc.multithreading());
+    } else {
+      // unknown database backend: fall back to the shared object
+      return sharedDb.timeout(timeout);
+    }
+    return db.prefix(sharedDb.prefix()).timeout(timeout);
+  }
+}
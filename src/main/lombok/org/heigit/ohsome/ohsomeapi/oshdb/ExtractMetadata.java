@@ -1,22 +1,59 @@
 package org.heigit.ohsome.ohsomeapi.oshdb;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import java.util.concurrent.atomic.AtomicReference;
 import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
-import org.locationtech.jts.geom.Geometry;
 
-/** Holds the metadata that is derived from the data-extract. */
+/**
+ * Holds the metadata that is derived from the data-extract. All readers use the currently
+ * published {@link ExtractMetadataSnapshot snapshot}, so that a reload is seen by them as a whole.
+ * A request reads it only once and keeps it in its
+ * {@link ProcessingData#getExtractMetadata() ProcessingData}.
+ */
 public class ExtractMetadata {
 
-  public static String fromTstamp = null;
-  public static String toTstamp = null;
-  public static String attributionShort = null;
-  public static String attributionUrl = null;
-  public static Geometry dataPoly = null;
-  public static JsonNode dataPolyJson = null;
-  public static int replicationSequenceNumber;
   public static double timeout = ProcessingData.getTimeout();
+  private static final AtomicReference<ExtractMetadataSnapshot> snapshot = new AtomicReference<>();
 
   private ExtractMetadata() {
     throw new IllegalStateException("Utility class");
   }
+
+  /**
+   * Gets the currently published metadata snapshot.
+   *
+   * @return the current <code>ExtractMetadataSnapshot</code>, or null if no metadata has been
+   *         loaded yet
+   */
+  public static ExtractMetadataSnapshot getSnapshot() {
+    return snapshot.get();
+  }
+
+  /**
+   * Gets the URL of the attribution of the currently published metadata.
+   *
+   * @return the attribution URL, or null if no metadata has been loaded yet
+   */
+  public static String getAttributionUrl() {
+    ExtractMetadataSnapshot current = snapshot.get();
+    return current != null ? current.getAttributionUrl() : null;
+  }
+
+  /**
+   * Gets the short attribution text of the currently published metadata.
+   *
+   * @return the attribution text, or null if no metadata has been loaded yet
+   */
+  public static String getAttributionShort() {
+    ExtractMetadataSnapshot current = snapshot.get();
+    return current != null ? current.getAttributionShort() : null;
+  }
+
+  /**
+   * Publishes a freshly loaded metadata snapshot, which replaces the current one atomically.
+   *
+   * @param newSnapshot the metadata snapshot to publish
+   */
+  public static void publish(ExtractMetadataSnapshot newSnapshot) {
+    snapshot.set(newSnapshot);
+  }
 }
@@ -0,0 +1,75 @@
+package org.heigit.ohsome.ohsomeapi.oshdb;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.heigit.ohsome.ohsomeapi.utils.RequestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link ExtractMetadata} up to date in the background. Only the replication sequence
+ * number is polled periodically; the whole metadata is reloaded only if it has changed, so that
+ * request threads never have to access the keytables for reading the metadata.
+ */
+@Component
+public class ExtractMetadataService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ExtractMetadataService.class);
+  private final long refreshIntervalInSeconds;
+  private ScheduledExecutorService scheduler;
+
+  public ExtractMetadataService(
+      @Value("${ohsome.metadata.refresh-interval:60}") long refreshIntervalInSeconds) {
+    this.refreshIntervalInSeconds = refreshIntervalInSeconds;
+  }
+
+  /** Starts the periodic check of the replication sequence number. */
+  @PostConstruct
+  public void start() {
+    if (refreshIntervalInSeconds <= 0) {
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "ohsome-metadata-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::refresh, refreshIntervalInSeconds,
+        refreshIntervalInSeconds, TimeUnit.SECONDS);
+  }
+
+  /** Stops the periodic check of the replication sequence number. */
+  @PreDestroy
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * Reloads the metadata, if no snapshot has been published yet, or if the replication sequence
+   * number of the data-extract differs from the one of the current snapshot. Errors are only
+   * logged, as the previous snapshot stays valid until the next successful reload.
+   */
+  void refresh() {
+    try {
+      ExtractMetadataSnapshot current = ExtractMetadata.getSnapshot();
+      Integer sequenceNumber = RequestUtils.extractReplicationSequenceNumber();
+      if (current != null && (sequenceNumber == null
+          || Objects.equals(sequenceNumber, current.getReplicationSequenceNumber()))) {
+        return;
+      }
+      RequestUtils.extractOSHDBMetadata();
+      logger.info("reloaded extract metadata, replication sequence number: "
+          + ExtractMetadata.getSnapshot().getReplicationSequenceNumber());
+    } catch (Exception e) {
+      logger.warn("could not refresh the extract metadata: " + e.getMessage());
+    }
+  }
+}
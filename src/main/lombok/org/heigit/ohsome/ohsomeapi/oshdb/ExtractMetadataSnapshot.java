@@ -0,0 +1,24 @@
+package org.heigit.ohsome.ohsomeapi.oshdb;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Immutable view of the metadata of the data-extract at one point in time. A new instance is
+ * created whenever the metadata is (re)loaded from the OSHDB keytables and published as a whole
+ * via {@link ExtractMetadata#publish(ExtractMetadataSnapshot) publish}.
+ */
+@Getter
+@AllArgsConstructor
+public final class ExtractMetadataSnapshot {
+
+  private final String fromTstamp;
+  private final String toTstamp;
+  private final String attributionShort;
+  private final String attributionUrl;
+  private final Geometry dataPoly;
+  private final JsonNode dataPolyJson;
+  private final int replicationSequenceNumber;
+}
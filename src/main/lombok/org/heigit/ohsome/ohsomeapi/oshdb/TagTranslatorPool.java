@@ -0,0 +1,97 @@
+package org.heigit.ohsome.ohsomeapi.oshdb;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.heigit.bigspatialdata.oshdb.util.exceptions.OSHDBKeytablesNotFoundException;
+import org.heigit.bigspatialdata.oshdb.util.tagtranslator.TagTranslator;
+import org.heigit.ohsome.ohsomeapi.exception.DatabaseAccessException;
+import org.heigit.ohsome.ohsomeapi.exception.ExceptionMessages;
+import org.springframework.stereotype.Component;
+
+/**
+ * Application-wide pool of <code>TagTranslator</code> objects used for resolving the tags of
+ * extracted features. If a jdbc keytables database is used, the translators are backed by one
+ * shared connection pool, which is sized by the number of data-extraction threads. Otherwise the
+ * global {@link DbConnData#tagTranslator tagTranslator} is handed out.
+ */
+@Component
+public class TagTranslatorPool {
+
+  private final BlockingQueue<TagTranslator> idleTranslators = new LinkedBlockingQueue<>();
+  private final AtomicInteger numberOfTranslators = new AtomicInteger();
+  private HikariDataSource keytablesConnectionPool;
+  private int capacity;
+
+  /** Creates the keytables connection pool and makes this pool available via DbConnData. */
+  @PostConstruct
+  public void init() {
+    if (DbConnData.keytablesDbPoolConfig != null) {
+      keytablesConnectionPool = new HikariDataSource(DbConnData.keytablesDbPoolConfig);
+      capacity = DbConnData.keytablesDbPoolConfig.getMaximumPoolSize();
+    }
+    DbConnData.tagTranslatorPool = this;
+  }
+
+  /**
+   * Borrows a <code>TagTranslator</code> from the pool. If all translators are in use and the
+   * capacity of the pool is reached, this blocks until another thread returns its translator. Each
+   * borrowed translator must be given back via {@link #release(TagTranslator) release}.
+   *
+   * @throws DatabaseAccessException if a new keytables connection cannot be established
+   */
+  public TagTranslator borrow() {
+    if (keytablesConnectionPool == null) {
+      return DbConnData.tagTranslator;
+    }
+    TagTranslator tagTranslator = idleTranslators.poll();
+    if (tagTranslator != null) {
+      return tagTranslator;
+    }
+    if (numberOfTranslators.getAndIncrement() < capacity) {
+      try {
+        return new TagTranslator(keytablesConnectionPool.getConnection());
+      } catch (OSHDBKeytablesNotFoundException | SQLException e) {
+        numberOfTranslators.decrementAndGet();
+        throw new DatabaseAccessException(ExceptionMessages.DATABASE_ACCESS);
+      }
+    }
+    numberOfTranslators.decrementAndGet();
+    try {
+      return idleTranslators.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** Gives a <code>TagTranslator</code> obtained via {@link #borrow() borrow} back to the pool. */
+  public void release(TagTranslator tagTranslator) {
+    if (keytablesConnectionPool != null) {
+      idleTranslators.offer(tagTranslator);
+    }
+  }
+
+  /** Closes all pooled keytables connections. */
+  @PreDestroy
+  public void close() {
+    if (DbConnData.tagTranslatorPool == this) {
+      DbConnData.tagTranslatorPool = null;
+    }
+    if (keytablesConnectionPool != null) {
+      TagTranslator tagTranslator;
+      while ((tagTranslator = idleTranslators.poll()) != null) {
+        try {
+          tagTranslator.getConnection().close();
+        } catch (SQLException e) {
+          // connection is discarded together with the pool anyway
+        }
+      }
+      keytablesConnectionPool.close();
+    }
+  }
+}
@@ -13,6 +13,11 @@ public class Description {
     return "Total " + label + " of items in " + unit + ".";
   }
 
+  /** Describes the result of /elements/stats requests, listing the given measures. */
+  public static String aggregateStats(Iterable<String> measures) {
+    return "Total " + String.join(", ", measures) + " of items.";
+  }
+
   public static String aggregateGroupByBoundary(boolean isDensity, String label, String unit) {
     if (isDensity) {
       return "Density of selected items (" + label + " of items in " + unit
@@ -0,0 +1,53 @@
+package org.heigit.ohsome.ohsomeapi.output;
+
+import java.io.Serializable;
+import java.util.EnumSet;
+import lombok.Getter;
+import lombok.Setter;
+import org.heigit.bigspatialdata.oshdb.osm.OSMType;
+import org.heigit.bigspatialdata.oshdb.util.celliterator.ContributionType;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Represents one feature of the data-extraction and contribution endpoints, before it is written
+ * out. The well-known "@" properties have fixed fields, which are left null (or -1 for the
+ * version), if they are not part of the output. The tags are kept as the raw key and value ids of
+ * the OSHDB and are only resolved, when the feature is written.
+ *
+ * <p>
+ * The properties are written in the order of their names, including the resolved tags, as done by
+ * {@link org.heigit.ohsome.ohsomeapi.utils.GeoJsonFeatureWriter#writeProperties(ExtractionFeature,
+ * String[], boolean) writeProperties}.
+ */
+@Getter
+@Setter
+public class ExtractionFeature implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /** Output geometry of the feature, or null for deleted OSM elements. */
+  private Geometry geometry;
+  private OSMType osmType;
+  private long osmId;
+  /** Key and value ids of the tags in alternating order, or null if no tags are written. */
+  private int[] tags;
+  private int version = -1;
+  private long changesetId;
+  /** Contribution types, which are written as flags, or null if they are not written. */
+  private EnumSet<ContributionType> contributionTypes;
+  private String lastEdit;
+  private String snapshotTimestamp;
+  private String timestamp;
+  private String validFrom;
+  private String validTo;
+
+  /** Gives the OSM id as written in the "@osmId" property, e.g. "way/123". */
+  public String getOsmIdString() {
+    return osmType.toString().toLowerCase() + "/" + osmId;
+  }
+
+  /** Checks whether the OSM metadata (version, type and changeset) is written. */
+  public boolean hasMetadata() {
+    return version >= 0;
+  }
+}
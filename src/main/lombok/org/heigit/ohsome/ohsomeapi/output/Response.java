@@ -11,6 +11,8 @@ package org.heigit.ohsome.ohsomeapi.output;
  * RatioGroupByBoundaryResponse}</li>
  * <li>{@link org.heigit.ohsome.ohsomeapi.output.ratio.RatioResponse
  * RatioResponse}</li>
+ * <li>{@link org.heigit.ohsome.ohsomeapi.output.stats.StatsResponse
+ * StatsResponse}</li>
  * <li>{@link org.heigit.ohsome.ohsomeapi.output.ExtractionResponse
  * DataResponse}</li>
  * </ul>
@@ -0,0 +1,28 @@
+package org.heigit.ohsome.ohsomeapi.output.stats;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents the result JSON object for the /elements/stats resource containing the timestamp
+ * together with the values of the requested metrics. Metrics which were not requested are omitted.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(Include.NON_NULL)
+public class StatsResult {
+
+  @ApiModelProperty(notes = "Timestamp in the format YYYY-MM-DDThh:mm:ssZ", required = true)
+  private String timestamp;
+  @ApiModelProperty(notes = "Number of items")
+  private Double count;
+  @ApiModelProperty(notes = "Length of items in meters")
+  private Double length;
+  @ApiModelProperty(notes = "Perimeter of polygonal items in meters")
+  private Double perimeter;
+  @ApiModelProperty(notes = "Area of items in square meters")
+  private Double area;
+}
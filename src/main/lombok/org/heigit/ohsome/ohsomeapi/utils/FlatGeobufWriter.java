@@ -0,0 +1,381 @@
+package org.heigit.ohsome.ohsomeapi.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Writes OSM features in the <a href="https://flatgeobuf.org/">FlatGeobuf</a> format (version 3),
+ * directly from JTS geometries. The file consists of the {@link #MAGIC_BYTES magic bytes}, a
+ * {@link #createHeader(String, String) header} and any number of
+ * {@link #createFeature(Geometry, String, byte[]) features}, which are size-prefixed flatbuffers.
+ * No spatial index is written, so that the features can be streamed out in any order.
+ *
+ * <p>
+ * As the OSM tags of the features are not known in advance, each feature has only two attribute
+ * columns: its OSM id and all of its other properties (tags and metadata) as a JSON object.
+ */
+public class FlatGeobufWriter {
+
+  /** Magic bytes identifying a FlatGeobuf file (format version 3.0). */
+  public static final byte[] MAGIC_BYTES = {0x66, 0x67, 0x62, 0x03, 0x66, 0x67, 0x62, 0x00};
+  public static final String OSM_ID_COLUMN = "@osmId";
+  public static final String PROPERTIES_COLUMN = "properties";
+  private static final byte GEOMETRY_TYPE_UNKNOWN = 0;
+  private static final byte GEOMETRY_TYPE_POINT = 1;
+  private static final byte GEOMETRY_TYPE_LINESTRING = 2;
+  private static final byte GEOMETRY_TYPE_POLYGON = 3;
+  private static final byte GEOMETRY_TYPE_MULTIPOINT = 4;
+  private static final byte GEOMETRY_TYPE_MULTILINESTRING = 5;
+  private static final byte GEOMETRY_TYPE_MULTIPOLYGON = 6;
+  private static final byte GEOMETRY_TYPE_GEOMETRYCOLLECTION = 7;
+  private static final byte COLUMN_TYPE_STRING = 11;
+  private static final byte COLUMN_TYPE_JSON = 12;
+  private static final ThreadLocal<FlatBufferBuilder> builders =
+      ThreadLocal.withInitial(() -> new FlatBufferBuilder(1024));
+
+  private FlatGeobufWriter() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * Creates the size-prefixed header of a FlatGeobuf file with mixed geometry types in WGS 84.
+   *
+   * @param name name of the dataset
+   * @param description description of the dataset, e.g. its attribution
+   * @return the encoded header
+   */
+  public static byte[] createHeader(String name, String description) {
+    FlatBufferBuilder builder = new FlatBufferBuilder(256);
+    int nameOffset = builder.createString(name);
+    int descriptionOffset = builder.createString(description);
+    int[] columns = new int[] {createColumn(builder, OSM_ID_COLUMN, COLUMN_TYPE_STRING),
+        createColumn(builder, PROPERTIES_COLUMN, COLUMN_TYPE_JSON)};
+    int columnsOffset = builder.createOffsetVector(columns);
+    int crsOrgOffset = builder.createString("EPSG");
+    builder.startTable(6);
+    builder.addOffset(0, crsOrgOffset);
+    builder.addInt(1, 4326, 0);
+    int crsOffset = builder.endTable();
+    builder.startTable(14);
+    builder.addOffset(0, nameOffset);
+    builder.addOffset(7, columnsOffset);
+    builder.addOffset(10, crsOffset);
+    builder.addOffset(12, descriptionOffset);
+    // no spatial index
+    builder.addShort(9, (short) 0, 16);
+    builder.addByte(2, GEOMETRY_TYPE_UNKNOWN, 0);
+    return builder.finishSizePrefixed(builder.endTable());
+  }
+
+  /**
+   * Creates a size-prefixed FlatGeobuf feature.
+   *
+   * @param geometry the geometry of the feature, or null for features without geometry
+   * @param osmId the OSM id of the feature, e.g. "way/123"
+   * @param properties all other properties of the feature as UTF-8 encoded JSON object
+   * @return the encoded feature
+   */
+  public static byte[] createFeature(Geometry geometry, String osmId, byte[] properties) {
+    byte[] propertyBytes = encodeProperties(osmId, properties);
+    FlatBufferBuilder builder = builders.get();
+    builder.clear();
+    int propertiesOffset = builder.createByteVector(propertyBytes);
+    int geometryOffset = 0;
+    if (geometry != null && !geometry.isEmpty()) {
+      geometryOffset = createGeometry(builder, geometry);
+    }
+    builder.startTable(3);
+    builder.addOffset(0, geometryOffset);
+    builder.addOffset(1, propertiesOffset);
+    return builder.finishSizePrefixed(builder.endTable());
+  }
+
+  private static int createColumn(FlatBufferBuilder builder, String name, byte type) {
+    int nameOffset = builder.createString(name);
+    builder.startTable(11);
+    builder.addOffset(0, nameOffset);
+    builder.addByte(1, type, 0);
+    return builder.endTable();
+  }
+
+  /** Encodes the properties as pairs of column index (ushort) and length-prefixed string. */
+  private static byte[] encodeProperties(String osmId, byte[] jsonBytes) {
+    byte[] osmIdBytes = osmId.getBytes(StandardCharsets.UTF_8);
+    return ByteBuffer.allocate(2 * (2 + 4) + osmIdBytes.length + jsonBytes.length)
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .putShort((short) 0).putInt(osmIdBytes.length).put(osmIdBytes)
+        .putShort((short) 1).putInt(jsonBytes.length).put(jsonBytes)
+        .array();
+  }
+
+  /** Creates the FlatGeobuf geometry table of the given geometry. */
+  private static int createGeometry(FlatBufferBuilder builder, Geometry geometry) {
+    byte type;
+    int[] ends = null;
+    int[] parts = null;
+    if (geometry instanceof Point) {
+      type = GEOMETRY_TYPE_POINT;
+    } else if (geometry instanceof LineString) {
+      type = GEOMETRY_TYPE_LINESTRING;
+    } else if (geometry instanceof Polygon) {
+      type = GEOMETRY_TYPE_POLYGON;
+      Polygon polygon = (Polygon) geometry;
+      if (polygon.getNumInteriorRing() > 0) {
+        ends = new int[polygon.getNumInteriorRing() + 1];
+        int end = polygon.getExteriorRing().getNumPoints();
+        ends[0] = end;
+        for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+          end += polygon.getInteriorRingN(i).getNumPoints();
+          ends[i + 1] = end;
+        }
+      }
+    } else if (geometry instanceof MultiPoint) {
+      type = GEOMETRY_TYPE_MULTIPOINT;
+    } else if (geometry instanceof MultiLineString) {
+      type = GEOMETRY_TYPE_MULTILINESTRING;
+      if (geometry.getNumGeometries() > 1) {
+        ends = new int[geometry.getNumGeometries()];
+        int end = 0;
+        for (int i = 0; i < ends.length; i++) {
+          end += geometry.getGeometryN(i).getNumPoints();
+          ends[i] = end;
+        }
+      }
+    } else if (geometry instanceof GeometryCollection) {
+      type = geometry instanceof MultiPolygon ? GEOMETRY_TYPE_MULTIPOLYGON
+          : GEOMETRY_TYPE_GEOMETRYCOLLECTION;
+      parts = new int[geometry.getNumGeometries()];
+      for (int i = 0; i < parts.length; i++) {
+        parts[i] = createGeometry(builder, geometry.getGeometryN(i));
+      }
+    } else {
+      throw new IllegalArgumentException(
+          "Unsupported geometry type: " + geometry.getGeometryType());
+    }
+    int endsOffset = ends != null ? builder.createIntVector(ends) : 0;
+    int xyOffset = 0;
+    int partsOffset = 0;
+    if (parts != null) {
+      partsOffset = builder.createOffsetVector(parts);
+    } else {
+      Coordinate[] coordinates = geometry.getCoordinates();
+      double[] xy = new double[coordinates.length * 2];
+      for (int i = 0; i < coordinates.length; i++) {
+        xy[2 * i] = coordinates[i].x;
+        xy[2 * i + 1] = coordinates[i].y;
+      }
+      xyOffset = builder.createDoubleVector(xy);
+    }
+    builder.startTable(8);
+    builder.addOffset(0, endsOffset);
+    builder.addOffset(1, xyOffset);
+    builder.addOffset(7, partsOffset);
+    builder.addByte(6, type, 0);
+    return builder.endTable();
+  }
+
+  /**
+   * Minimal flatbuffers builder, which follows the reference implementation: the buffer is filled
+   * from back to front, so that all referenced objects (strings, vectors, child tables) have to be
+   * created before the table referencing them is started.
+   */
+  static final class FlatBufferBuilder {
+
+    private ByteBuffer bb;
+    private int space;
+    private int minalign = 1;
+    private int[] vtable;
+    private int objectStart;
+
+    FlatBufferBuilder(int initialSize) {
+      bb = ByteBuffer.allocate(initialSize).order(ByteOrder.LITTLE_ENDIAN);
+      space = initialSize;
+    }
+
+    /** Resets the builder, so that its buffer can be reused for the next object. */
+    void clear() {
+      space = bb.capacity();
+      minalign = 1;
+      vtable = null;
+    }
+
+    int offset() {
+      return bb.capacity() - space;
+    }
+
+    int createString(String string) {
+      byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+      addByte((byte) 0);
+      startVector(1, utf8.length, 1);
+      space -= utf8.length;
+      System.arraycopy(utf8, 0, bb.array(), space, utf8.length);
+      return endVector(utf8.length);
+    }
+
+    int createByteVector(byte[] bytes) {
+      startVector(1, bytes.length, 1);
+      space -= bytes.length;
+      System.arraycopy(bytes, 0, bb.array(), space, bytes.length);
+      return endVector(bytes.length);
+    }
+
+    int createIntVector(int[] values) {
+      startVector(4, values.length, 4);
+      for (int i = values.length - 1; i >= 0; i--) {
+        prep(4, 0);
+        space -= 4;
+        bb.putInt(space, values[i]);
+      }
+      return endVector(values.length);
+    }
+
+    int createDoubleVector(double[] values) {
+      startVector(8, values.length, 8);
+      for (int i = values.length - 1; i >= 0; i--) {
+        prep(8, 0);
+        space -= 8;
+        bb.putDouble(space, values[i]);
+      }
+      return endVector(values.length);
+    }
+
+    int createOffsetVector(int[] offsets) {
+      startVector(4, offsets.length, 4);
+      for (int i = offsets.length - 1; i >= 0; i--) {
+        addOffset(offsets[i]);
+      }
+      return endVector(offsets.length);
+    }
+
+    void startTable(int numberOfFields) {
+      vtable = new int[numberOfFields];
+      objectStart = offset();
+    }
+
+    void addByte(int field, byte value, int defaultValue) {
+      if (value != defaultValue) {
+        addByte(value);
+        vtable[field] = offset();
+      }
+    }
+
+    void addShort(int field, short value, int defaultValue) {
+      if (value != defaultValue) {
+        addShort(value);
+        vtable[field] = offset();
+      }
+    }
+
+    void addInt(int field, int value, int defaultValue) {
+      if (value != defaultValue) {
+        addInt(value);
+        vtable[field] = offset();
+      }
+    }
+
+    void addOffset(int field, int value) {
+      if (value != 0) {
+        addOffset(value);
+        vtable[field] = offset();
+      }
+    }
+
+    int endTable() {
+      addInt(0);
+      int vtableLocation = offset();
+      int i = vtable.length - 1;
+      while (i >= 0 && vtable[i] == 0) {
+        i--;
+      }
+      int trimmedSize = i + 1;
+      for (; i >= 0; i--) {
+        addShort((short) (vtable[i] != 0 ? vtableLocation - vtable[i] : 0));
+      }
+      addShort((short) (vtableLocation - objectStart));
+      addShort((short) ((trimmedSize + 2) * 2));
+      // the table starts with the signed offset to its vtable, which was written right before it
+      bb.putInt(bb.capacity() - vtableLocation, offset() - vtableLocation);
+      vtable = null;
+      return vtableLocation;
+    }
+
+    /** Finishes the buffer with the given root table and returns it, prefixed by its size. */
+    byte[] finishSizePrefixed(int rootTable) {
+      prep(minalign, 8);
+      addOffset(rootTable);
+      addInt(offset());
+      return Arrays.copyOfRange(bb.array(), space, bb.capacity());
+    }
+
+    private void startVector(int elementSize, int numberOfElements, int alignment) {
+      prep(4, elementSize * numberOfElements);
+      prep(alignment, elementSize * numberOfElements);
+    }
+
+    private int endVector(int numberOfElements) {
+      addInt(numberOfElements);
+      return offset();
+    }
+
+    private void addByte(byte value) {
+      prep(1, 0);
+      space -= 1;
+      bb.put(space, value);
+    }
+
+    private void addShort(short value) {
+      prep(2, 0);
+      space -= 2;
+      bb.putShort(space, value);
+    }
+
+    private void addInt(int value) {
+      prep(4, 0);
+      space -= 4;
+      bb.putInt(space, value);
+    }
+
+    private void addOffset(int target) {
+      prep(4, 0);
+      int relativeOffset = offset() - target + 4;
+      space -= 4;
+      bb.putInt(space, relativeOffset);
+    }
+
+    /**
+     * Prepares to write an element of the given size after additionalBytes have been written, by
+     * padding the buffer so that the element is aligned to its size.
+     */
+    private void prep(int size, int additionalBytes) {
+      if (size > minalign) {
+        minalign = size;
+      }
+      int alignSize = (~(offset() + additionalBytes) + 1) & (size - 1);
+      while (space < alignSize + size + additionalBytes) {
+        grow();
+      }
+      for (int i = 0; i < alignSize; i++) {
+        bb.put(--space, (byte) 0);
+      }
+    }
+
+    private void grow() {
+      int oldCapacity = bb.capacity();
+      ByteBuffer newBuffer = ByteBuffer.allocate(oldCapacity << 1).order(ByteOrder.LITTLE_ENDIAN);
+      System.arraycopy(bb.array(), 0, newBuffer.array(), oldCapacity, oldCapacity);
+      space += oldCapacity;
+      bb = newBuffer;
+    }
+  }
+}
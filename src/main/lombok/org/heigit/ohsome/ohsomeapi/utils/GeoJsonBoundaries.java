@@ -0,0 +1,119 @@
+package org.heigit.ohsome.ohsomeapi.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.geojson.GeoJsonObject;
+import org.geojson.LngLatAlt;
+import org.geojson.MultiPolygon;
+import org.heigit.ohsome.ohsomeapi.exception.BadRequestException;
+import org.heigit.ohsome.ohsomeapi.exception.ExceptionMessages;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+import org.wololo.jts2geojson.GeoJSONWriter;
+
+/**
+ * GeoJSON representation of the boundaries of a request, as used in the geojson responses of the
+ * /groupBy/boundary endpoints. Each boundary is converted only once and only when it is first
+ * requested: the geometries of a GeoJSON bpolys parameter are parsed from their raw JSON text, all
+ * other boundaries are converted from their JTS geometries.
+ *
+ * <p>
+ * The converted geometries are kept, so that an instance can be shared by all requests using the
+ * same cached boundary. It is thread-safe, the returned geometries must not be modified.
+ */
+public class GeoJsonBoundaries {
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private final List<Geometry> boundaryList;
+  private final String[] rawGeoJsonGeoms;
+  private final AtomicReferenceArray<GeoJsonObject> geoJsonGeoms;
+
+  /**
+   * Creates the GeoJSON representation of the given boundaries.
+   *
+   * @param boundaryList JTS geometries of the single boundaries
+   * @param rawGeoJsonGeoms raw JSON text of the geometries of a GeoJSON boundary parameter, or null
+   *        if the boundaries were not given as GeoJSON
+   */
+  public GeoJsonBoundaries(List<Geometry> boundaryList, String[] rawGeoJsonGeoms) {
+    this.boundaryList = boundaryList;
+    this.rawGeoJsonGeoms = rawGeoJsonGeoms;
+    this.geoJsonGeoms = new AtomicReferenceArray<>(
+        rawGeoJsonGeoms != null ? rawGeoJsonGeoms.length : boundaryList.size());
+  }
+
+  /** Gives the number of boundaries. */
+  public int size() {
+    return geoJsonGeoms.length();
+  }
+
+  /**
+   * Gives the GeoJSON geometry of the boundary at the given index, which is converted with the
+   * first call.
+   *
+   * @throws BadRequestException if the raw JSON text of the boundary cannot be parsed
+   */
+  public GeoJsonObject get(int index) {
+    GeoJsonObject geoJsonGeom = geoJsonGeoms.get(index);
+    if (geoJsonGeom == null) {
+      // concurrent calls might convert the same boundary twice, which gives equal geometries
+      geoJsonGeom = convert(index);
+      geoJsonGeoms.set(index, geoJsonGeom);
+    }
+    return geoJsonGeom;
+  }
+
+  private GeoJsonObject convert(int index) {
+    if (rawGeoJsonGeoms != null) {
+      try {
+        return objectMapper.readValue(rawGeoJsonGeoms[index], GeoJsonObject.class);
+      } catch (IOException e) {
+        throw new BadRequestException(ExceptionMessages.BOUNDARY_PARAM_GEOJSON_FORMAT);
+      }
+    }
+    Geometry geometry = boundaryList.get(index);
+    if (geometry instanceof Polygon) {
+      return convertPolygon((Polygon) geometry);
+    } else if (geometry instanceof org.locationtech.jts.geom.MultiPolygon) {
+      MultiPolygon multiPolygon = new MultiPolygon();
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        multiPolygon.add(convertPolygon((Polygon) geometry.getGeometryN(i)));
+      }
+      return multiPolygon;
+    }
+    // boundaries are (multi)polygons, other geometries are converted via their JSON text
+    try {
+      return objectMapper.readValue(new GeoJSONWriter().write(geometry).toString(),
+          GeoJsonObject.class);
+    } catch (IOException e) {
+      throw new BadRequestException(ExceptionMessages.BOUNDARY_PARAM_GEOJSON_FORMAT);
+    }
+  }
+
+  private static org.geojson.Polygon convertPolygon(Polygon polygon) {
+    org.geojson.Polygon geoJsonPolygon =
+        new org.geojson.Polygon(convertRing(polygon.getExteriorRing()));
+    for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+      geoJsonPolygon.addInteriorRing(convertRing(polygon.getInteriorRingN(i)));
+    }
+    return geoJsonPolygon;
+  }
+
+  private static List<LngLatAlt> convertRing(LineString ring) {
+    Coordinate[] coordinates = ring.getCoordinates();
+    List<LngLatAlt> positions = new ArrayList<>(coordinates.length);
+    for (Coordinate coordinate : coordinates) {
+      if (Double.isNaN(coordinate.z)) {
+        positions.add(new LngLatAlt(coordinate.x, coordinate.y));
+      } else {
+        positions.add(new LngLatAlt(coordinate.x, coordinate.y, coordinate.z));
+      }
+    }
+    return positions;
+  }
+}
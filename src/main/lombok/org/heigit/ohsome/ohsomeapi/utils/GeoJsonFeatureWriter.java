@@ -0,0 +1,452 @@
+package org.heigit.ohsome.ohsomeapi.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.heigit.bigspatialdata.oshdb.util.celliterator.ContributionType;
+import org.heigit.ohsome.ohsomeapi.output.ExtractionFeature;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Writes OSM features as GeoJSON directly into a growable byte buffer. The coordinates are read
+ * from the <code>CoordinateSequence</code> of the JTS geometries and written with a fixed precision
+ * of 7 decimal places, so that neither intermediate geometry objects nor a JSON object model are
+ * needed.
+ *
+ * <p>
+ * An instance is not thread-safe. It is meant to be reused by one thread for all of its features,
+ * calling {@link #reset() reset} whenever the buffered bytes have been consumed.
+ */
+public class GeoJsonFeatureWriter {
+
+  private static final long COORDINATE_SCALE = 10_000_000L;
+  private static final byte[] FEATURE_START = ascii("{\"type\":\"Feature\",\"geometry\":");
+  private static final byte[] PROPERTIES_START = ascii(",\"properties\":");
+  private static final byte[] TYPE_START = ascii("{\"type\":\"");
+  private static final byte[] COORDINATES_START = ascii("\",\"coordinates\":");
+  private static final byte[] GEOMETRIES_START = ascii("\",\"geometries\":[");
+  private static final byte[] NULL = ascii("null");
+  private static final byte[] TRUE = ascii("true");
+  private static final byte[] FALSE = ascii("false");
+  private static final byte[] HEX_DIGITS = ascii("0123456789abcdef");
+
+  private byte[] buffer;
+  private int size;
+  private boolean isFirstProperty;
+  private int tagIndex;
+
+  public GeoJsonFeatureWriter(int initialCapacity) {
+    buffer = new byte[initialCapacity];
+  }
+
+  /**
+   * Appends a GeoJSON feature with the given geometry and properties to the buffer.
+   *
+   * @param geometry the geometry of the feature, or null (e.g. for deleted OSM elements)
+   * @param properties the properties of the feature; supported values are strings, numbers,
+   *        booleans and enums, any other value is written as its string representation
+   */
+  public void writeFeature(Geometry geometry, Map<String, Object> properties) {
+    write(FEATURE_START);
+    writeGeometry(geometry);
+    write(PROPERTIES_START);
+    write('{');
+    isFirstProperty = true;
+    for (Entry<String, Object> property : properties.entrySet()) {
+      writePropertyName(property.getKey());
+      writeValue(property.getValue());
+    }
+    write('}');
+    write('}');
+  }
+
+  /**
+   * Appends a GeoJSON feature with the geometry and the properties of the given feature to the
+   * buffer.
+   *
+   * @param feature the feature to write
+   * @param tags the resolved tags of the feature as alternating keys and values, sorted by their
+   *        keys, or null if the feature has no tags
+   */
+  public void writeFeature(ExtractionFeature feature, String[] tags) {
+    write(FEATURE_START);
+    writeGeometry(feature.getGeometry());
+    write(PROPERTIES_START);
+    writeProperties(feature, tags, true);
+    write('}');
+  }
+
+  /**
+   * Appends the properties of the given feature as JSON object to the buffer. The fixed properties
+   * and the tags are merged in the order of their names, as they would be sorted in a
+   * <code>TreeMap</code>.
+   *
+   * @param feature the feature whose properties are written
+   * @param tags the resolved tags of the feature as alternating keys and values, sorted by their
+   *        keys, or null if the feature has no tags
+   * @param includeOsmId whether the "@osmId" property is written
+   */
+  public void writeProperties(ExtractionFeature feature, String[] tags, boolean includeOsmId) {
+    write('{');
+    isFirstProperty = true;
+    tagIndex = 0;
+    EnumSet<ContributionType> contributionTypes = feature.getContributionTypes();
+    if (feature.hasMetadata()) {
+      writeTagsBefore("@changesetId", tags);
+      writePropertyName("@changesetId");
+      writeLong(feature.getChangesetId());
+    }
+    if (contributionTypes != null) {
+      writeFlag("@creation", contributionTypes.contains(ContributionType.CREATION), tags);
+      writeFlag("@deletion", contributionTypes.contains(ContributionType.DELETION), tags);
+      writeFlag("@geometryChange", contributionTypes.contains(ContributionType.GEOMETRY_CHANGE),
+          tags);
+    }
+    writeStringProperty("@lastEdit", feature.getLastEdit(), tags);
+    if (includeOsmId) {
+      writeStringProperty("@osmId", feature.getOsmIdString(), tags);
+    }
+    if (feature.hasMetadata()) {
+      writeStringProperty("@osmType", feature.getOsmType().name(), tags);
+    }
+    writeStringProperty("@snapshotTimestamp", feature.getSnapshotTimestamp(), tags);
+    if (contributionTypes != null) {
+      writeFlag("@tagChange", contributionTypes.contains(ContributionType.TAG_CHANGE), tags);
+    }
+    writeStringProperty("@timestamp", feature.getTimestamp(), tags);
+    writeStringProperty("@validFrom", feature.getValidFrom(), tags);
+    writeStringProperty("@validTo", feature.getValidTo(), tags);
+    if (feature.hasMetadata()) {
+      writeTagsBefore("@version", tags);
+      writePropertyName("@version");
+      writeLong(feature.getVersion());
+    }
+    writeTagsBefore(null, tags);
+    write('}');
+  }
+
+  /** Appends a single raw byte to the buffer, e.g. a separator between two features. */
+  public void write(int b) {
+    ensureCapacity(1);
+    buffer[size++] = (byte) b;
+  }
+
+  /** Returns the number of buffered bytes. */
+  public int size() {
+    return size;
+  }
+
+  /** Discards all buffered bytes, keeping the allocated buffer for further features. */
+  public void reset() {
+    size = 0;
+  }
+
+  /** Returns a copy of the buffered bytes. */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buffer, size);
+  }
+
+  /** Writes the buffered bytes to the given output stream. */
+  public void writeTo(OutputStream outputStream) throws IOException {
+    outputStream.write(buffer, 0, size);
+  }
+
+  /** Writes the given property, if its value is not null. */
+  private void writeStringProperty(String name, String value, String[] tags) {
+    if (value == null) {
+      return;
+    }
+    writeTagsBefore(name, tags);
+    writePropertyName(name);
+    writeString(value);
+  }
+
+  /** Writes the given flag property, which is only present if it is set. */
+  private void writeFlag(String name, boolean isSet, String[] tags) {
+    if (!isSet) {
+      return;
+    }
+    writeTagsBefore(name, tags);
+    writePropertyName(name);
+    write(TRUE);
+  }
+
+  /** Writes the remaining tags, whose keys are sorted before the given name, or all if null. */
+  private void writeTagsBefore(String name, String[] tags) {
+    if (tags == null) {
+      return;
+    }
+    while (tagIndex < tags.length && (name == null || tags[tagIndex].compareTo(name) < 0)) {
+      writePropertyName(tags[tagIndex]);
+      writeString(tags[tagIndex + 1]);
+      tagIndex += 2;
+    }
+  }
+
+  private void writePropertyName(String name) {
+    if (!isFirstProperty) {
+      write(',');
+    }
+    isFirstProperty = false;
+    writeString(name);
+    write(':');
+  }
+
+  private void writeGeometry(Geometry geometry) {
+    if (geometry == null) {
+      write(NULL);
+      return;
+    }
+    write(TYPE_START);
+    writeAscii(geometry instanceof LinearRing ? "LineString" : geometry.getGeometryType());
+    if (geometry instanceof GeometryCollection && !(geometry instanceof MultiPoint
+        || geometry instanceof MultiLineString || geometry instanceof MultiPolygon)) {
+      write(GEOMETRIES_START);
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        if (i > 0) {
+          write(',');
+        }
+        writeGeometry(geometry.getGeometryN(i));
+      }
+      write(']');
+    } else {
+      write(COORDINATES_START);
+      writeCoordinates(geometry);
+    }
+    write('}');
+  }
+
+  private void writeCoordinates(Geometry geometry) {
+    if (geometry instanceof Point) {
+      CoordinateSequence coordinates = ((Point) geometry).getCoordinateSequence();
+      if (coordinates.size() == 0) {
+        write('[');
+        write(']');
+      } else {
+        writePosition(coordinates, 0);
+      }
+    } else if (geometry instanceof LineString) {
+      writePositions(((LineString) geometry).getCoordinateSequence());
+    } else if (geometry instanceof Polygon) {
+      Polygon polygon = (Polygon) geometry;
+      write('[');
+      if (!polygon.isEmpty()) {
+        writePositions(polygon.getExteriorRing().getCoordinateSequence());
+        for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+          write(',');
+          writePositions(polygon.getInteriorRingN(i).getCoordinateSequence());
+        }
+      }
+      write(']');
+    } else {
+      // MultiPoint, MultiLineString or MultiPolygon
+      write('[');
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        if (i > 0) {
+          write(',');
+        }
+        writeCoordinates(geometry.getGeometryN(i));
+      }
+      write(']');
+    }
+  }
+
+  private void writePositions(CoordinateSequence coordinates) {
+    write('[');
+    for (int i = 0; i < coordinates.size(); i++) {
+      if (i > 0) {
+        write(',');
+      }
+      writePosition(coordinates, i);
+    }
+    write(']');
+  }
+
+  private void writePosition(CoordinateSequence coordinates, int index) {
+    write('[');
+    writeCoordinate(coordinates.getOrdinate(index, CoordinateSequence.X));
+    write(',');
+    writeCoordinate(coordinates.getOrdinate(index, CoordinateSequence.Y));
+    write(']');
+  }
+
+  /**
+   * Writes the given ordinate rounded to 7 decimal places, using the same rounding as a
+   * <code>PrecisionModel</code> with a scale of 1E7. Trailing zeros of the fraction are omitted.
+   */
+  private void writeCoordinate(double ordinate) {
+    long units = Math.round(ordinate * COORDINATE_SCALE);
+    if (units < 0) {
+      write('-');
+      units = -units;
+    }
+    writeLong(units / COORDINATE_SCALE);
+    write('.');
+    long fraction = units % COORDINATE_SCALE;
+    int digits = 7;
+    while (digits > 1 && fraction % 10 == 0) {
+      fraction /= 10;
+      digits--;
+    }
+    ensureCapacity(digits);
+    for (int i = size + digits - 1; i >= size; i--) {
+      buffer[i] = (byte) ('0' + fraction % 10);
+      fraction /= 10;
+    }
+    size += digits;
+  }
+
+  private void writeValue(Object value) {
+    if (value == null) {
+      write(NULL);
+    } else if (value instanceof String) {
+      writeString((String) value);
+    } else if (value instanceof Boolean) {
+      write((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+        || value instanceof Byte) {
+      writeLong(((Number) value).longValue());
+    } else if ((value instanceof Double || value instanceof Float)
+        && !Double.isFinite(((Number) value).doubleValue())) {
+      // NaN and infinite values have no JSON representation
+      write(NULL);
+    } else if (value instanceof Number) {
+      writeAscii(value.toString());
+    } else if (value instanceof Enum) {
+      writeString(((Enum<?>) value).name());
+    } else {
+      writeString(value.toString());
+    }
+  }
+
+  private void writeLong(long value) {
+    if (value == Long.MIN_VALUE) {
+      writeAscii(Long.toString(value));
+      return;
+    }
+    if (value < 0) {
+      write('-');
+      value = -value;
+    }
+    int digits = 1;
+    for (long rest = value / 10; rest > 0; rest /= 10) {
+      digits++;
+    }
+    ensureCapacity(digits);
+    for (int i = size + digits - 1; i >= size; i--) {
+      buffer[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    size += digits;
+  }
+
+  /** Writes the given string as quoted and escaped JSON string in UTF-8 encoding. */
+  private void writeString(String value) {
+    int length = value.length();
+    // worst case: each char is written as a unicode escape sequence of 6 bytes
+    ensureCapacity(6 * length + 2);
+    byte[] buf = buffer;
+    int pos = size;
+    buf[pos++] = '"';
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c >= 0x20 && c < 0x80) {
+        if (c == '"' || c == '\\') {
+          buf[pos++] = '\\';
+        }
+        buf[pos++] = (byte) c;
+      } else if (c < 0x20) {
+        pos = writeControlChar(buf, pos, c);
+      } else if (c < 0x800) {
+        buf[pos++] = (byte) (0xC0 | c >> 6);
+        buf[pos++] = (byte) (0x80 | c & 0x3F);
+      } else if (Character.isHighSurrogate(c) && i + 1 < length
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        buf[pos++] = (byte) (0xF0 | codePoint >> 18);
+        buf[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+        buf[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+        buf[pos++] = (byte) (0x80 | codePoint & 0x3F);
+      } else if (Character.isSurrogate(c)) {
+        // unpaired surrogates cannot be encoded in UTF-8: escape them instead
+        pos = writeUnicodeEscape(buf, pos, c);
+      } else {
+        buf[pos++] = (byte) (0xE0 | c >> 12);
+        buf[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+        buf[pos++] = (byte) (0x80 | c & 0x3F);
+      }
+    }
+    buf[pos++] = '"';
+    size = pos;
+  }
+
+  private static int writeControlChar(byte[] buf, int pos, char c) {
+    switch (c) {
+      case '\n':
+        buf[pos++] = '\\';
+        buf[pos++] = 'n';
+        return pos;
+      case '\r':
+        buf[pos++] = '\\';
+        buf[pos++] = 'r';
+        return pos;
+      case '\t':
+        buf[pos++] = '\\';
+        buf[pos++] = 't';
+        return pos;
+      default:
+        return writeUnicodeEscape(buf, pos, c);
+    }
+  }
+
+  private static int writeUnicodeEscape(byte[] buf, int pos, char c) {
+    buf[pos++] = '\\';
+    buf[pos++] = 'u';
+    buf[pos++] = HEX_DIGITS[c >> 12 & 0xF];
+    buf[pos++] = HEX_DIGITS[c >> 8 & 0xF];
+    buf[pos++] = HEX_DIGITS[c >> 4 & 0xF];
+    buf[pos++] = HEX_DIGITS[c & 0xF];
+    return pos;
+  }
+
+  /** Writes the given string, which must only consist of ASCII characters, unquoted. */
+  private void writeAscii(String value) {
+    int length = value.length();
+    ensureCapacity(length);
+    for (int i = 0; i < length; i++) {
+      buffer[size++] = (byte) value.charAt(i);
+    }
+  }
+
+  private void write(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, size, bytes.length);
+    size += bytes.length;
+  }
+
+  private void ensureCapacity(int additionalBytes) {
+    if (size + additionalBytes > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, size + additionalBytes));
+    }
+  }
+
+  private static byte[] ascii(String value) {
+    byte[] bytes = new byte[value.length()];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) value.charAt(i);
+    }
+    return bytes;
+  }
+}
@@ -1,7 +1,6 @@
 package org.heigit.ohsome.ohsomeapi.utils;
 
 import org.geojson.Feature;
-import org.geojson.GeoJsonObject;
 import org.heigit.ohsome.ohsomeapi.output.Result;
 import org.heigit.ohsome.ohsomeapi.output.contributions.UsersResult;
 import org.heigit.ohsome.ohsomeapi.output.elements.ElementsResult;
@@ -17,7 +16,7 @@ public class GroupByBoundaryGeoJsonGenerator {
 
   /** Creates the GeoJson features used in the GeoJson response. */
   public static Feature[] createGeoJsonFeatures(GroupByObject[] results,
-      GeoJsonObject[] geojsonGeoms) {
+      GeoJsonBoundaries geojsonGeoms) {
     int groupByResultsLength = results.length;
     int groupByResultCount = 0;
     int tstampCount = 0;
@@ -34,7 +33,7 @@ public class GroupByBoundaryGeoJsonGenerator {
   }
 
   private static Feature[] generateRatioGroupByResultGeoJson(GroupByObject[] results,
-      GeoJsonObject[] geojsonGeoms, int groupByResultsLength, int groupByResultCount,
+      GeoJsonBoundaries geojsonGeoms, int groupByResultsLength, int groupByResultCount,
       int tstampCount) {
     Feature[] features;
     RatioGroupByResult[] groupByResults = (RatioGroupByResult[]) results;
@@ -48,7 +47,7 @@ public class GroupByBoundaryGeoJsonGenerator {
       feature.setProperty("value", result.getValue());
       feature.setProperty("value2", result.getValue2());
       feature.setProperty("ratio", result.getRatio());
-      feature.setGeometry(geojsonGeoms[groupByResultCount]);
+      feature.setGeometry(geojsonGeoms.get(groupByResultCount));
       tstampCount++;
       if (tstampCount == resultLength) {
         tstampCount = 0;
@@ -68,13 +67,13 @@ public class GroupByBoundaryGeoJsonGenerator {
    *         UserResult}
    */
   private static Feature[] generateGroupByResultGeoJson(GroupByObject[] results,
-      GeoJsonObject[] geojsonGeoms, int groupByResultsLength, int groupByResultCount,
+      GeoJsonBoundaries geojsonGeoms, int groupByResultsLength, int groupByResultCount,
       int tstampCount, int boundaryCount) {
     Feature[] features;
     GroupByResult[] groupByResults = (GroupByResult[]) results;
     int resultLength = groupByResults[0].getResult().length;
     int featuresLength = groupByResultsLength * resultLength;
-    int nestedGroupByNextBoundaryInterval = featuresLength / geojsonGeoms.length;
+    int nestedGroupByNextBoundaryInterval = featuresLength / geojsonGeoms.size();
     features = new Feature[featuresLength];
     for (int i = 0; i < featuresLength; i++) {
       Result res = groupByResults[groupByResultCount].getResult()[tstampCount];
@@ -94,12 +93,12 @@ public class GroupByBoundaryGeoJsonGenerator {
       feature.setProperty("value", res.getValue());
       // needed for /groupBy/boundary/groupBy/tag
       if (results[groupByResultCount].getGroupByObject() instanceof Object[]) {
-        feature.setGeometry(geojsonGeoms[boundaryCount]);
+        feature.setGeometry(geojsonGeoms.get(boundaryCount));
         if ((i + 1) % nestedGroupByNextBoundaryInterval == 0) {
           boundaryCount++;
         }
       } else {
-        feature.setGeometry(geojsonGeoms[groupByResultCount]);
+        feature.setGeometry(geojsonGeoms.get(groupByResultCount));
       }
       tstampCount++;
       if (tstampCount == resultLength) {
@@ -1,5 +1,6 @@
 package org.heigit.ohsome.ohsomeapi.utils;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import javax.servlet.http.HttpServletRequest;
@@ -8,9 +9,10 @@ import org.heigit.bigspatialdata.oshdb.api.db.OSHDBJdbc;
 import org.heigit.ohsome.ohsomeapi.exception.DatabaseAccessException;
 import org.heigit.ohsome.ohsomeapi.exception.ExceptionMessages;
 import org.heigit.ohsome.ohsomeapi.inputprocessing.GeometryBuilder;
-import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
 import org.heigit.ohsome.ohsomeapi.oshdb.DbConnData;
 import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadata;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadataSnapshot;
+import org.locationtech.jts.geom.Geometry;
 
 /** Utils class containing request-specific static utility methods. */
 public class RequestUtils {
@@ -84,7 +86,48 @@ public class RequestUtils {
   }
 
   /**
-   * Extracts some metadata from the OSHDB keytables or db and adds it to the corresponding objects.
+   * Checks if the given request uses the flatgeobuf format.
+   * 
+   * @param request <code>HttpServletRequest</code> object used to check
+   * @return whether it uses the flatgeobuf format, or not
+   */
+  public static boolean usesFlatGeobufFormat(HttpServletRequest request) {
+    return usesFlatGeobufFormat(request.getParameter("format"));
+  }
+
+  /**
+   * Checks if the given format parameter is the flatgeobuf format.
+   *
+   * @param format value of the format parameter, or null
+   * @return whether it is the flatgeobuf format, or not
+   */
+  public static boolean usesFlatGeobufFormat(String format) {
+    return "flatgeobuf".equalsIgnoreCase(format);
+  }
+
+  /**
+   * Checks if the given request uses the geojsonseq format.
+   * 
+   * @param request <code>HttpServletRequest</code> object used to check
+   * @return whether it uses the geojsonseq format, or not
+   */
+  public static boolean usesGeoJsonSeqFormat(HttpServletRequest request) {
+    return usesGeoJsonSeqFormat(request.getParameter("format"));
+  }
+
+  /**
+   * Checks if the given format parameter is the geojsonseq format.
+   *
+   * @param format value of the format parameter, or null
+   * @return whether it is the geojsonseq format, or not
+   */
+  public static boolean usesGeoJsonSeqFormat(String format) {
+    return "geojsonseq".equalsIgnoreCase(format);
+  }
+
+  /**
+   * Extracts some metadata from the OSHDB keytables or db and publishes it as a new
+   * {@link org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadataSnapshot ExtractMetadataSnapshot}.
    * 
    * @throws DatabaseAccessException if the keytables are missing
    * @throws RuntimeException if the timerange metadata cannot be retrieved from the db
@@ -92,44 +135,69 @@ public class RequestUtils {
    *         {@link com.fasterxml.jackson.databind.ObjectMapper#readTree(String) readTree}
    */
   public static void extractOSHDBMetadata() throws IOException {
-    OSHDBDatabase db;
-    if (DbConnData.keytables != null) {
-      db = DbConnData.keytables;
-    } else {
-      if (!(DbConnData.db instanceof OSHDBJdbc)) {
-        throw new DatabaseAccessException(ExceptionMessages.DATABASE_ACCESS);
-      }
-      db = DbConnData.db;
-    }
-    if (db.metadata("extract.region") != null) {
-      String dataPolyString = db.metadata("extract.region");
+    OSHDBDatabase db = getMetadataDb();
+    ExtractMetadataSnapshot current = ExtractMetadata.getSnapshot();
+    Geometry dataPoly = current != null ? current.getDataPoly() : null;
+    JsonNode dataPolyJson = current != null ? current.getDataPolyJson() : null;
+    String dataPolyString = db.metadata("extract.region");
+    if (dataPolyString != null) {
       ObjectMapper mapper = new ObjectMapper();
-      ExtractMetadata.dataPolyJson = mapper.readTree(dataPolyString);
+      dataPolyJson = mapper.readTree(dataPolyString);
       GeometryBuilder geomBuilder = new GeometryBuilder();
-      geomBuilder.createGeometryFromMetadataGeoJson(dataPolyString);
-      ExtractMetadata.dataPoly = ProcessingData.getDataPolyGeom();
+      dataPoly = geomBuilder.createGeometryFromMetadataGeoJson(dataPolyString);
     }
-    if (db.metadata("extract.timerange") != null) {
-      String[] timeranges = db.metadata("extract.timerange").split(",");
-      ExtractMetadata.fromTstamp = timeranges[0];
-      ExtractMetadata.toTstamp = timeranges[1];
-    } else {
+    String timerange = db.metadata("extract.timerange");
+    if (timerange == null) {
       throw new RuntimeException("The timerange metadata could not be retrieved from the db.");
     }
-    if (db.metadata("attribution.short") != null) {
-      ExtractMetadata.attributionShort = db.metadata("attribution.short");
-    } else {
-      ExtractMetadata.attributionShort = "© OpenStreetMap contributors";
+    String[] timeranges = timerange.split(",");
+    String attributionShort = db.metadata("attribution.short");
+    if (attributionShort == null) {
+      attributionShort = "© OpenStreetMap contributors";
     }
-    if (db.metadata("attribution.url") != null) {
-      ExtractMetadata.attributionUrl = db.metadata("attribution.url");
-    } else {
-      ExtractMetadata.attributionUrl = "https://ohsome.org/copyrights";
+    String attributionUrl = db.metadata("attribution.url");
+    if (attributionUrl == null) {
+      attributionUrl = "https://ohsome.org/copyrights";
+    }
+    Integer sequenceNumber = extractReplicationSequenceNumber(db);
+    int replicationSequenceNumber = sequenceNumber != null ? sequenceNumber
+        : current != null ? current.getReplicationSequenceNumber() : 0;
+    ExtractMetadata.publish(new ExtractMetadataSnapshot(timeranges[0], timeranges[1],
+        attributionShort, attributionUrl, dataPoly, dataPolyJson, replicationSequenceNumber));
+  }
+
+  /**
+   * Reads only the replication sequence number of the data-extract from the OSHDB keytables or db.
+   * This is a cheap lookup, which can be used to check if the metadata has changed.
+   *
+   * @return the replication sequence number, or null if it is not defined in the metadata
+   * @throws DatabaseAccessException if the keytables are missing
+   */
+  public static Integer extractReplicationSequenceNumber() {
+    return extractReplicationSequenceNumber(getMetadataDb());
+  }
+
+  /**
+   * Gets the database holding the metadata of the data-extract.
+   *
+   * @throws DatabaseAccessException if the keytables are missing
+   */
+  private static OSHDBDatabase getMetadataDb() {
+    if (DbConnData.keytables != null) {
+      return DbConnData.keytables;
+    }
+    if (!(DbConnData.db instanceof OSHDBJdbc)) {
+      throw new DatabaseAccessException(ExceptionMessages.DATABASE_ACCESS);
     }
-    if (db.metadata("header.osmosis_replication_sequence_number") != null) {
-      ExtractMetadata.replicationSequenceNumber =
-          Integer.parseInt(db.metadata("header.osmosis_replication_sequence_number"));
+    return DbConnData.db;
+  }
+
+  private static Integer extractReplicationSequenceNumber(OSHDBDatabase db) {
+    String sequenceNumber = db.metadata("header.osmosis_replication_sequence_number");
+    if (sequenceNumber == null) {
+      return null;
     }
+    return Integer.parseInt(sequenceNumber);
   }
 
   /**
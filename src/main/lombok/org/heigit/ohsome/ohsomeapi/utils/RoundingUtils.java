@@ -0,0 +1,62 @@
+package org.heigit.ohsome.ohsomeapi.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Utils class containing thread-safe static methods for rounding the result values, which replace
+ * the formatting and re-parsing of each value with a shared <code>DecimalFormat</code>.
+ *
+ * <p>
+ * The values are rounded half-even, based on their exact binary value, which gives the same
+ * results as the previously used <code>DecimalFormat</code> patterns (e.g. "#.##"). Only values
+ * lying very close to the middle of two rounded values, or values too large to be scaled exactly,
+ * fall back to a <code>BigDecimal</code>.
+ */
+public class RoundingUtils {
+
+  /** Number of decimal places of the aggregation result values. */
+  public static final int RESULT_DECIMALS = 2;
+  /** Number of decimal places of the ratio values. */
+  public static final int RATIO_DECIMALS = 6;
+  private static final double[] POWERS_OF_TEN =
+      {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+  /** Bound of the scaled values, up to which they are rounded without a BigDecimal. */
+  private static final double MAX_SCALED_VALUE = 0x1p52;
+
+  private RoundingUtils() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /** Rounds the given value to {@link #RESULT_DECIMALS} decimal places. */
+  public static double round(double value) {
+    return round(value, RESULT_DECIMALS);
+  }
+
+  /**
+   * Rounds the given value half-even to the given number of decimal places. Values, which are NaN
+   * or infinite, are returned unchanged.
+   *
+   * @param value the value to round
+   * @param decimals number of decimal places between 0 and 15
+   * @return the double value closest to the rounded decimal value
+   */
+  public static double round(double value, int decimals) {
+    if (!Double.isFinite(value)) {
+      return value;
+    }
+    double scale = POWERS_OF_TEN[decimals];
+    double scaled = value * scale;
+    double floor = Math.floor(scaled);
+    double fraction = scaled - floor;
+    // the multiplication is inexact by up to half an ulp, which only matters close to a tie
+    if (Math.abs(scaled) < MAX_SCALED_VALUE && Math.abs(fraction - 0.5) > 4 * Math.ulp(scaled)) {
+      // both operands are exact, so the division gives the double closest to the decimal value
+      double rounded = (fraction < 0.5 ? floor : floor + 1) / scale;
+      return Math.copySign(rounded, value);
+    }
+    double rounded =
+        new BigDecimal(value).setScale(decimals, RoundingMode.HALF_EVEN).doubleValue();
+    return Math.copySign(rounded, value);
+  }
+}
@@ -5,6 +5,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -81,6 +82,23 @@ public class DataExtractionTest {
     assertTrue(Helper.getFeatureByIdentifier(response, "@osmId", "way/4084860") != null);
   }
 
+  @Test
+  public void elementsGeomGeoJsonSeqFormatTest() throws Exception {
+    TestRestTemplate restTemplate = new TestRestTemplate();
+    ResponseEntity<String> response = restTemplate.getForEntity(server + port
+        + "/elements/geometry?bboxes=8.67452,49.40961,8.70392,49.41823&format=geojsonseq"
+        + "&time=2015-01-01&properties=metadata&filter=type:way and building=residential",
+        String.class);
+    boolean containsFeature = false;
+    for (String record : response.getBody().split("\n")) {
+      assertTrue(record.startsWith("\u001e"));
+      JsonNode feature = new ObjectMapper().readTree(record.substring(1));
+      assertEquals("Feature", feature.get("type").asText());
+      containsFeature |= "way/140112811".equals(feature.get("properties").get("@osmId").asText());
+    }
+    assertTrue(containsFeature);
+  }
+
   @Test
   public void elementsGeomUnclippedSimpleFeaturesTest() {
     TestRestTemplate restTemplate = new TestRestTemplate();
@@ -283,6 +301,14 @@ public class DataExtractionTest {
     assertEquals(400, response.getBody().get("status").asInt());
   }
 
+  @Test
+  public void dataExtractionWithAggregationFormatTest() {
+    TestRestTemplate restTemplate = new TestRestTemplate();
+    ResponseEntity<JsonNode> response = restTemplate.getForEntity(server + port
+        + "/elements/geometry?bboxes=8.67452,49.40961,8.70392,49.41823&format=csv", JsonNode.class);
+    assertEquals(400, response.getBody().get("status").asInt());
+  }
+
   /*
    * ./contributions tests
    */
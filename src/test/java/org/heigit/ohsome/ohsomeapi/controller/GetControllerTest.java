@@ -1,6 +1,7 @@
 package org.heigit.ohsome.ohsomeapi.controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
@@ -144,6 +145,30 @@ public class GetControllerTest {
     assertEquals(40, response.getBody().get("result").get(0).get("value").asInt());
   }
 
+  @Test
+  public void getElementsCountCompactJsonTest() {
+    String responseBody = getResponseBody("/elements/count?bboxes=8.67452,49.40961,8.70392,"
+        + "49.41823&time=2015-01-01&filter=type:way and building=residential&pretty=false");
+    assertFalse(responseBody.contains("\n"));
+    assertTrue(responseBody.contains("\"value\":40.0"));
+  }
+
+  @Test
+  public void getElementsStatsTest() {
+    TestRestTemplate restTemplate = new TestRestTemplate();
+    String parameters = "?bboxes=8.67452,49.40961,8.70392,49.41823&time=2015-01-01&"
+        + "filter=type:way and building=residential";
+    ResponseEntity<JsonNode> response = restTemplate.getForEntity(
+        server + port + "/elements/stats" + parameters + "&metrics=count,area", JsonNode.class);
+    ResponseEntity<JsonNode> areaResponse = restTemplate
+        .getForEntity(server + port + "/elements/area" + parameters, JsonNode.class);
+    JsonNode result = response.getBody().get("result").get(0);
+    assertEquals(40, result.get("count").asInt());
+    assertEquals(areaResponse.getBody().get("result").get(0).get("value").asDouble(),
+        result.get("area").asDouble(), 1e-6);
+    assertFalse(result.has("length"));
+  }
+
   @Test
   public void getElementsCountGroupByBoundaryTest() {
     TestRestTemplate restTemplate = new TestRestTemplate();
@@ -0,0 +1,112 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assume.assumeTrue;
+import org.heigit.ohsome.ohsomeapi.controller.TestProperties;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.BoundaryType;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessor;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.locationtech.jts.io.WKTReader;
+
+/**
+ * Test class for the
+ * {@link org.heigit.ohsome.ohsomeapi.executor.AggregationResultCache#createKey(String,
+ * InputProcessor, String...) createKey} method of the AggregationResultCache class.
+ */
+public class AggregationResultCacheTest {
+
+  private static final String BOUNDARY = "POLYGON ((8 49, 9 49, 9 50, 8 50, 8 49))";
+  private static final String[] TYPES = {"way", "node"};
+  private static final String[] KEYS = {"building", "highway"};
+  private static final String[] VALUES = {"yes", "residential"};
+  private static final String[] TIME = {"2015-01-01", "2016-01-01"};
+
+  /** Checks the value of the junit property. */
+  @BeforeClass
+  public static void checkJunitProperty() {
+    assumeTrue(TestProperties.JUNIT == null || !TestProperties.JUNIT.equalsIgnoreCase("no"));
+  }
+
+  /** Creates the key of a request with the given, already processed parameters. */
+  private static String createKey(String boundary, String[] types, String[] keys,
+      String[] values, String[] time, String filter, String... additionalParameters)
+      throws Exception {
+    ProcessingData processingData = new ProcessingData(new RequestParameters("GET", true, false,
+        "", "", "", types, keys, values, time, "", "", 0, filter), "");
+    processingData.setBoundaryType(BoundaryType.BPOLYS);
+    processingData.setRequestGeom(new WKTReader().read(boundary));
+    return AggregationResultCache.createKey("aggregate/COUNT", new InputProcessor(processingData),
+        additionalParameters);
+  }
+
+  private static String createKey(String filter) throws Exception {
+    return createKey(BOUNDARY, new String[0], new String[0], new String[0], TIME, filter);
+  }
+
+  private static String createKey() throws Exception {
+    return createKey(BOUNDARY, TYPES, KEYS, VALUES, TIME, "");
+  }
+
+  @Test
+  public void sameKeyForReorderedTypesAndTags() throws Exception {
+    assertEquals(createKey(), createKey(BOUNDARY, new String[] {"NODE", " way"},
+        new String[] {"highway", "building"}, new String[] {"residential", "yes"}, TIME, ""));
+  }
+
+  @Test
+  public void sameKeyForOtherNotationOfTimestamps() throws Exception {
+    assertEquals(createKey(), createKey(BOUNDARY, TYPES, KEYS, VALUES,
+        new String[] {"2016-01-01T00:00:00Z", "2015-01-01"}, ""));
+  }
+
+  @Test
+  public void sameKeyForOtherNotationOfBoundary() throws Exception {
+    assertEquals(createKey(), createKey("POLYGON ((9 50, 8 50, 8 49, 9 49, 9 50))", TYPES, KEYS,
+        VALUES, TIME, ""));
+  }
+
+  @Test
+  public void sameKeyForOtherWhitespaceInFilter() throws Exception {
+    assertEquals(createKey("type:way and (highway=primary or name in (\"A b\", c))"),
+        createKey(" type:way  and\n( highway = primary or name in (\"A b\" ,c) ) "));
+  }
+
+  @Test
+  public void otherKeyForOtherTypesOrTags() throws Exception {
+    String key = createKey();
+    assertNotEquals(key,
+        createKey(BOUNDARY, new String[] {"way"}, KEYS, VALUES, TIME, ""));
+    assertNotEquals(key, createKey(BOUNDARY, TYPES, KEYS,
+        new String[] {"residential", "yes"}, TIME, ""));
+    assertNotEquals(key, createKey(BOUNDARY, TYPES, KEYS, new String[] {"yes"}, TIME, ""));
+  }
+
+  @Test
+  public void otherKeyForOtherTimestampsOrBoundary() throws Exception {
+    String key = createKey();
+    assertNotEquals(key, createKey(BOUNDARY, TYPES, KEYS, VALUES,
+        new String[] {"2015-01-01", "2016-01-02"}, ""));
+    assertNotEquals(key, createKey("POLYGON ((8 49, 9 49, 9 51, 8 50, 8 49))", TYPES, KEYS,
+        VALUES, TIME, ""));
+  }
+
+  @Test
+  public void otherKeyForOtherFilter() throws Exception {
+    String key = createKey("type:way and highway=primary");
+    assertNotEquals(key, createKey("type:way and highway=secondary"));
+    assertNotEquals(key, createKey("type:way or highway=primary"));
+    assertNotEquals(createKey("name=\"A b\""), createKey("name=\"Ab\""));
+    assertNotEquals(createKey("name=\"A b\""), createKey("name=\"a b\""));
+  }
+
+  @Test
+  public void otherKeyForOtherOperationParameters() throws Exception {
+    assertNotEquals(createKey(BOUNDARY, TYPES, KEYS, VALUES, TIME, "", "highway", "primary"),
+        createKey(BOUNDARY, TYPES, KEYS, VALUES, TIME, "", "highway", "secondary"));
+    assertNotEquals(createKey(BOUNDARY, TYPES, KEYS, VALUES, TIME, "", "highway", ""),
+        createKey(BOUNDARY, TYPES, KEYS, VALUES, TIME, "", "highway"));
+  }
+}
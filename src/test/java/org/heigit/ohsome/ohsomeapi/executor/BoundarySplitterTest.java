@@ -0,0 +1,150 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.heigit.ohsome.ohsomeapi.controller.TestProperties;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.TopologyException;
+import org.locationtech.jts.io.WKTReader;
+
+/**
+ * Test class for the
+ * {@link org.heigit.ohsome.ohsomeapi.executor.BoundarySplitter BoundarySplitter} class. The
+ * results of the splitter are compared to the plain intersections of the geometry with each of the
+ * boundaries.
+ */
+public class BoundarySplitterTest {
+
+  private static final String[] BOUNDARIES = {
+      "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))",
+      // touches the first boundary
+      "POLYGON ((10 0, 20 0, 20 10, 10 10, 10 0))",
+      // overlaps the first and the second boundary
+      "POLYGON ((5 5, 15 5, 15 15, 5 15, 5 5))",
+      // disjoint from the other boundaries
+      "POLYGON ((30 30, 40 30, 40 40, 30 40, 30 30))",
+      // contains all other boundaries
+      "POLYGON ((0 0, 50 0, 50 50, 0 50, 0 0))"};
+  private final WKTReader wktReader = new WKTReader();
+  private final List<Geometry> boundaries = new ArrayList<>();
+  private final BoundarySplitter splitter;
+
+  /** Creates the splitter of the test boundaries. */
+  public BoundarySplitterTest() throws Exception {
+    for (String boundary : BOUNDARIES) {
+      boundaries.add(wktReader.read(boundary));
+    }
+    splitter = new BoundarySplitter(boundaries);
+  }
+
+  /** Checks the value of the junit property. */
+  @BeforeClass
+  public static void checkJunitProperty() {
+    assumeTrue(TestProperties.JUNIT == null || !TestProperties.JUNIT.equalsIgnoreCase("no"));
+  }
+
+  /**
+   * Computes the intersection like the splitter does: plainly, or with a repaired polygon, if the
+   * plain intersection cannot be computed.
+   */
+  private static Geometry intersection(Geometry geometry, Geometry boundary) {
+    try {
+      return geometry.intersection(boundary);
+    } catch (TopologyException e) {
+      return geometry instanceof Polygonal ? geometry.buffer(0).intersection(boundary) : null;
+    }
+  }
+
+  /**
+   * Splits the given geometry and checks, that there is a part for exactly those boundaries, with
+   * which the geometry has a non-empty intersection, and that each part equals this intersection.
+   *
+   * @return the indices of the boundaries of the parts
+   */
+  private TreeSet<Integer> assertSplitEqualsIntersections(String wkt) throws Exception {
+    Geometry geometry = wktReader.read(wkt);
+    Map<Integer, Geometry> parts = splitter.split(geometry);
+    for (int i = 0; i < boundaries.size(); i++) {
+      Geometry expected = intersection(geometry, boundaries.get(i));
+      if (expected == null || expected.isEmpty()) {
+        assertFalse("boundary " + i, parts.containsKey(i));
+        continue;
+      }
+      Geometry part = parts.get(i);
+      assertNotNull("boundary " + i, part);
+      assertTrue("boundary " + i + ": " + expected + " != " + part,
+          expected.equalsExact(part) || expected.equalsTopo(part));
+    }
+    TreeSet<Integer> indices = new TreeSet<>(parts.keySet());
+    assertEquals(indices, new TreeSet<>(splitter.intersecting(geometry)));
+    return indices;
+  }
+
+  @Test
+  public void splitDisjointGeometry() throws Exception {
+    assertTrue(assertSplitEqualsIntersections("POLYGON ((60 60, 61 60, 61 61, 60 60))")
+        .isEmpty());
+    assertEquals(new TreeSet<>(Arrays.asList(3, 4)),
+        assertSplitEqualsIntersections("POLYGON ((31 31, 32 31, 32 32, 31 31))"));
+  }
+
+  @Test
+  public void splitGeometryTouchingBoundaries() throws Exception {
+    // lies on the common edge of the first and the second boundary
+    assertEquals(new TreeSet<>(Arrays.asList(0, 1, 4)),
+        assertSplitEqualsIntersections("LINESTRING (10 2, 10 4)"));
+    // touches the first and the last boundary from outside
+    assertEquals(new TreeSet<>(Arrays.asList(0, 4)),
+        assertSplitEqualsIntersections("POLYGON ((-5 1, 0 1, 0 4, -5 4, -5 1))"));
+  }
+
+  @Test
+  public void splitGeometryOverlappingBoundaries() throws Exception {
+    assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2, 4)),
+        assertSplitEqualsIntersections("POLYGON ((8 8, 12 8, 12 12, 8 12, 8 8))"));
+    assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2, 4)),
+        assertSplitEqualsIntersections("LINESTRING (-5 7, 25 7)"));
+    assertEquals(new TreeSet<>(Arrays.asList(0, 2, 4)),
+        assertSplitEqualsIntersections("POINT (7 7)"));
+  }
+
+  @Test
+  public void splitGeometryContainingOrContainedInBoundaries() throws Exception {
+    Geometry contained = wktReader.read("POLYGON ((31 31, 39 31, 39 39, 31 39, 31 31))");
+    // geometries within a boundary are not clipped
+    assertSame(contained, splitter.split(contained).get(3));
+    assertEquals(new TreeSet<>(Arrays.asList(3, 4)),
+        assertSplitEqualsIntersections("POLYGON ((25 25, 45 25, 45 45, 25 45, 25 25))"));
+    assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2, 3, 4)),
+        assertSplitEqualsIntersections("POLYGON ((-1 -1, 60 -1, 60 60, -1 60, -1 -1))"));
+  }
+
+  @Test
+  public void splitInvalidGeometry() throws Exception {
+    // self-intersecting bow tie across the common edge of the first and the second boundary,
+    // which is not covered by any boundary, so that it has to be clipped
+    TreeSet<Integer> indices =
+        assertSplitEqualsIntersections("POLYGON ((5 -1, 15 9, 15 -1, 5 9, 5 -1))");
+    assertTrue(indices.contains(0));
+    assertTrue(indices.contains(1));
+  }
+
+  @Test
+  public void splitNullOrEmptyGeometry() throws Exception {
+    assertTrue(splitter.split(null).isEmpty());
+    assertTrue(splitter.split(wktReader.read("POLYGON EMPTY")).isEmpty());
+    assertTrue(splitter.intersecting(null).isEmpty());
+  }
+}
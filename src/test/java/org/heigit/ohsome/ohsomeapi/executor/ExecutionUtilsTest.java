@@ -0,0 +1,148 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import org.heigit.bigspatialdata.oshdb.osm.OSMType;
+import org.heigit.ohsome.ohsomeapi.controller.TestProperties;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.ProcessingData;
+import org.heigit.ohsome.ohsomeapi.oshdb.CancellationToken;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExecutionContext;
+import org.heigit.ohsome.ohsomeapi.output.Attribution;
+import org.heigit.ohsome.ohsomeapi.output.ExtractionFeature;
+import org.heigit.ohsome.ohsomeapi.output.ExtractionResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Test class for the streaming of data-extraction responses of the
+ * {@link org.heigit.ohsome.ohsomeapi.executor.ExecutionUtils ExecutionUtils} class.
+ */
+public class ExecutionUtilsTest {
+
+  private static final int THREADS = 2;
+  private static final int NUMBER_OF_FEATURES = 20000;
+  private final CancellationToken cancellationToken = new CancellationToken();
+  private DataExtractionPool dataExtractionPool;
+
+  /** Checks the value of the junit property. */
+  @BeforeClass
+  public static void checkJunitProperty() {
+    assumeTrue(TestProperties.JUNIT == null || !TestProperties.JUNIT.equalsIgnoreCase("no"));
+  }
+
+  /** Creates the shared pool, on which the features are processed. */
+  @Before
+  public void createDataExtractionPool() {
+    ProcessingData.setNumberOfDataExtractionThreads(THREADS);
+    dataExtractionPool = new DataExtractionPool(1);
+    dataExtractionPool.init();
+  }
+
+  /** Shuts down the shared pool. */
+  @After
+  public void shutdownDataExtractionPool() {
+    dataExtractionPool.shutdown();
+    ProcessingData.setNumberOfDataExtractionThreads(1);
+  }
+
+  /**
+   * Streams the features in the given format to a client, which disconnects as soon as it has
+   * received the first feature, and gives the received response.
+   */
+  private String streamToDisconnectingClient(String format) {
+    ProcessingData processingData = new ProcessingData(null, "");
+    processingData.setFormat(format);
+    processingData.setPrettyPrint(false);
+    processingData.setExecutionContext(new ExecutionContext(0, null, cancellationToken));
+    DisconnectingResponse servletResponse = new DisconnectingResponse();
+    ExtractionResponse osmData = new ExtractionResponse(new Attribution("url", "text"), "1",
+        null, "FeatureCollection", new ArrayList<>());
+    try {
+      new ExecutionUtils(processingData).streamResponse(servletResponse, osmData, features());
+      fail("The streaming should stop with an exception, as the request was cancelled.");
+    } catch (Exception e) {
+      // expected, as the processing of the features was aborted
+    }
+    assertTrue(cancellationToken.isCancelled());
+    return new String(servletResponse.content.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static Stream<ExtractionFeature> features() {
+    GeometryFactory geometryFactory = new GeometryFactory();
+    return IntStream.range(0, NUMBER_OF_FEATURES).mapToObj(i -> {
+      ExtractionFeature feature = new ExtractionFeature();
+      feature.setGeometry(geometryFactory.createPoint(new Coordinate(8 + i * 1e-5, 49)));
+      feature.setOsmType(OSMType.NODE);
+      feature.setOsmId(i);
+      return feature;
+    });
+  }
+
+  private static int countFeatures(String response) {
+    return response.split("\"@osmId\"", -1).length - 1;
+  }
+
+  @Test
+  public void stopStreamingGeoJsonFeaturesAfterCancel() {
+    int features = countFeatures(streamToDisconnectingClient(null));
+    // features, which were already serialized by the other threads, may still be written
+    assertTrue("written features: " + features, features >= 1 && features <= THREADS);
+  }
+
+  @Test
+  public void stopStreamingGeoJsonSequenceAfterCancel() {
+    int features = countFeatures(streamToDisconnectingClient("geojsonseq"));
+    // each thread writes at most the batch it has already filled
+    assertTrue("written features: " + features,
+        features >= 1 && features < NUMBER_OF_FEATURES / 2);
+  }
+
+  /** Response, whose client disconnects after it has received the first feature. */
+  private class DisconnectingResponse extends MockHttpServletResponse {
+
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+
+      @Override
+      public void write(int b) {
+        content.write(b);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+        content.write(b, off, len);
+        if (new String(b, off, len, StandardCharsets.UTF_8).contains("\"@osmId\"")) {
+          cancellationToken.cancel();
+        }
+      }
+
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      @Override
+      public void setWriteListener(WriteListener writeListener) {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+      return outputStream;
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package org.heigit.ohsome.ohsomeapi.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.heigit.ohsome.ohsomeapi.controller.TestProperties;
+import org.heigit.ohsome.ohsomeapi.exception.ServiceUnavailableException;
+import org.heigit.ohsome.ohsomeapi.executor.RequestCost.Priority;
+import org.heigit.ohsome.ohsomeapi.oshdb.CancellationToken;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test class for the
+ * {@link org.heigit.ohsome.ohsomeapi.executor.RequestExecutionPool RequestExecutionPool} class.
+ * The tests use a pool with one worker thread per lane, which is blocked by a first task, so that
+ * the following tasks have to wait.
+ */
+public class RequestExecutionPoolTest {
+
+  private static final int QUEUE_CAPACITY = 3;
+  private static final long MAX_QUEUED_COST = 10;
+  private static final long TIMEOUT_SECONDS = 10;
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final List<String> executed = new ArrayList<>();
+  private RequestExecutionPool pool;
+
+  /** Checks the value of the junit property. */
+  @BeforeClass
+  public static void checkJunitProperty() {
+    assumeTrue(TestProperties.JUNIT == null || !TestProperties.JUNIT.equalsIgnoreCase("no"));
+  }
+
+  /** Releases the blocked worker and shuts down the pool. */
+  @After
+  public void shutdown() {
+    release.countDown();
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  private static RequestCost cost(Priority priority, long cost) {
+    return new RequestCost(RequestClass.AGGREGATION, priority, cost);
+  }
+
+  private void createPool() {
+    pool = new RequestExecutionPool(1, 1, 1, QUEUE_CAPACITY, MAX_QUEUED_COST);
+    pool.init();
+  }
+
+  /** Submits a task, which occupies the worker of the aggregation lane until it is released. */
+  private CompletableFuture<String> blockWorker() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CompletableFuture<String> future =
+        pool.submit(cost(Priority.NORMAL, 1), new CancellationToken(), () -> {
+          started.countDown();
+          release.await();
+          return "blocking";
+        });
+    assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    return future;
+  }
+
+  /** Submits a task, which records its name when it is executed. */
+  private CompletableFuture<String> submit(String name, Priority priority, long cost) {
+    return pool.submit(cost(priority, cost), new CancellationToken(), () -> {
+      synchronized (executed) {
+        executed.add(name);
+      }
+      return name;
+    });
+  }
+
+  private static <T> T get(CompletableFuture<T> future) throws Exception {
+    return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void rejectTasksExceedingTheQueueCapacity() throws Exception {
+    createPool();
+    blockWorker();
+    for (int i = 0; i < QUEUE_CAPACITY; i++) {
+      submit("task" + i, Priority.NORMAL, 1);
+    }
+    assertEquals(QUEUE_CAPACITY, pool.getQueueSize(RequestClass.AGGREGATION));
+    try {
+      submit("rejected", Priority.HIGH, 1);
+      fail("The task should be rejected, as the queue is full.");
+    } catch (ServiceUnavailableException e) {
+      assertEquals(QUEUE_CAPACITY, pool.getQueueSize(RequestClass.AGGREGATION));
+    }
+  }
+
+  @Test
+  public void rejectTasksExceedingTheQueuedCost() throws Exception {
+    createPool();
+    blockWorker();
+    submit("first", Priority.NORMAL, 6);
+    try {
+      submit("rejected", Priority.NORMAL, 5);
+      fail("The task should be rejected, as the queued cost would exceed its limit.");
+    } catch (ServiceUnavailableException e) {
+      assertEquals(1, pool.getQueueSize(RequestClass.AGGREGATION));
+    }
+    // exactly reaching the limit is allowed
+    submit("second", Priority.NORMAL, 4);
+    assertEquals(2, pool.getQueueSize(RequestClass.AGGREGATION));
+  }
+
+  @Test
+  public void admitTasksToAnEmptyLaneRegardlessOfTheirCost() throws Exception {
+    createPool();
+    CompletableFuture<String> idleLane = submit("idle", Priority.NORMAL, 10 * MAX_QUEUED_COST);
+    assertEquals("idle", get(idleLane));
+    blockWorker();
+    CompletableFuture<String> emptyQueue =
+        submit("expensive", Priority.LOW, 10 * MAX_QUEUED_COST);
+    release.countDown();
+    assertEquals("expensive", get(emptyQueue));
+  }
+
+  @Test
+  public void lanesAreAdmittedIndependently() throws Exception {
+    createPool();
+    blockWorker();
+    for (int i = 0; i < QUEUE_CAPACITY; i++) {
+      submit("task" + i, Priority.NORMAL, 1);
+    }
+    CompletableFuture<String> extraction = pool.submit(
+        new RequestCost(RequestClass.EXTRACTION, Priority.NORMAL, 1), new CancellationToken(),
+        () -> "extraction");
+    assertEquals("extraction", get(extraction));
+  }
+
+  @Test
+  public void runWaitingTasksByPriorityThenByArrival() throws Exception {
+    pool = new RequestExecutionPool(1, 1, 1, 10, 100);
+    pool.init();
+    blockWorker();
+    List<CompletableFuture<String>> futures = Arrays.asList(
+        submit("normal1", Priority.NORMAL, 1),
+        submit("low", Priority.LOW, 1),
+        submit("high1", Priority.HIGH, 1),
+        submit("normal2", Priority.NORMAL, 1),
+        submit("high2", Priority.HIGH, 1));
+    release.countDown();
+    for (CompletableFuture<String> future : futures) {
+      get(future);
+    }
+    assertEquals(Arrays.asList("high1", "high2", "normal1", "normal2", "low"), executed);
+  }
+
+  @Test
+  public void retryAfterOneSecondWithoutFinishedTasks() throws Exception {
+    createPool();
+    blockWorker();
+    submit("task", Priority.NORMAL, 1);
+    try {
+      submit("rejected", Priority.NORMAL, MAX_QUEUED_COST);
+      fail("The task should be rejected, as the queued cost would exceed its limit.");
+    } catch (ServiceUnavailableException e) {
+      assertEquals(Long.valueOf(1), e.getRetryAfterSeconds());
+    }
+  }
+
+  @Test
+  public void retryAfterTheEstimatedDurationOfTheWaitingTasks() throws Exception {
+    createPool();
+    // the duration of the first finished task is taken as average
+    get(pool.submit(cost(Priority.NORMAL, 1), new CancellationToken(), () -> {
+      Thread.sleep(1000);
+      return "slow";
+    }));
+    blockWorker();
+    submit("first", Priority.NORMAL, 1);
+    submit("second", Priority.NORMAL, 1);
+    try {
+      submit("rejected", Priority.NORMAL, MAX_QUEUED_COST);
+      fail("The task should be rejected, as the queued cost would exceed its limit.");
+    } catch (ServiceUnavailableException e) {
+      // the two waiting tasks and the rejected one need about 3 seconds on the single worker
+      long retryAfter = e.getRetryAfterSeconds();
+      assertTrue("retry after " + retryAfter + "s", retryAfter >= 3 && retryAfter <= 4);
+    }
+  }
+
+  @Test
+  public void doNotRunTasksCancelledWhileWaiting() throws Exception {
+    createPool();
+    blockWorker();
+    CancellationToken cancellationToken = new CancellationToken();
+    AtomicBoolean ran = new AtomicBoolean(false);
+    CompletableFuture<String> cancelled =
+        pool.submit(cost(Priority.NORMAL, MAX_QUEUED_COST), cancellationToken, () -> {
+          ran.set(true);
+          return "cancelled";
+        });
+    cancellationToken.cancel();
+    release.countDown();
+    try {
+      get(cancelled);
+      fail("The task should not be run, as it was cancelled while waiting.");
+    } catch (CancellationException e) {
+      // a future completed with a CancellationException throws it directly
+    }
+    assertFalse(ran.get());
+  }
+}
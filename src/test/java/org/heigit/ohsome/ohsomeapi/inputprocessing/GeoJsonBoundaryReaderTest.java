@@ -0,0 +1,118 @@
+package org.heigit.ohsome.ohsomeapi.inputprocessing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import java.util.List;
+import org.heigit.ohsome.ohsomeapi.controller.TestProperties;
+import org.heigit.ohsome.ohsomeapi.exception.BadRequestException;
+import org.heigit.ohsome.ohsomeapi.inputprocessing.GeoJsonBoundaryReader.BoundaryFeature;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Test class for the
+ * {@link org.heigit.ohsome.ohsomeapi.inputprocessing.GeoJsonBoundaryReader
+ * GeoJsonBoundaryReader} class.
+ */
+public class GeoJsonBoundaryReaderTest {
+
+  private static final String POLYGON =
+      "{\"type\":\"Polygon\",\"coordinates\":[[[8,49],[9,49],[9,50],[8,49]]]}";
+
+  /** Checks the value of the junit property. */
+  @BeforeClass
+  public static void checkJunitProperty() {
+    assumeTrue(TestProperties.JUNIT == null || !TestProperties.JUNIT.equalsIgnoreCase("no"));
+  }
+
+  private static String featureCollection(String... features) {
+    return "{\"type\":\"FeatureCollection\",\"features\":[" + String.join(",", features) + "]}";
+  }
+
+  private static String feature(String members, String geometry) {
+    return "{\"type\":\"Feature\"," + members + "\"geometry\":" + geometry + "}";
+  }
+
+  @Test
+  public void readIdsOfFeaturesAndTheirProperties() {
+    List<BoundaryFeature> features = GeoJsonBoundaryReader.read(featureCollection(
+        feature("\"id\":\"a\",", POLYGON),
+        feature("\"id\":5,", POLYGON),
+        feature("\"properties\":{\"id\":\"b\"},", POLYGON),
+        feature("\"properties\":{\"id\":\"c\"},\"id\":\"d\",", POLYGON),
+        feature("\"properties\":{\"name\":\"e\"},", POLYGON)));
+    assertEquals(5, features.size());
+    assertEquals("a", features.get(0).getId());
+    assertEquals(5, features.get(1).getId());
+    assertEquals("b", features.get(2).getId());
+    // the id of the feature takes precedence over the id in its properties
+    assertEquals("d", features.get(3).getId());
+    assertNull(features.get(4).getId());
+  }
+
+  @Test
+  public void keepTheRawGeometryAsSent() {
+    List<BoundaryFeature> features =
+        GeoJsonBoundaryReader.read(featureCollection(feature("", POLYGON)));
+    assertEquals(POLYGON, features.get(0).getRawGeometry());
+  }
+
+  @Test
+  public void buildPolygonsAndMultiPolygons() {
+    String multiPolygon = "{\"type\":\"MultiPolygon\",\"coordinates\":"
+        + "[[[[8,49],[9,49],[9,50],[8,49]]],[[[10,49],[11,49],[11,50,100],[10,49]]]]}";
+    Geometry[] geometries = GeoJsonBoundaryReader.buildGeometries(GeoJsonBoundaryReader
+        .read(featureCollection(feature("", POLYGON), feature("", multiPolygon))));
+    assertTrue(geometries[0] instanceof Polygon);
+    assertTrue(geometries[1] instanceof MultiPolygon);
+    assertEquals(2, geometries[1].getNumGeometries());
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void rejectOtherGeometryTypes() {
+    GeoJsonBoundaryReader.buildGeometries(GeoJsonBoundaryReader.read(
+        featureCollection(feature("", "{\"type\":\"Point\",\"coordinates\":[8,49]}"))));
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void rejectRingsWhichAreNotClosed() {
+    GeoJsonBoundaryReader.buildGeometries(GeoJsonBoundaryReader.read(featureCollection(
+        feature("", "{\"type\":\"Polygon\",\"coordinates\":[[[8,49],[9,49],[9,50],[8,50]]]}"))));
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void rejectIdsWhichAreNeitherStringsNorNumbers() {
+    GeoJsonBoundaryReader.read(featureCollection(feature("\"id\":[1],", POLYGON)));
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void rejectOtherTypesThanFeatureCollections() {
+    GeoJsonBoundaryReader.read("{\"type\":\"Feature\",\"geometry\":" + POLYGON + "}");
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void rejectInvalidJson() {
+    GeoJsonBoundaryReader.read(featureCollection(feature("", POLYGON)) + "}");
+  }
+
+  @Test
+  public void keepTheOrderOfTheFeaturesWhenBuildingInParallel() {
+    int numberOfFeatures = 2 * GeoJsonBoundaryReader.PARALLEL_THRESHOLD;
+    String[] features = new String[numberOfFeatures];
+    for (int i = 0; i < numberOfFeatures; i++) {
+      features[i] = feature("\"id\":" + i + ",", "{\"type\":\"Polygon\",\"coordinates\":[[[" + i
+          + ",0],[" + i + ".5,0],[" + i + ".5,0.5],[" + i + ",0]]]}");
+    }
+    Geometry[] geometries = GeoJsonBoundaryReader
+        .buildGeometries(GeoJsonBoundaryReader.read(featureCollection(features)));
+    assertEquals(numberOfFeatures, geometries.length);
+    for (int i = 0; i < numberOfFeatures; i++) {
+      assertEquals(i, geometries[i].getEnvelopeInternal().getMinX(), 0);
+    }
+  }
+}
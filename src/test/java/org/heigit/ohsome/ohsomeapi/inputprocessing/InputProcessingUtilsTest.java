@@ -6,6 +6,7 @@ import org.heigit.ohsome.ohsomeapi.controller.TestProperties;
 import org.heigit.ohsome.ohsomeapi.exception.BadRequestException;
 import org.heigit.ohsome.ohsomeapi.inputprocessing.InputProcessingUtils;
 import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadata;
+import org.heigit.ohsome.ohsomeapi.oshdb.ExtractMetadataSnapshot;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -27,9 +28,9 @@ public class InputProcessingUtilsTest {
 
   @Before
   public void setup() {
+    ExtractMetadata.publish(new ExtractMetadataSnapshot("2008-01-01T00:00:00Z",
+        "2018-01-01T00:00:00Z", null, null, null, null, 0));
     inProUtils = new InputProcessingUtils();
-    ExtractMetadata.fromTstamp = "2008-01-01T00:00:00Z";
-    ExtractMetadata.toTstamp = "2018-01-01T00:00:00Z";
   }
 
   // boundary param split tests
@@ -0,0 +1,83 @@
+package org.heigit.ohsome.ohsomeapi.oshdb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.heigit.ohsome.ohsomeapi.controller.TestProperties;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Test class for the
+ * {@link org.heigit.ohsome.ohsomeapi.oshdb.CancellationToken CancellationToken} class.
+ */
+public class CancellationTokenTest {
+
+  /** Checks the value of the junit property. */
+  @BeforeClass
+  public static void checkJunitProperty() {
+    assumeTrue(TestProperties.JUNIT == null || !TestProperties.JUNIT.equalsIgnoreCase("no"));
+  }
+
+  @Test
+  public void runCallbacksOnceWhenCancelled() {
+    CancellationToken cancellationToken = new CancellationToken();
+    AtomicInteger calls = new AtomicInteger();
+    assertTrue(cancellationToken.onCancel(calls::incrementAndGet));
+    assertTrue(cancellationToken.onCancel(calls::incrementAndGet));
+    assertEquals(0, calls.get());
+    cancellationToken.cancel();
+    assertTrue(cancellationToken.isCancelled());
+    assertEquals(2, calls.get());
+    cancellationToken.cancel();
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void runCallbackRightAwayWhenAlreadyCancelled() {
+    CancellationToken cancellationToken = new CancellationToken();
+    cancellationToken.cancel();
+    AtomicInteger calls = new AtomicInteger();
+    assertFalse(cancellationToken.onCancel(calls::incrementAndGet));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void doNotRunRemovedCallbacks() {
+    CancellationToken cancellationToken = new CancellationToken();
+    AtomicInteger removedCalls = new AtomicInteger();
+    AtomicInteger calls = new AtomicInteger();
+    Runnable removedCallback = removedCalls::incrementAndGet;
+    cancellationToken.onCancel(removedCallback);
+    cancellationToken.onCancel(calls::incrementAndGet);
+    cancellationToken.removeCallback(removedCallback);
+    cancellationToken.cancel();
+    assertEquals(0, removedCalls.get());
+    assertEquals(1, calls.get());
+    // removing a callback after the cancellation has no effect
+    cancellationToken.removeCallback(removedCallback);
+  }
+
+  @Test(expected = CancellationException.class)
+  public void throwIfCancelled() {
+    CancellationToken cancellationToken = new CancellationToken();
+    cancellationToken.throwIfCancelled();
+    cancellationToken.cancel();
+    cancellationToken.throwIfCancelled();
+  }
+
+  @Test
+  public void shareTheTokenOfARequest() {
+    MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+    assertNull(CancellationToken.get(servletRequest));
+    CancellationToken cancellationToken = CancellationToken.of(servletRequest);
+    assertSame(cancellationToken, CancellationToken.of(servletRequest));
+    assertSame(cancellationToken, CancellationToken.get(servletRequest));
+  }
+}
@@ -0,0 +1,194 @@
+package org.heigit.ohsome.ohsomeapi.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assume.assumeTrue;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.heigit.ohsome.ohsomeapi.controller.TestProperties;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.locationtech.jts.io.WKTReader;
+
+/**
+ * Test class for the
+ * {@link org.heigit.ohsome.ohsomeapi.utils.FlatGeobufWriter
+ * FlatGeobufWriter} class. The written flatbuffers are decoded following the FlatGeobuf schema,
+ * so the field indices used here are the ones of the Header, Column, Crs, Feature and Geometry
+ * tables defined there.
+ */
+public class FlatGeobufWriterTest {
+
+  private static final String PROPERTIES = "{\"@version\":2,\"name\":\"Café\"}";
+
+  /** Checks the value of the junit property. */
+  @BeforeClass
+  public static void checkJunitProperty() {
+    assumeTrue(TestProperties.JUNIT == null || !TestProperties.JUNIT.equalsIgnoreCase("no"));
+  }
+
+  /** Wraps the given size-prefixed flatbuffer and checks its size prefix. */
+  private static ByteBuffer wrap(byte[] bytes) {
+    ByteBuffer bb = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(bytes.length - 4, bb.getInt(0));
+    return bb;
+  }
+
+  private static int rootTable(ByteBuffer bb) {
+    return 4 + bb.getInt(4);
+  }
+
+  /** Gives the position of the given field relative to its table, or 0 if it is not set. */
+  private static int fieldOffset(ByteBuffer bb, int table, int field) {
+    int vtable = table - bb.getInt(table);
+    int vtableEntry = 4 + 2 * field;
+    return vtableEntry < bb.getShort(vtable) ? bb.getShort(vtable + vtableEntry) : 0;
+  }
+
+  /** Gives the position of the table, vector or string referenced by the given field. */
+  private static int reference(ByteBuffer bb, int table, int field) {
+    int fieldOffset = fieldOffset(bb, table, field);
+    assertNotEquals(0, fieldOffset);
+    int position = table + fieldOffset;
+    return position + bb.getInt(position);
+  }
+
+  private static byte byteField(ByteBuffer bb, int table, int field) {
+    int fieldOffset = fieldOffset(bb, table, field);
+    return fieldOffset == 0 ? 0 : bb.get(table + fieldOffset);
+  }
+
+  private static String string(ByteBuffer bb, int table, int field) {
+    int vector = reference(bb, table, field);
+    return new String(bb.array(), vector + 4, bb.getInt(vector), StandardCharsets.UTF_8);
+  }
+
+  private static int[] tables(ByteBuffer bb, int table, int field) {
+    int vector = reference(bb, table, field);
+    int[] tables = new int[bb.getInt(vector)];
+    for (int i = 0; i < tables.length; i++) {
+      int position = vector + 4 + 4 * i;
+      tables[i] = position + bb.getInt(position);
+    }
+    return tables;
+  }
+
+  private static int[] ints(ByteBuffer bb, int table, int field) {
+    int vector = reference(bb, table, field);
+    int[] values = new int[bb.getInt(vector)];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = bb.getInt(vector + 4 + 4 * i);
+    }
+    return values;
+  }
+
+  private static double[] doubles(ByteBuffer bb, int table, int field) {
+    int vector = reference(bb, table, field);
+    double[] values = new double[bb.getInt(vector)];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = bb.getDouble(vector + 4 + 8 * i);
+    }
+    return values;
+  }
+
+  /** Decodes the properties of a feature, which are pairs of column index and string. */
+  private static String[] properties(ByteBuffer bb, int feature) {
+    int vector = reference(bb, feature, 1);
+    ByteBuffer properties = ByteBuffer.wrap(bb.array(), vector + 4, bb.getInt(vector))
+        .slice().order(ByteOrder.LITTLE_ENDIAN);
+    String[] values = new String[2];
+    for (int column = 0; column < values.length; column++) {
+      assertEquals(column, properties.getShort());
+      byte[] value = new byte[properties.getInt()];
+      properties.get(value);
+      values[column] = new String(value, StandardCharsets.UTF_8);
+    }
+    assertEquals(0, properties.remaining());
+    return values;
+  }
+
+  /** Writes a feature with the default properties and checks them. */
+  private static ByteBuffer writeFeature(String wkt, String osmId) throws Exception {
+    ByteBuffer bb = wrap(FlatGeobufWriter.createFeature(new WKTReader().read(wkt), osmId,
+        PROPERTIES.getBytes(StandardCharsets.UTF_8)));
+    assertArrayEquals(new String[] {osmId, PROPERTIES}, properties(bb, rootTable(bb)));
+    return bb;
+  }
+
+  @Test
+  public void writeMagicBytesOfVersion3() {
+    assertArrayEquals(new byte[] {'f', 'g', 'b', 3, 'f', 'g', 'b', 0},
+        FlatGeobufWriter.MAGIC_BYTES);
+  }
+
+  @Test
+  public void writeHeaderWithOsmIdAndPropertiesColumns() {
+    ByteBuffer bb = wrap(FlatGeobufWriter.createHeader("ohsome", "© OSM contributors"));
+    int header = rootTable(bb);
+    assertEquals("ohsome", string(bb, header, 0));
+    assertEquals("© OSM contributors", string(bb, header, 12));
+    // unknown geometry type, i.e. features of mixed types
+    assertEquals(0, byteField(bb, header, 2));
+    // index node size 0, i.e. no spatial index
+    assertNotEquals(0, fieldOffset(bb, header, 9));
+    assertEquals(0, bb.getShort(header + fieldOffset(bb, header, 9)));
+    int[] columns = tables(bb, header, 7);
+    assertEquals(2, columns.length);
+    assertEquals(FlatGeobufWriter.OSM_ID_COLUMN, string(bb, columns[0], 0));
+    assertEquals(11, byteField(bb, columns[0], 1));
+    assertEquals(FlatGeobufWriter.PROPERTIES_COLUMN, string(bb, columns[1], 0));
+    assertEquals(12, byteField(bb, columns[1], 1));
+    int crs = reference(bb, header, 10);
+    assertEquals("EPSG", string(bb, crs, 0));
+    assertEquals(4326, bb.getInt(crs + fieldOffset(bb, crs, 1)));
+  }
+
+  @Test
+  public void writePoint() throws Exception {
+    ByteBuffer bb = writeFeature("POINT (8.5 49.25)", "node/1");
+    int geometry = reference(bb, rootTable(bb), 0);
+    assertEquals(1, byteField(bb, geometry, 6));
+    assertArrayEquals(new double[] {8.5, 49.25}, doubles(bb, geometry, 1), 0);
+    assertEquals(0, fieldOffset(bb, geometry, 0));
+  }
+
+  @Test
+  public void writePolygonWithHole() throws Exception {
+    ByteBuffer bb = writeFeature(
+        "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 2 1, 2 2, 1 1))", "way/2");
+    int geometry = reference(bb, rootTable(bb), 0);
+    assertEquals(3, byteField(bb, geometry, 6));
+    assertArrayEquals(new int[] {5, 9}, ints(bb, geometry, 0));
+    assertArrayEquals(new double[] {0, 0, 10, 0, 10, 10, 0, 10, 0, 0, 1, 1, 2, 1, 2, 2, 1, 1},
+        doubles(bb, geometry, 1), 0);
+  }
+
+  @Test
+  public void writeMultiPolygonAsParts() throws Exception {
+    ByteBuffer bb = writeFeature("MULTIPOLYGON (((0 0, 10 0, 10 10, 0 0), "
+        + "(1 0.5, 2 0.5, 2 1, 1 0.5)), ((20 20, 21 20, 21 21, 20 20)))", "relation/3");
+    int geometry = reference(bb, rootTable(bb), 0);
+    assertEquals(6, byteField(bb, geometry, 6));
+    assertEquals(0, fieldOffset(bb, geometry, 1));
+    int[] parts = tables(bb, geometry, 7);
+    assertEquals(2, parts.length);
+    assertEquals(3, byteField(bb, parts[0], 6));
+    assertArrayEquals(new int[] {4, 8}, ints(bb, parts[0], 0));
+    assertArrayEquals(new double[] {0, 0, 10, 0, 10, 10, 0, 0, 1, 0.5, 2, 0.5, 2, 1, 1, 0.5},
+        doubles(bb, parts[0], 1), 0);
+    assertEquals(3, byteField(bb, parts[1], 6));
+    assertEquals(0, fieldOffset(bb, parts[1], 0));
+    assertArrayEquals(new double[] {20, 20, 21, 20, 21, 21, 20, 20},
+        doubles(bb, parts[1], 1), 0);
+  }
+
+  @Test
+  public void writeFeatureWithoutGeometry() {
+    ByteBuffer bb = wrap(FlatGeobufWriter.createFeature(null, "way/4",
+        PROPERTIES.getBytes(StandardCharsets.UTF_8)));
+    assertEquals(0, fieldOffset(bb, rootTable(bb), 0));
+    assertArrayEquals(new String[] {"way/4", PROPERTIES}, properties(bb, rootTable(bb)));
+  }
+}
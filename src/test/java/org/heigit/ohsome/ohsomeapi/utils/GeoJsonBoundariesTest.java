@@ -0,0 +1,59 @@
+package org.heigit.ohsome.ohsomeapi.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeTrue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.List;
+import org.geojson.GeoJsonObject;
+import org.heigit.ohsome.ohsomeapi.controller.TestProperties;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKTReader;
+import org.wololo.jts2geojson.GeoJSONWriter;
+
+/**
+ * Test class for the
+ * {@link org.heigit.ohsome.ohsomeapi.utils.GeoJsonBoundaries
+ * GeoJsonBoundaries} class.
+ */
+public class GeoJsonBoundariesTest {
+
+  /** Checks the value of the junit property. */
+  @BeforeClass
+  public static void checkJunitProperty() {
+    assumeTrue(TestProperties.JUNIT == null || !TestProperties.JUNIT.equalsIgnoreCase("no"));
+  }
+
+  @Test
+  public void convertBoundariesLikeTheirGeoJsonText() throws Exception {
+    WKTReader wktReader = new WKTReader();
+    List<Geometry> boundaryList = Arrays.asList(
+        wktReader.read("POLYGON ((8 49, 9 49, 9 50, 8 50, 8 49), "
+            + "(8.2 49.2, 8.4 49.2, 8.4 49.4, 8.2 49.2))"),
+        wktReader.read("MULTIPOLYGON (((8 49, 9 49, 9 50, 8 49)), "
+            + "((10 49, 11 49, 11 50, 10 49)))"));
+    GeoJsonBoundaries geoJsonBoundaries = new GeoJsonBoundaries(boundaryList, null);
+    assertEquals(2, geoJsonBoundaries.size());
+    GeoJSONWriter writer = new GeoJSONWriter();
+    ObjectMapper objectMapper = new ObjectMapper();
+    for (int i = 0; i < boundaryList.size(); i++) {
+      GeoJsonObject expected = objectMapper
+          .readValue(writer.write(boundaryList.get(i)).toString(), GeoJsonObject.class);
+      assertEquals(expected, geoJsonBoundaries.get(i));
+    }
+  }
+
+  @Test
+  public void parseRawGeoJsonGeometriesOnlyOnce() {
+    String[] rawGeoJsonGeoms = {
+        "{\"type\":\"Polygon\",\"coordinates\":[[[8,49],[9,49],[9,50],[8,49]]]}"};
+    GeoJsonBoundaries geoJsonBoundaries = new GeoJsonBoundaries(null, rawGeoJsonGeoms);
+    assertEquals(1, geoJsonBoundaries.size());
+    GeoJsonObject geoJsonGeom = geoJsonBoundaries.get(0);
+    assertEquals(org.geojson.Polygon.class, geoJsonGeom.getClass());
+    assertSame(geoJsonGeom, geoJsonBoundaries.get(0));
+  }
+}
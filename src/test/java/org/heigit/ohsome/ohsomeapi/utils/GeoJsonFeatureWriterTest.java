@@ -0,0 +1,114 @@
+package org.heigit.ohsome.ohsomeapi.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.TreeMap;
+import org.heigit.bigspatialdata.oshdb.osm.OSMType;
+import org.heigit.bigspatialdata.oshdb.util.celliterator.ContributionType;
+import org.heigit.ohsome.ohsomeapi.controller.TestProperties;
+import org.heigit.ohsome.ohsomeapi.output.ExtractionFeature;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKTReader;
+
+/**
+ * Test class for the
+ * {@link org.heigit.ohsome.ohsomeapi.utils.GeoJsonFeatureWriter
+ * GeoJsonFeatureWriter} class.
+ */
+public class GeoJsonFeatureWriterTest {
+
+  /** Checks the value of the junit property. */
+  @BeforeClass
+  public static void checkJunitProperty() {
+    assumeTrue(TestProperties.JUNIT == null || !TestProperties.JUNIT.equalsIgnoreCase("no"));
+  }
+
+  private JsonNode writeFeature(Geometry geometry, Map<String, Object> properties)
+      throws Exception {
+    GeoJsonFeatureWriter writer = new GeoJsonFeatureWriter(16);
+    writer.writeFeature(geometry, properties);
+    return new ObjectMapper()
+        .readTree(new String(writer.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void roundCoordinatesTo7DecimalPlaces() throws Exception {
+    Geometry geometry = new WKTReader().read("POINT (8.123456789 -49.00000005)");
+    JsonNode coordinates = writeFeature(geometry, new TreeMap<>()).get("geometry")
+        .get("coordinates");
+    assertEquals("8.1234568", coordinates.get(0).asText());
+    assertEquals("-49.0", coordinates.get(1).asText());
+  }
+
+  @Test
+  public void writePolygonWithHole() throws Exception {
+    Geometry geometry = new WKTReader().read("MULTIPOLYGON (((0 0, 10 0, 10 10, 0 10, 0 0), "
+        + "(1 1, 2 1, 2 2, 1 1)), ((20 20, 21 20, 21 21, 20 20)))");
+    JsonNode featureGeometry = writeFeature(geometry, new TreeMap<>()).get("geometry");
+    assertEquals("MultiPolygon", featureGeometry.get("type").asText());
+    assertEquals(2, featureGeometry.get("coordinates").size());
+    assertEquals(2, featureGeometry.get("coordinates").get(0).size());
+    assertEquals(4, featureGeometry.get("coordinates").get(0).get(1).size());
+  }
+
+  @Test
+  public void writeEscapedProperties() throws Exception {
+    Map<String, Object> properties = new TreeMap<>();
+    properties.put("@version", 3);
+    properties.put("@creation", true);
+    properties.put("name", "Café \"Zur Brücke\"\n😀\\");
+    JsonNode feature = writeFeature(null, properties);
+    assertEquals(true, feature.get("geometry").isNull());
+    assertEquals(3, feature.get("properties").get("@version").asInt());
+    assertEquals(true, feature.get("properties").get("@creation").asBoolean());
+    assertEquals("Café \"Zur Brücke\"\n😀\\",
+        feature.get("properties").get("name").asText());
+  }
+
+  @Test
+  public void writeNotFiniteNumbersAsNull() throws Exception {
+    Map<String, Object> properties = new TreeMap<>();
+    properties.put("infinite", Double.POSITIVE_INFINITY);
+    properties.put("nan", Float.NaN);
+    properties.put("ratio", 0.5);
+    JsonNode featureProperties = writeFeature(null, properties).get("properties");
+    assertEquals(true, featureProperties.get("infinite").isNull());
+    assertEquals(true, featureProperties.get("nan").isNull());
+    assertEquals(0.5, featureProperties.get("ratio").asDouble(), 0);
+  }
+
+  @Test
+  public void writeFeaturePropertiesInTheOrderOfTheirNames() throws Exception {
+    ExtractionFeature feature = new ExtractionFeature();
+    feature.setOsmType(OSMType.WAY);
+    feature.setOsmId(123);
+    feature.setVersion(2);
+    feature.setChangesetId(456);
+    feature.setContributionTypes(EnumSet.of(ContributionType.TAG_CHANGE));
+    feature.setTimestamp("2020-01-01T00:00:00Z");
+    String[] tags = {"1st", "a", "@@ref", "b", "amenity", "c"};
+    Map<String, Object> properties = new TreeMap<>();
+    properties.put("@osmId", "way/123");
+    properties.put("@version", 2);
+    properties.put("@osmType", OSMType.WAY);
+    properties.put("@changesetId", 456L);
+    properties.put("@tagChange", true);
+    properties.put("@timestamp", "2020-01-01T00:00:00Z");
+    for (int i = 0; i < tags.length; i += 2) {
+      properties.put(tags[i], tags[i + 1]);
+    }
+    GeoJsonFeatureWriter recordWriter = new GeoJsonFeatureWriter(16);
+    recordWriter.writeFeature(feature, tags);
+    GeoJsonFeatureWriter mapWriter = new GeoJsonFeatureWriter(16);
+    mapWriter.writeFeature(null, properties);
+    assertEquals(new String(mapWriter.toByteArray(), StandardCharsets.UTF_8),
+        new String(recordWriter.toByteArray(), StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,65 @@
+package org.heigit.ohsome.ohsomeapi.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+import org.heigit.ohsome.ohsomeapi.controller.TestProperties;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test class for the
+ * {@link org.heigit.ohsome.ohsomeapi.utils.RoundingUtils
+ * RoundingUtils} class.
+ */
+public class RoundingUtilsTest {
+
+  /** Checks the value of the junit property. */
+  @BeforeClass
+  public static void checkJunitProperty() {
+    assumeTrue(TestProperties.JUNIT == null || !TestProperties.JUNIT.equalsIgnoreCase("no"));
+  }
+
+  private static DecimalFormat decimalFormat(String pattern) {
+    DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.ROOT);
+    symbols.setDecimalSeparator('.');
+    return new DecimalFormat(pattern, symbols);
+  }
+
+  @Test
+  public void roundTiesHalfEvenByTheirExactValue() {
+    assertEquals(0.12, RoundingUtils.round(0.125), 0);
+    // 0.135 and 2.675 are stored slightly above and below the tie
+    assertEquals(0.14, RoundingUtils.round(0.135), 0);
+    assertEquals(2.67, RoundingUtils.round(2.675), 0);
+    assertEquals(-0.12, RoundingUtils.round(-0.125), 0);
+  }
+
+  @Test
+  public void returnNotFiniteValuesUnchanged() {
+    assertEquals(Double.NaN, RoundingUtils.round(Double.NaN), 0);
+    assertEquals(Double.POSITIVE_INFINITY,
+        RoundingUtils.round(Double.POSITIVE_INFINITY, RoundingUtils.RATIO_DECIMALS), 0);
+  }
+
+  @Test
+  public void roundLikeDecimalFormat() {
+    DecimalFormat resultFormat = decimalFormat("#.##");
+    DecimalFormat ratioFormat = decimalFormat("#.######");
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      double value = random.nextDouble() * Math.pow(10, random.nextInt(16) - 4);
+      if (i % 3 == 0) {
+        // values close to a tie, like sums of values with few decimal places
+        value = (random.nextInt(1000000) + 0.5) / 100;
+      }
+      assertEquals(Double.parseDouble(resultFormat.format(value)), RoundingUtils.round(value),
+          0);
+      assertEquals(Double.parseDouble(ratioFormat.format(value)),
+          RoundingUtils.round(value, RoundingUtils.RATIO_DECIMALS), 0);
+    }
+  }
+}